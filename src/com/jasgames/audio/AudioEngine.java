@@ -0,0 +1,313 @@
+package com.jasgames.audio;
+
+import com.jasgames.util.AppLog;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.SourceDataLine;
+import javax.swing.SwingUtilities;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Motor de audio compartido: un único hilo de larga vida que recibe comandos por una cola.
+ *
+ * - El PCM se decodifica una vez y queda en {@link PcmCache} (con tope de memoria).
+ * - Las líneas ({@link SourceDataLine}) se reutilizan: quedan abiertas en un pool por formato,
+ *   así un sonido de feedback empieza sin abrir dispositivo ni leer el WAV.
+ * - El hilo escribe el PCM en trozos pequeños y entre trozo y trozo atiende la cola,
+ *   por lo que stop()/play() se aplican en milisegundos.
+ * - Las precargas se decodifican solo cuando no hay nada sonando.
+ *
+ * La cancelación por token la decide {@link AudioPlayer}: un comando o callback cuyo token
+ * ya no es el vigente se descarta.
+ */
+final class AudioEngine {
+
+    private static final long MAX_CACHE_BYTES = 24L * 1024 * 1024;
+    private static final int MAX_LINEAS = 4;
+    private static final int BUFFER_MS = 80;
+    private static final long MARGEN_FIN_MS = 300;
+    private static final long ESPERA_MS = 5;
+
+    private static final BlockingQueue<Runnable> COLA = new LinkedBlockingQueue<>();
+    private static final PcmCache CACHE = new PcmCache(MAX_CACHE_BYTES);
+
+    // ---- Estado del hilo del motor (solo se toca desde ese hilo) ----
+
+    // Líneas abiertas y detenidas, por formato (el más antiguo se cierra al pasar el tope)
+    private static final LinkedHashMap<String, SourceDataLine> POOL = new LinkedHashMap<>();
+    private static final Deque<String> PRECARGAS = new ArrayDeque<>();
+    private static Reproduccion actual;
+
+    static {
+        Thread t = new Thread(AudioEngine::bucle, "AudioEngine");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private AudioEngine() {}
+
+    // =========================================================
+    // Comandos (cualquier hilo)
+    // =========================================================
+
+    /** Reproduce las rutas en orden y al final llama onDone (en el EDT) si el token sigue vigente. */
+    static void play(String[] rutas, long token, LongSupplier tokenVigente, Runnable onDone) {
+        COLA.offer(() -> iniciar(new Reproduccion(rutas, token, tokenVigente, onDone)));
+    }
+
+    /** Corta lo que esté sonando (sin callback). */
+    static void stop() {
+        COLA.offer(AudioEngine::cortar);
+    }
+
+    /** Encola la decodificación de rutas para que el primer play sea inmediato. */
+    static void preload(String... rutas) {
+        if (rutas == null || rutas.length == 0) return;
+        String[] copia = rutas.clone();
+        COLA.offer(() -> Collections.addAll(PRECARGAS, copia));
+    }
+
+    // =========================================================
+    // Hilo del motor
+    // =========================================================
+
+    private static void bucle() {
+        for (;;) {
+            try {
+                Runnable cmd;
+                if (actual == null && PRECARGAS.isEmpty()) {
+                    cmd = COLA.take();
+                } else if (actual == null) {
+                    cmd = COLA.poll();
+                } else {
+                    cmd = COLA.poll(actual.esperaMs, TimeUnit.MILLISECONDS);
+                }
+
+                // Los comandos van primero: un stop() no espera al audio en curso
+                if (cmd != null) {
+                    cmd.run();
+                    continue;
+                }
+
+                if (actual != null) {
+                    avanzar();
+                } else {
+                    precargarSiguiente();
+                }
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable e) {
+                AppLog.error("AudioEngine: error inesperado.", e);
+                terminar(true);
+            }
+        }
+    }
+
+    private static void precargarSiguiente() {
+        String ruta = PRECARGAS.pollFirst();
+        if (ruta == null || CACHE.contains(ruta)) return;
+        try {
+            if (CACHE.get(ruta) == null) AppLog.warn("Audio no encontrado: " + ruta);
+        } catch (Exception e) {
+            AppLog.warn("No se pudo precargar audio: " + ruta + " (" + e.getMessage() + ")");
+        }
+    }
+
+    private static void iniciar(Reproduccion r) {
+        cortar();
+
+        // Si ya hubo otro play/stop después de este comando, ni empieza
+        if (!r.vigente()) return;
+
+        actual = r;
+        siguienteArchivo();
+    }
+
+    /** Pasa al siguiente archivo de la secuencia (o termina si no hay más). */
+    private static void siguienteArchivo() {
+        Reproduccion r = actual;
+        while (r.idx < r.rutas.length) {
+            String ruta = r.rutas[r.idx++];
+            PcmCache.Pcm pcm;
+            try {
+                pcm = (ruta == null) ? null : CACHE.get(ruta);
+                if (pcm == null) {
+                    AppLog.warn("Audio no encontrado: " + ruta);
+                    continue;
+                }
+            } catch (Exception e) {
+                AppLog.error("Error reproduciendo audio: " + ruta, e);
+                continue;
+            }
+
+            try {
+                // Mismo formato: se sigue escribiendo en la misma línea, sin hueco
+                if (r.linea == null || !clave(pcm.format).equals(clave(r.linea.getFormat()))) {
+                    liberarLinea(r);
+                    r.linea = obtenerLinea(pcm.format);
+                    r.inicioFrames = r.linea.getLongFramePosition();
+                    r.framesEscritos = 0;
+                }
+            } catch (Exception e) {
+                AppLog.error("Error reproduciendo audio: " + ruta, e);
+                continue;
+            }
+
+            r.pcm = pcm;
+            r.offset = 0;
+            r.esperaMs = 0;
+            return;
+        }
+
+        // No quedan archivos: fin normal
+        terminar(true);
+    }
+
+    /** Escribe el siguiente trozo o espera a que la línea termine de sonar. */
+    private static void avanzar() {
+        Reproduccion r = actual;
+        SourceDataLine line = r.linea;
+        byte[] data = r.pcm.data;
+
+        if (r.offset < data.length) {
+            int frame = Math.max(1, r.pcm.format.getFrameSize());
+            int n = Math.min(line.available(), data.length - r.offset);
+            n -= n % frame;
+            if (n <= 0) {
+                r.esperaMs = ESPERA_MS;
+                return;
+            }
+            int w = line.write(data, r.offset, n);
+            r.offset += w;
+            r.framesEscritos += w / frame;
+            r.esperaMs = 0;
+
+            if (r.offset >= data.length) {
+                r.finEstimado = System.currentTimeMillis() + BUFFER_MS + MARGEN_FIN_MS;
+                // Encadenar el siguiente de la secuencia si comparte formato (sin esperar al drenado)
+                if (r.idx < r.rutas.length && siguienteCompatible(r)) siguienteArchivo();
+            }
+            return;
+        }
+
+        boolean sonando = line.getLongFramePosition() - r.inicioFrames < r.framesEscritos;
+        if (sonando && System.currentTimeMillis() < r.finEstimado) {
+            r.esperaMs = ESPERA_MS;
+            return;
+        }
+        siguienteArchivo();
+    }
+
+    private static boolean siguienteCompatible(Reproduccion r) {
+        String ruta = r.rutas[r.idx];
+        try {
+            PcmCache.Pcm next = (ruta == null) ? null : CACHE.get(ruta);
+            return next != null && clave(next.format).equals(clave(r.linea.getFormat()));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /** Corta la reproducción en curso sin callback. */
+    private static void cortar() {
+        terminar(false);
+    }
+
+    private static void terminar(boolean notificar) {
+        Reproduccion r = actual;
+        actual = null;
+        if (r == null) return;
+
+        liberarLinea(r);
+        if (notificar && r.onDone != null && r.vigente()) {
+            SwingUtilities.invokeLater(r.onDone);
+        }
+    }
+
+    // =========================================================
+    // Pool de líneas
+    // =========================================================
+
+    private static SourceDataLine obtenerLinea(AudioFormat format) throws Exception {
+        SourceDataLine line = POOL.remove(clave(format));
+        if (line != null && line.isOpen()) {
+            line.start();
+            return line;
+        }
+
+        line = AudioSystem.getSourceDataLine(format);
+        int bytesPorMs = Math.max(1, (int) (format.getFrameRate() * format.getFrameSize() / 1000f));
+        line.open(format, Math.max(format.getFrameSize(), bytesPorMs * BUFFER_MS));
+        line.start();
+        return line;
+    }
+
+    private static void liberarLinea(Reproduccion r) {
+        SourceDataLine line = r.linea;
+        r.linea = null;
+        if (line == null) return;
+
+        try {
+            line.stop();
+            line.flush();
+        } catch (Exception ignored) {}
+
+        SourceDataLine anterior = POOL.put(clave(line.getFormat()), line);
+        if (anterior != null && anterior != line) cerrar(anterior);
+
+        Iterator<Map.Entry<String, SourceDataLine>> it = POOL.entrySet().iterator();
+        while (POOL.size() > MAX_LINEAS && it.hasNext()) {
+            cerrar(it.next().getValue());
+            it.remove();
+        }
+    }
+
+    private static void cerrar(SourceDataLine line) {
+        try { line.close(); } catch (Exception ignored) {}
+    }
+
+    private static String clave(AudioFormat f) {
+        return f.getEncoding() + "|" + f.getSampleRate() + "|" + f.getSampleSizeInBits() + "|"
+                + f.getChannels() + "|" + f.isBigEndian();
+    }
+
+    /** Una orden de play (uno o varios archivos seguidos) y su progreso. */
+    private static final class Reproduccion {
+        final String[] rutas;
+        final long token;
+        final LongSupplier tokenVigente;
+        final Runnable onDone;
+
+        int idx;
+        PcmCache.Pcm pcm;
+        int offset;
+        SourceDataLine linea;
+        long inicioFrames;
+        long framesEscritos;
+        long finEstimado;
+        long esperaMs;
+
+        Reproduccion(String[] rutas, long token, LongSupplier tokenVigente, Runnable onDone) {
+            this.rutas = rutas;
+            this.token = token;
+            this.tokenVigente = tokenVigente;
+            this.onDone = onDone;
+        }
+
+        boolean vigente() {
+            return tokenVigente.getAsLong() == token;
+        }
+    }
+}
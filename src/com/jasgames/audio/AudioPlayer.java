@@ -1,17 +1,13 @@
 package com.jasgames.audio;
 
-import com.jasgames.util.AppLog;
-import javax.sound.sampled.*;
-import javax.swing.SwingUtilities;
-import java.net.URL;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Fachada de audio para los juegos. La reproducción la hace {@link AudioEngine}
+ * (PCM en caché, líneas reutilizadas, un solo hilo).
+ */
 public class AudioPlayer {
 
-    private static final AtomicReference<Clip> current = new AtomicReference<>(null);
-
     /**
      * Token de reproducción para evitar que un stop() dispare callbacks (onDone) de audios anteriores.
      * Cada llamada a stop() o play() invalida los callbacks previos.
@@ -19,63 +15,32 @@ public class AudioPlayer {
     private static final AtomicLong token = new AtomicLong(0);
 
     public static void stop() {
-        // Invalida cualquier callback pendiente ANTES de parar el clip.
+        // Invalida cualquier callback pendiente ANTES de parar.
         token.incrementAndGet();
-
-        Clip c = current.getAndSet(null);
-        if (c != null) {
-            try {
-                c.stop();
-                c.close();
-            } catch (Exception ignored) {}
-        }
+        AudioEngine.stop();
     }
 
-    /** Reproduce un WAV del classpath y llama onDone al finalizar (STOP). */
+    /** Reproduce un WAV del classpath y llama onDone (en el EDT) al finalizar. */
     public static void play(String resourcePath, Runnable onDone) {
-        stop();
-
-        // Token propio de esta reproducción.
-        final long myToken = token.incrementAndGet();
-
-        new Thread(() -> {
-            try {
-                URL url = AudioPlayer.class.getResource(resourcePath);
-                if (url == null) {
-                    AppLog.warn("Audio no encontrado: " + resourcePath);
-                    if (onDone != null && token.get() == myToken) SwingUtilities.invokeLater(onDone);
-                    return;
-                }
-
-                try (AudioInputStream ais = AudioSystem.getAudioInputStream(url)) {
-                    Clip clip = AudioSystem.getClip();
-                    current.set(clip);
-
-                    // Evita doble ejecución del callback si se reciben múltiples eventos STOP.
-                    AtomicBoolean fired = new AtomicBoolean(false);
-
-                    clip.addLineListener(ev -> {
-                        if (ev.getType() == LineEvent.Type.STOP) {
-                            try { clip.close(); } catch (Exception ignored) {}
-                            if (onDone != null && token.get() == myToken && fired.compareAndSet(false, true)) {
-                                SwingUtilities.invokeLater(onDone);
-                            }
-                        }
-                    });
-
-                    clip.open(ais);
-                    clip.start();
-                }
-
-            } catch (Exception e) {
-                AppLog.error("Error reproduciendo audio: " + resourcePath, e);
-                if (onDone != null && token.get() == myToken) SwingUtilities.invokeLater(onDone);
-            }
-        }, "AudioPlayerThread").start();
+        playAll(new String[]{resourcePath}, onDone);
     }
 
     /** Reproduce primero a, luego b, y al terminar b llama onDone. */
     public static void playSequence(String a, String b, Runnable onDone) {
-        play(a, () -> play(b, onDone));
+        playAll(new String[]{a, b}, onDone);
+    }
+
+    /**
+     * Decodifica de antemano los sonidos de un juego (en segundo plano),
+     * para que el primer play no tenga que leer el WAV.
+     */
+    public static void preload(String... resourcePaths) {
+        AudioEngine.preload(resourcePaths);
+    }
+
+    private static void playAll(String[] rutas, Runnable onDone) {
+        // Token propio de esta reproducción (también corta la anterior).
+        final long myToken = token.incrementAndGet();
+        AudioEngine.play(rutas, myToken, token::get, onDone);
     }
 }
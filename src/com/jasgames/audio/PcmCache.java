@@ -0,0 +1,99 @@
+package com.jasgames.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Audio del classpath decodificado una sola vez a PCM, con tope de memoria (LRU por bytes).
+ *
+ * Lo usa solo el hilo de {@link AudioEngine}; los métodos están sincronizados por si acaso.
+ */
+final class PcmCache {
+
+    /** Sonido decodificado: formato PCM + muestras. */
+    static final class Pcm {
+        final AudioFormat format;
+        final byte[] data;
+
+        Pcm(AudioFormat format, byte[] data) {
+            this.format = format;
+            this.data = data;
+        }
+
+        long frames() {
+            int fs = format.getFrameSize();
+            return (fs > 0) ? data.length / fs : data.length;
+        }
+    }
+
+    private final long maxBytes;
+    private long bytes;
+    private final LinkedHashMap<String, Pcm> cache = new LinkedHashMap<>(32, 0.75f, true);
+
+    PcmCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /** Devuelve el PCM del recurso (lo decodifica si no está), o null si no existe. */
+    synchronized Pcm get(String resourcePath) throws Exception {
+        Pcm p = cache.get(resourcePath);
+        if (p != null) return p;
+
+        p = decodificar(resourcePath);
+        if (p == null) return null;
+
+        cache.put(resourcePath, p);
+        bytes += p.data.length;
+        recortar(resourcePath);
+        return p;
+    }
+
+    synchronized boolean contains(String resourcePath) {
+        return cache.containsKey(resourcePath);
+    }
+
+    synchronized long sizeBytes() {
+        return bytes;
+    }
+
+    /** Expulsa los menos usados hasta entrar en el tope (nunca el recién agregado). */
+    private void recortar(String conservar) {
+        Iterator<Map.Entry<String, Pcm>> it = cache.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Pcm> e = it.next();
+            if (e.getKey().equals(conservar)) continue;
+            bytes -= e.getValue().data.length;
+            it.remove();
+        }
+    }
+
+    private static Pcm decodificar(String resourcePath) throws Exception {
+        InputStream in = AudioEngine.class.getResourceAsStream(resourcePath);
+        if (in == null) return null;
+
+        try (AudioInputStream src = AudioSystem.getAudioInputStream(new BufferedInputStream(in))) {
+            AudioFormat f = src.getFormat();
+            boolean esPcm = AudioFormat.Encoding.PCM_SIGNED.equals(f.getEncoding())
+                    || AudioFormat.Encoding.PCM_UNSIGNED.equals(f.getEncoding());
+            if (esPcm) {
+                return new Pcm(f, src.readAllBytes());
+            }
+
+            // Comprimido (u-law, a-law...): convertir a PCM 16 bits una vez
+            AudioFormat destino = new AudioFormat(
+                    AudioFormat.Encoding.PCM_SIGNED,
+                    f.getSampleRate(), 16, f.getChannels(),
+                    f.getChannels() * 2, f.getSampleRate(), false
+            );
+            try (AudioInputStream pcm = AudioSystem.getAudioInputStream(destino, src)) {
+                return new Pcm(destino, pcm.readAllBytes());
+            }
+        }
+    }
+}
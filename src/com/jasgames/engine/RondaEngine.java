@@ -0,0 +1,182 @@
+package com.jasgames.engine;
+
+import com.jasgames.model.Actividad;
+
+/**
+ * Lógica de rondas sin Swing: intentos, pistas, aciertos y rondas jugadas de una sesión.
+ *
+ * Lo maneja JuegoRondasPanel (cada juego crea el suyo con su meta/intentos/pistas) y también
+ * {@link SimuladorSesiones}, que juega sesiones sintéticas sin pantalla.
+ *
+ * Flujo por ronda:
+ * - {@link #answer(boolean)} / {@link #timeout()} / {@link #hint()} mientras la ronda está abierta.
+ * - Cuando la ronda queda resuelta (acierto o intentos agotados), el panel hace su animación
+ *   y luego llama {@link #cerrarRonda()}, que avanza y dice si terminó la sesión.
+ *
+ * No es thread-safe: un motor por sesión, usado desde un solo hilo.
+ */
+public final class RondaEngine {
+
+    /** Qué pasó con un evento de la ronda. */
+    public enum Evento {
+        /** Respuesta incorrecta; la ronda sigue. */
+        ERROR,
+        /** Respuesta incorrecta y corresponde la pista suave; la ronda sigue. */
+        ERROR_CON_PISTA,
+        /** Respuesta correcta: la ronda queda resuelta. */
+        ACIERTO,
+        /** Se agotaron los intentos (o el tiempo): la ronda queda resuelta sin acierto. */
+        AGOTADA,
+        /** La ronda ya estaba resuelta o la sesión terminó: no cuenta. */
+        IGNORADO
+    }
+
+    private final int rondasMeta;
+    private final int intentosMax;
+    private final int pistasDesde;
+
+    private int rondasCorrectas;
+    private int rondasJugadas;
+    private int erroresTotales;
+
+    private int intentosEnRonda;
+    private boolean pistaAplicadaEnRonda;
+    private Evento resolucion; // ACIERTO / AGOTADA mientras espera cerrarRonda()
+
+    private int intentosTotales;
+    private int pistasUsadas;
+    private int aciertosPrimerIntento;
+
+    public RondaEngine(int rondasMeta, int intentosMax, int pistasDesde) {
+        this.rondasMeta = Math.max(1, rondasMeta);
+        this.intentosMax = (intentosMax <= 0) ? 3 : intentosMax;
+        this.pistasDesde = (pistasDesde <= 0) ? 2 : pistasDesde;
+    }
+
+    // =========================================================
+    // Eventos
+    // =========================================================
+
+    /** Reinicia la sesión (ronda 0). */
+    public void start() {
+        rondasCorrectas = 0;
+        rondasJugadas = 0;
+        erroresTotales = 0;
+        intentosTotales = 0;
+        pistasUsadas = 0;
+        aciertosPrimerIntento = 0;
+        resetRonda();
+    }
+
+    public Evento answer(boolean correcto) {
+        if (!rondaAbierta()) return Evento.IGNORADO;
+
+        boolean primerIntento = (intentosEnRonda == 0);
+        intentosEnRonda++;
+        intentosTotales++;
+
+        if (correcto) {
+            if (primerIntento) aciertosPrimerIntento++;
+            resolucion = Evento.ACIERTO;
+            return Evento.ACIERTO;
+        }
+
+        erroresTotales++;
+
+        // Pista desde el intento configurado (una por ronda)
+        boolean pista = !pistaAplicadaEnRonda && intentosEnRonda >= pistasDesde;
+        if (pista) {
+            pistaAplicadaEnRonda = true;
+            pistasUsadas++;
+        }
+
+        if (intentosEnRonda >= intentosMax) {
+            resolucion = Evento.AGOTADA;
+            return Evento.AGOTADA;
+        }
+        return pista ? Evento.ERROR_CON_PISTA : Evento.ERROR;
+    }
+
+    /** Pista pedida explícitamente. @return true si se aplicó ahora (una por ronda). */
+    public boolean hint() {
+        if (!rondaAbierta() || pistaAplicadaEnRonda) return false;
+        pistaAplicadaEnRonda = true;
+        pistasUsadas++;
+        return true;
+    }
+
+    /** Se acabó el tiempo de la ronda: se resuelve sin acierto (no suma intento ni error). */
+    public Evento timeout() {
+        if (!rondaAbierta()) return Evento.IGNORADO;
+        resolucion = Evento.AGOTADA;
+        return Evento.AGOTADA;
+    }
+
+    /**
+     * Cierra la ronda resuelta y pasa a la siguiente.
+     *
+     * @return true si con esta ronda se llegó a la meta (la sesión terminó)
+     */
+    public boolean cerrarRonda() {
+        if (resolucion == null) return terminado();
+
+        if (resolucion == Evento.ACIERTO) rondasCorrectas++;
+        rondasJugadas++;
+        resetRonda();
+        return terminado();
+    }
+
+    // =========================================================
+    // Estado
+    // =========================================================
+
+    public boolean rondaAbierta() {
+        return resolucion == null && !terminado();
+    }
+
+    public boolean terminado() {
+        return rondasJugadas >= rondasMeta;
+    }
+
+    /** Índice 0-based de la ronda actual. */
+    public int getIndiceRonda() {
+        return rondasJugadas;
+    }
+
+    public int getRondasMeta() { return rondasMeta; }
+    public int getIntentosMax() { return intentosMax; }
+    public int getPistasDesde() { return pistasDesde; }
+    public int getRondasCorrectas() { return rondasCorrectas; }
+    public int getRondasJugadas() { return rondasJugadas; }
+    public int getErroresTotales() { return erroresTotales; }
+    public int getIntentosTotales() { return intentosTotales; }
+    public int getPistasUsadas() { return pistasUsadas; }
+    public int getAciertosPrimerIntento() { return aciertosPrimerIntento; }
+
+    /** Vuelca las métricas de la sesión en la actividad (de ahí se arma la SesionJuego). */
+    public void volcarEn(Actividad a) {
+        if (a == null) return;
+
+        a.setRondasMeta(rondasMeta);
+        a.setRondasJugadas(rondasJugadas);
+        a.setRondasCorrectas(rondasCorrectas);
+
+        a.setErroresTotales(erroresTotales);
+        a.setIntentosTotales(intentosTotales);
+
+        a.setIntentosMaxPorRonda(intentosMax);
+        a.setPistasDesdeIntento(pistasDesde);
+
+        a.setPistasUsadas(pistasUsadas);
+        a.setAciertosPrimerIntento(aciertosPrimerIntento);
+
+        // Compatibilidad con campo antiguo
+        a.setIntentosFallidos(erroresTotales);
+    }
+
+    private void resetRonda() {
+        intentosEnRonda = 0;
+        pistaAplicadaEnRonda = false;
+        resolucion = null;
+    }
+}
@@ -0,0 +1,190 @@
+package com.jasgames.engine;
+
+import com.jasgames.model.Actividad;
+import com.jasgames.model.Juego;
+import com.jasgames.model.MotorAdaptacion;
+import com.jasgames.model.Nino;
+import com.jasgames.model.SesionJuego;
+import com.jasgames.model.TipoJuego;
+import com.jasgames.service.AdaptacionService;
+import com.jasgames.service.ScoreService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Simulador sin pantalla: juega sesiones sintéticas con {@link RondaEngine} y las pasa por el mismo
+ * camino que EstudianteWindow (Actividad -> SesionJuego -> ScoreService -> AdaptacionService),
+ * todo en memoria (no toca data/).
+ *
+ * Sirve para carga y para regresión: con la misma semilla el resumen (incluida la huella) es idéntico;
+ * si un cambio en el puntaje o la adaptación mueve la huella, cambió el comportamiento.
+ *
+ * Uso: {@code java -cp ... com.jasgames.engine.SimuladorSesiones [sesiones] [ninos] [semilla] [reglas|habilidad]}
+ */
+public final class SimuladorSesiones {
+
+    private static final int RONDAS_META = 5;
+    private static final int INTENTOS_MAX = 3;
+    private static final int PISTAS_DESDE = 2;
+
+    private final Random rnd;
+    private final List<Juego> juegos = new ArrayList<>();
+    private final List<Nino> ninos = new ArrayList<>();
+    private final Map<Integer, Double> habilidad = new HashMap<>();
+    // Últimas 3 sesiones por (niño, juego), la más reciente primero (igual que SesionService)
+    private final Map<Long, Deque<SesionJuego>> historial = new HashMap<>();
+
+    private final LocalDateTime inicio = LocalDateTime.of(2024, 3, 4, 9, 0);
+
+    /** Resumen de una corrida. */
+    public static final class Resultado {
+        public int sesiones;
+        public long nanos;
+        public long sumaScore;
+        public int cambiosDificultad;
+        public final int[] porNivel = new int[6];
+        public long huella = 1125899906842597L;
+
+        public double sesionesPorSegundo() {
+            return (nanos > 0) ? sesiones * 1e9 / nanos : 0;
+        }
+
+        public double scorePromedio() {
+            return (sesiones > 0) ? (double) sumaScore / sesiones : 0;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(sesiones).append(" sesiones en ").append(nanos / 1_000_000).append(" ms (")
+                    .append(Math.round(sesionesPorSegundo())).append(" ses/s)\n");
+            sb.append("score promedio: ").append(String.format("%.2f", scorePromedio())).append('\n');
+            sb.append("cambios de dificultad: ").append(cambiosDificultad).append('\n');
+            sb.append("sesiones por nivel:");
+            for (int n = 1; n <= 5; n++) sb.append(' ').append(n).append('=').append(porNivel[n]);
+            sb.append('\n').append("huella: ").append(Long.toHexString(huella));
+            return sb.toString();
+        }
+    }
+
+    public SimuladorSesiones(int cantidadNinos, long semilla) {
+        this(cantidadNinos, semilla, MotorAdaptacion.REGLAS);
+    }
+
+    public SimuladorSesiones(int cantidadNinos, long semilla, MotorAdaptacion motorAdaptacion) {
+        this.rnd = new Random(semilla);
+
+        int id = 1;
+        for (TipoJuego tipo : TipoJuego.values()) {
+            juegos.add(new Juego(id++, "Sim " + tipo, tipo, 1, ""));
+        }
+
+        for (int i = 1; i <= Math.max(1, cantidadNinos); i++) {
+            Nino n = new Nino(i, "Niño " + i, 5 + rnd.nextInt(6), "");
+            n.setMotorAdaptacion(motorAdaptacion);
+            ninos.add(n);
+            // Probabilidad base de acertar en nivel 1
+            habilidad.put(i, 0.40 + rnd.nextDouble() * 0.55);
+        }
+    }
+
+    /** Juega {@code cantidad} sesiones (niño y juego al azar). */
+    public Resultado correr(int cantidad) {
+        Resultado r = new Resultado();
+        long t0 = System.nanoTime();
+
+        for (int i = 0; i < cantidad; i++) {
+            Nino nino = ninos.get(rnd.nextInt(ninos.size()));
+            Juego juego = juegos.get(rnd.nextInt(juegos.size()));
+            SesionJuego s = jugarSesion(nino, juego, inicio.plusMinutes(i));
+
+            r.sesiones++;
+            r.sumaScore += s.getPuntaje();
+            r.porNivel[Math.max(1, Math.min(5, s.getDificultadInicial()))]++;
+            if (s.isDificultadAdaptada()) r.cambiosDificultad++;
+            r.huella = 31 * r.huella + s.getPuntaje() * 7L + s.getDificultadFinal();
+        }
+
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    private SesionJuego jugarSesion(Nino nino, Juego juego, LocalDateTime fin) {
+        int nivel = nino.getDificultadEfectiva(juego.getId(), juego.getDificultad());
+        double base = habilidad.get(nino.getId()) - 0.12 * (nivel - 1);
+
+        RondaEngine motor = new RondaEngine(RONDAS_META, INTENTOS_MAX, PISTAS_DESDE);
+        motor.start();
+
+        long durMs = 0;
+        boolean fin0 = false;
+        while (!fin0) {
+            boolean conPista = false;
+            while (motor.rondaAbierta()) {
+                durMs += 2_000 + rnd.nextInt(4_000);
+                double p = clamp(base + (conPista ? 0.15 : 0.0), 0.05, 0.98);
+                RondaEngine.Evento ev = motor.answer(rnd.nextDouble() < p);
+                if (ev == RondaEngine.Evento.ERROR_CON_PISTA) conPista = true;
+            }
+            fin0 = motor.cerrarRonda();
+        }
+
+        Actividad a = new Actividad(0, juego, nivel, 0);
+        motor.volcarEn(a);
+        a.setDuracionMs(durMs);
+
+        SesionJuego sesion = SesionJuego.desdeActividad(a, nino.getId(), nino.getNombre(), null, fin);
+
+        Deque<SesionJuego> hist = historial.computeIfAbsent(clave(nino, juego), k -> new ArrayDeque<>(4));
+        List<SesionJuego> previas = new ArrayList<>(hist);
+
+        int score = ScoreService.calcularScore(sesion, previas, nino.getDuracionJuego(juego.getId()));
+        sesion.setPuntaje(score);
+        a.setPuntos(score);
+
+        List<SesionJuego> ultimas3 = new ArrayList<>(3);
+        ultimas3.add(sesion);
+        ultimas3.addAll(previas);
+        if (ultimas3.size() > 3) ultimas3 = ultimas3.subList(0, 3);
+
+        AdaptacionService.Decision dec = AdaptacionService.evaluarYAplicar(nino, juego.getId(), nivel, ultimas3);
+        sesion.setDificultadFinal(dec.getDificultadSiguiente());
+        sesion.setDificultadAdaptada(dec.isCambio());
+
+        nino.agregarPuntos(score);
+        nino.registrarDuracionJuego(juego.getId(), sesion.getDuracionMs());
+
+        hist.addFirst(sesion);
+        while (hist.size() > 3) hist.removeLast();
+        return sesion;
+    }
+
+    private static long clave(Nino n, Juego j) {
+        return ((long) n.getId() << 32) | (j.getId() & 0xffffffffL);
+    }
+
+    private static double clamp(double v, double min, double max) {
+        return Math.max(min, Math.min(max, v));
+    }
+
+    public static void main(String[] args) {
+        int sesiones = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+        int cantNinos = (args.length > 1) ? Integer.parseInt(args[1]) : 200;
+        long semilla = (args.length > 2) ? Long.parseLong(args[2]) : 42L;
+        MotorAdaptacion motorAdaptacion = (args.length > 3 && "habilidad".equalsIgnoreCase(args[3]))
+                ? MotorAdaptacion.HABILIDAD : MotorAdaptacion.REGLAS;
+
+        // Calentamiento corto (JIT) con otra instancia para no alterar la huella
+        new SimuladorSesiones(cantNinos, semilla, motorAdaptacion).correr(Math.min(sesiones, 20_000));
+
+        Resultado r = new SimuladorSesiones(cantNinos, semilla, motorAdaptacion).correr(sesiones);
+        System.out.println(r);
+    }
+}
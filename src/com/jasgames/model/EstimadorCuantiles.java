@@ -0,0 +1,125 @@
+package com.jasgames.model;
+
+import java.util.Arrays;
+
+/**
+ * Estimador en streaming de p25 / mediana / p75 (algoritmo P² extendido, Jain &amp; Chlamtac).
+ *
+ * Guarda 9 marcadores (mín, p12.5, p25, ..., p87.5, máx) en vez de las muestras:
+ * cada {@link #agregar(double)} es O(1) y el estado completo son dos arreglos chicos,
+ * que se persisten tal cual con el perfil del niño.
+ * Con menos de 9 muestras los cuantiles son exactos (se interpola entre las guardadas).
+ */
+public class EstimadorCuantiles {
+
+    private static final double[] P = {0.0, 0.125, 0.25, 0.375, 0.5, 0.625, 0.75, 0.875, 1.0};
+    private static final int M = P.length;
+
+    private double[] q = new double[M]; // alturas de los marcadores (o las primeras muestras)
+    private int[] n = new int[M];       // posiciones reales (0-based)
+    private long cantidad;
+
+    public void agregar(double x) {
+        if (Double.isNaN(x) || Double.isInfinite(x)) return;
+        asegurarArreglos();
+
+        if (cantidad < M) {
+            q[(int) cantidad] = x;
+            cantidad++;
+            if (cantidad == M) {
+                Arrays.sort(q);
+                for (int i = 0; i < M; i++) n[i] = i;
+            }
+            return;
+        }
+
+        // 1) Celda donde cae x (y extremos)
+        int k;
+        if (x < q[0]) {
+            q[0] = x;
+            k = 0;
+        } else if (x >= q[M - 1]) {
+            q[M - 1] = x;
+            k = M - 2;
+        } else {
+            k = 0;
+            while (k < M - 2 && x >= q[k + 1]) k++;
+        }
+        for (int i = k + 1; i < M; i++) n[i]++;
+        cantidad++;
+
+        // 2) Ajustar marcadores internos hacia su posición deseada
+        for (int i = 1; i < M - 1; i++) {
+            double deseada = (cantidad - 1) * P[i];
+            double d = deseada - n[i];
+            if ((d >= 1 && n[i + 1] - n[i] > 1) || (d <= -1 && n[i - 1] - n[i] < -1)) {
+                int s = (d > 0) ? 1 : -1;
+                double qp = parabolica(i, s);
+                q[i] = (q[i - 1] < qp && qp < q[i + 1]) ? qp : lineal(i, s);
+                n[i] += s;
+            }
+        }
+    }
+
+    /** Cuantil {@code p} en [0, 1]; NaN si no hay muestras. Exacto en 0, 0.125, ..., 1 (marcadores). */
+    public double cuantil(double p) {
+        if (cantidad == 0) return Double.NaN;
+        p = Math.max(0.0, Math.min(1.0, p));
+
+        if (cantidad < M) {
+            double[] orden = Arrays.copyOf(q, (int) cantidad);
+            Arrays.sort(orden);
+            return interpolar(orden, p * (orden.length - 1));
+        }
+
+        // Entre marcadores: interpolación lineal por probabilidad
+        int i = 0;
+        while (i < M - 2 && p > P[i + 1]) i++;
+        double t = (p - P[i]) / (P[i + 1] - P[i]);
+        return q[i] + t * (q[i + 1] - q[i]);
+    }
+
+    public double p25() {
+        return cuantil(0.25);
+    }
+
+    public double mediana() {
+        return cuantil(0.5);
+    }
+
+    public double p75() {
+        return cuantil(0.75);
+    }
+
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    // ---------------- internos ----------------
+
+    private double parabolica(int i, int s) {
+        double a = (double) s / (n[i + 1] - n[i - 1]);
+        double b = (n[i] - n[i - 1] + s) * (q[i + 1] - q[i]) / (n[i + 1] - n[i]);
+        double c = (n[i + 1] - n[i] - s) * (q[i] - q[i - 1]) / (n[i] - n[i - 1]);
+        return q[i] + a * (b + c);
+    }
+
+    private double lineal(int i, int s) {
+        return q[i] + s * (q[i + s] - q[i]) / (n[i + s] - n[i]);
+    }
+
+    private static double interpolar(double[] orden, double pos) {
+        int lo = (int) Math.floor(pos);
+        int hi = Math.min(orden.length - 1, lo + 1);
+        return orden[lo] + (pos - lo) * (orden[hi] - orden[lo]);
+    }
+
+    /** JSON viejo o editado a mano: arreglos ausentes o de otro tamaño. */
+    private void asegurarArreglos() {
+        if (q == null || q.length != M || n == null || n.length != M) {
+            q = new double[M];
+            n = new int[M];
+            cantidad = 0;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.jasgames.model;
+
+/**
+ * Habilidad estimada de un niño en un juego, en la escala de dificultad (1..5), con su incertidumbre.
+ * La actualiza AdaptacionService después de cada sesión (O(1)); se guarda con el perfil.
+ */
+public class HabilidadJuego {
+
+    private double nivel;
+    private double varianza;
+    private int sesiones;
+
+    public HabilidadJuego() {
+        // requerido por Gson
+    }
+
+    public HabilidadJuego(double nivel, double varianza) {
+        this.nivel = nivel;
+        this.varianza = varianza;
+    }
+
+    public double getNivel() { return nivel; }
+    public void setNivel(double nivel) { this.nivel = nivel; }
+
+    public double getVarianza() { return varianza; }
+    public void setVarianza(double varianza) { this.varianza = varianza; }
+
+    /** Desvío estándar de la estimación (en niveles). */
+    public double getIncertidumbre() { return Math.sqrt(Math.max(0.0, varianza)); }
+
+    public int getSesiones() { return sesiones; }
+    public void setSesiones(int sesiones) { this.sesiones = sesiones; }
+}
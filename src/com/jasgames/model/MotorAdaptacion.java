@@ -0,0 +1,20 @@
+package com.jasgames.model;
+
+/** Cómo se ajusta la dificultad automática de un niño (lo elige el docente por estudiante). */
+public enum MotorAdaptacion {
+    /** Promedios de las últimas sesiones con umbrales y enfriamiento (comportamiento original). */
+    REGLAS("Reglas (últimas sesiones)"),
+    /** Habilidad estimada por juego (tipo Elo, con incertidumbre); la dificultad se elige contra esa estimación. */
+    HABILIDAD("Habilidad estimada");
+
+    private final String etiqueta;
+
+    MotorAdaptacion(String etiqueta) {
+        this.etiqueta = etiqueta;
+    }
+
+    @Override
+    public String toString() {
+        return etiqueta;
+    }
+}
@@ -18,6 +18,11 @@ public class Nino {
     private Map<Integer, Integer> dificultadAutoPorJuego = new HashMap<>();
     private Map<Integer, Integer> cooldownRestantePorJuego = new HashMap<>();
     private Map<Integer, Boolean> adaptacionAutomaticaPorJuego = new HashMap<>();
+    // Duración de sesión por juego (p25/mediana/p75 a largo plazo, para el puntaje de tiempo)
+    private Map<Integer, EstimadorCuantiles> duracionPorJuego = new HashMap<>();
+    // Motor de adaptación elegido por el docente y habilidad estimada por juego (motor HABILIDAD)
+    private MotorAdaptacion motorAdaptacion = MotorAdaptacion.REGLAS;
+    private Map<Integer, HabilidadJuego> habilidadPorJuego = new HashMap<>();
     private String aula;
     private String avatar;
 
@@ -170,6 +175,47 @@ public class Nino {
         getAdaptacionAutomaticaPorJuego().put(idJuego, enabled);
     }
 
+    /** Si no hay valor (perfiles anteriores), REGLAS. */
+    public MotorAdaptacion getMotorAdaptacion() {
+        return (motorAdaptacion == null) ? MotorAdaptacion.REGLAS : motorAdaptacion;
+    }
+
+    public void setMotorAdaptacion(MotorAdaptacion motorAdaptacion) {
+        this.motorAdaptacion = (motorAdaptacion == null) ? MotorAdaptacion.REGLAS : motorAdaptacion;
+    }
+
+    public Map<Integer, HabilidadJuego> getHabilidadPorJuego() {
+        if (habilidadPorJuego == null) {
+            habilidadPorJuego = new HashMap<>();
+        }
+        return habilidadPorJuego;
+    }
+
+    /** Habilidad estimada en el juego, o null si todavía no jugó. */
+    public HabilidadJuego getHabilidadJuego(int idJuego) {
+        return getHabilidadPorJuego().get(idJuego);
+    }
+
+    // -------------------- Duración por juego --------------------
+
+    public Map<Integer, EstimadorCuantiles> getDuracionPorJuego() {
+        if (duracionPorJuego == null) {
+            duracionPorJuego = new HashMap<>();
+        }
+        return duracionPorJuego;
+    }
+
+    /** Estimador de duración del juego, o null si todavía no tiene ninguna sesión registrada. */
+    public EstimadorCuantiles getDuracionJuego(int idJuego) {
+        return getDuracionPorJuego().get(idJuego);
+    }
+
+    /** Suma una duración (ms) al estimador del juego; O(1). Las duraciones no positivas se ignoran. */
+    public void registrarDuracionJuego(int idJuego, long duracionMs) {
+        if (duracionMs <= 0) return;
+        getDuracionPorJuego().computeIfAbsent(idJuego, k -> new EstimadorCuantiles()).agregar(duracionMs);
+    }
+
     public boolean tieneDificultadManual(int idJuego) {
         return getDificultadPorJuego().containsKey(idJuego);
     }
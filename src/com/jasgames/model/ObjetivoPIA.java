@@ -24,6 +24,11 @@ public class ObjetivoPIA {
     private boolean completado;
     private LocalDateTime fechaCompletado;
 
+    // Si el docente reinició el progreso (p. ej. cambió el juego), las sesiones vinculadas antes no cuentan
+    private LocalDateTime progresoDesde;
+    // El docente ajustó los contadores a mano: el verificador de PIA informa la diferencia pero no la pisa
+    private boolean progresoAjustadoManual;
+
     public ObjetivoPIA() {
         // requerido por Gson
         this.idObjetivo = UUID.randomUUID().toString();
@@ -56,6 +61,22 @@ public class ObjetivoPIA {
         }
     }
 
+    /** Pone el progreso en 0 sin desvincular sesiones: desde ahora solo cuentan las sesiones nuevas. */
+    public void reiniciarProgreso() {
+        progresoRondasCorrectas = 0;
+        progresoSesionesCompletadas = 0;
+        completado = false;
+        fechaCompletado = null;
+        progresoDesde = LocalDateTime.now();
+        progresoAjustadoManual = false;
+    }
+
+    /** true si una sesión terminada en {@code fechaSesion} suma al progreso (posterior al último reinicio). */
+    public boolean cuentaSesionDel(LocalDateTime fechaSesion) {
+        if (progresoDesde == null) return true;
+        return fechaSesion != null && fechaSesion.isAfter(progresoDesde);
+    }
+
     // ---------------- Getters/Setters ----------------
 
     public String getIdObjetivo() { return idObjetivo; }
@@ -84,4 +105,10 @@ public class ObjetivoPIA {
 
     public LocalDateTime getFechaCompletado() { return fechaCompletado; }
     public void setFechaCompletado(LocalDateTime fechaCompletado) { this.fechaCompletado = fechaCompletado; }
+
+    public LocalDateTime getProgresoDesde() { return progresoDesde; }
+    public void setProgresoDesde(LocalDateTime progresoDesde) { this.progresoDesde = progresoDesde; }
+
+    public boolean isProgresoAjustadoManual() { return progresoAjustadoManual; }
+    public void setProgresoAjustadoManual(boolean progresoAjustadoManual) { this.progresoAjustadoManual = progresoAjustadoManual; }
 }
@@ -18,6 +18,9 @@ public class SesionJuego {
 
     // Scoring (por ahora mantenemos "puntaje" como score final)
     private int puntaje;
+    private int versionPuntaje;             // ScoreService.VERSION con que se calculó (0 = anterior a versionar)
+    private Integer puntajeAnterior;        // antes del último recálculo (null = nunca se recalculó)
+    private int versionPuntajeAnterior;
 
     // Tiempos
     private LocalDateTime fechaHora;   // inicio
@@ -76,6 +79,39 @@ public class SesionJuego {
         this.fechaHora = fechaHora;
     }
 
+    /**
+     * Sesión terminada a partir de las métricas que dejó el juego en la {@link Actividad}
+     * (la usa EstudianteWindow y el simulador). El inicio se estima restando la duración al fin.
+     */
+    public static SesionJuego desdeActividad(Actividad a, Integer idEstudiante, String nombreEstudiante,
+                                             String aula, LocalDateTime fechaFin) {
+        long durMs = Math.max(0L, a.getDuracionMs());
+        LocalDateTime fechaInicio = (durMs > 0) ? fechaFin.minusNanos(durMs * 1_000_000L) : fechaFin;
+
+        SesionJuego sesion = new SesionJuego(idEstudiante, nombreEstudiante, aula,
+                a.getJuego(), a.getNivel(), 0, fechaInicio);
+
+        sesion.setFechaFin(fechaFin);
+        sesion.setDuracionMs(durMs);
+        sesion.setRondasTotales(a.getRondasMeta());
+        sesion.setRondasCompletadas(a.getRondasJugadas());
+
+        sesion.setAciertosTotales(a.getRondasCorrectas());
+        sesion.setErroresTotales(a.getErroresTotales());
+        sesion.setIntentosTotales(a.getIntentosTotales());
+        sesion.setPistasUsadas(a.getPistasUsadas());
+        sesion.setAciertosPrimerIntento(a.getAciertosPrimerIntento());
+
+        sesion.setIntentosMaxPorRonda(a.getIntentosMaxPorRonda());
+        sesion.setPistasDesdeIntento(a.getPistasDesdeIntento());
+
+        // Dificultad inicial/final (adaptación automática puede modificar la final)
+        sesion.setDificultadInicial(a.getNivel());
+        sesion.setDificultadFinal(a.getNivel());
+        sesion.setDificultadAdaptada(false);
+        return sesion;
+    }
+
     private void aplicarDefaults() {
         this.idSesion = UUID.randomUUID().toString();
 
@@ -123,6 +159,15 @@ public class SesionJuego {
     public int getPuntaje() { return puntaje; }
     public void setPuntaje(int puntaje) { this.puntaje = puntaje; }
 
+    public int getVersionPuntaje() { return versionPuntaje; }
+    public void setVersionPuntaje(int versionPuntaje) { this.versionPuntaje = versionPuntaje; }
+
+    public Integer getPuntajeAnterior() { return puntajeAnterior; }
+    public void setPuntajeAnterior(Integer puntajeAnterior) { this.puntajeAnterior = puntajeAnterior; }
+
+    public int getVersionPuntajeAnterior() { return versionPuntajeAnterior; }
+    public void setVersionPuntajeAnterior(int versionPuntajeAnterior) { this.versionPuntajeAnterior = versionPuntajeAnterior; }
+
     public LocalDateTime getFechaHora() { return fechaHora; }
     public void setFechaHora(LocalDateTime fechaHora) { this.fechaHora = fechaHora; }
 
@@ -1,5 +1,7 @@
 package com.jasgames.service;
 
+import com.jasgames.model.HabilidadJuego;
+import com.jasgames.model.MotorAdaptacion;
 import com.jasgames.model.Nino;
 import com.jasgames.model.SesionJuego;
 
@@ -12,9 +14,29 @@ import java.util.List;
  * - Solo aplica si el juego está en modo adaptativo para ese niño.
  * - Si el docente fijó dificultad manual para ese juego, no se sobreescribe.
  * - Cooldown: después de un cambio, se espera N sesiones antes de volver a cambiar.
+ *
+ * Motor {@link MotorAdaptacion#HABILIDAD} (opcional, por niño):
+ * - Cada sesión actualiza en O(1) una habilidad estimada por juego (nivel + incertidumbre),
+ *   estilo Elo/Glicko: el desempeño (precisión y consistencia) se compara con el esperado
+ *   para la dificultad jugada, y la corrección es mayor cuanto más incierta es la estimación.
+ * - La habilidad se actualiza siempre (también con el motor de reglas), así al cambiar de motor
+ *   ya hay estimación.
+ * - La dificultad siguiente apunta al nivel estimado (algo por debajo si hay incertidumbre),
+ *   moviéndose de a 1 nivel por sesión y sin cooldown.
  */
 public final class AdaptacionService {
 
+    // Desempeño esperado = 0.75 cuando la habilidad coincide con la dificultad jugada
+    private static final double DESEMPENO_OBJETIVO = 0.75;
+    // Pendiente de la logística (por nivel de diferencia)
+    private static final double PENDIENTE = 1.5;
+    // Ruido de observación de una sesión y deriva entre sesiones (el niño aprende)
+    private static final double RUIDO = 0.04;
+    private static final double DERIVA = 0.02;
+    private static final double VARIANZA_INICIAL = 1.0;
+    // Cuántos desvíos por debajo del nivel estimado se apunta (prudencia con poca evidencia)
+    private static final double MARGEN_DESVIOS = 0.25;
+
     private AdaptacionService() {}
 
     public static final class Decision {
@@ -47,6 +69,10 @@ public final class AdaptacionService {
     public static Decision evaluarYAplicar(Nino nino, int idJuego, int dificultadUsada, List<SesionJuego> ultimas3) {
         if (nino == null) return new Decision(dificultadUsada, false, 0, "sin_nino");
 
+        if (ultimas3 != null && !ultimas3.isEmpty()) {
+            actualizarHabilidad(nino, idJuego, dificultadUsada, ultimas3.get(0));
+        }
+
         // Si el docente puso dificultad manual, no tocar.
         if (nino.tieneDificultadManual(idJuego)) {
             return new Decision(dificultadUsada, false, 0, "manual");
@@ -57,6 +83,10 @@ public final class AdaptacionService {
             return new Decision(dificultadUsada, false, 0, "adaptacion_off");
         }
 
+        if (nino.getMotorAdaptacion() == MotorAdaptacion.HABILIDAD) {
+            return evaluarPorHabilidad(nino, idJuego, dificultadUsada);
+        }
+
         int cooldown = nino.getCooldownRestanteJuego(idJuego);
         if (cooldown > 0) {
             nino.setCooldownRestanteJuego(idJuego, cooldown - 1);
@@ -77,16 +107,8 @@ public final class AdaptacionService {
         for (SesionJuego s : ultimas3) {
             if (s == null) continue;
 
-            int intentos = Math.max(0, s.getIntentosTotales());
-            int aciertos = Math.max(0, s.getAciertosTotales());
-            int rondasComp = Math.max(0, s.getRondasCompletadas());
-            int aciertos1 = Math.max(0, s.getAciertosPrimerIntento());
-
-            double precision = (intentos > 0) ? clamp01((double) aciertos / intentos) : 0.0;
-            double consistencia = (rondasComp > 0) ? clamp01((double) aciertos1 / rondasComp) : 0.0;
-
-            pSum += precision;
-            cSum += consistencia;
+            pSum += precision(s);
+            cSum += consistencia(s);
             n++;
         }
 
@@ -120,6 +142,70 @@ public final class AdaptacionService {
         return new Decision(dificultadUsada, false, 0, "sin_cambio");
     }
 
+    /**
+     * Actualiza la habilidad del niño en el juego con una sesión (filtro de Kalman de 1 dimensión
+     * sobre una logística, como Glicko). Sesiones sin intentos no aportan información.
+     */
+    private static void actualizarHabilidad(Nino nino, int idJuego, int dificultadUsada, SesionJuego sesion) {
+        if (sesion == null || sesion.getIntentosTotales() <= 0) return;
+
+        HabilidadJuego h = nino.getHabilidadPorJuego().computeIfAbsent(idJuego,
+                k -> new HabilidadJuego(dificultadUsada, VARIANZA_INICIAL));
+
+        double desempeno = 0.6 * precision(sesion) + 0.4 * consistencia(sesion);
+        double esperado = desempenoEsperado(h.getNivel(), dificultadUsada);
+
+        // Predicción: la habilidad pudo moverse desde la última sesión
+        double varianza = Math.min(VARIANZA_INICIAL, Math.max(0.0, h.getVarianza()) + DERIVA);
+        // Sensibilidad del desempeño esperado a la habilidad (derivada de la logística)
+        double g = PENDIENTE * esperado * (1.0 - esperado);
+        double varianzaNueva = 1.0 / (1.0 / varianza + g * g / RUIDO);
+        double nivel = h.getNivel() + varianzaNueva * g * (desempeno - esperado) / RUIDO;
+
+        h.setNivel(clamp(nivel, 0.5, 5.5));
+        h.setVarianza(varianzaNueva);
+        h.setSesiones(h.getSesiones() + 1);
+    }
+
+    private static Decision evaluarPorHabilidad(Nino nino, int idJuego, int dificultadUsada) {
+        HabilidadJuego h = nino.getHabilidadJuego(idJuego);
+        if (h == null) {
+            nino.setDificultadAutoJuego(idJuego, dificultadUsada);
+            return new Decision(dificultadUsada, false, 0, "sin_historial");
+        }
+
+        int objetivo = clampInt((int) Math.round(h.getNivel() - MARGEN_DESVIOS * h.getIncertidumbre()), 1, 5);
+        int nueva = dificultadUsada + Integer.signum(objetivo - dificultadUsada);
+
+        nino.setDificultadAutoJuego(idJuego, nueva);
+        if (nueva != dificultadUsada) {
+            return new Decision(nueva, true, 0, "habilidad");
+        }
+        return new Decision(dificultadUsada, false, 0, "sin_cambio");
+    }
+
+    /** Desempeño esperado (0..1) para una habilidad y una dificultad. */
+    private static double desempenoEsperado(double nivel, int dificultad) {
+        double sesgo = Math.log(DESEMPENO_OBJETIVO / (1.0 - DESEMPENO_OBJETIVO));
+        return 1.0 / (1.0 + Math.exp(-(PENDIENTE * (nivel - dificultad) + sesgo)));
+    }
+
+    private static double precision(SesionJuego s) {
+        int intentos = Math.max(0, s.getIntentosTotales());
+        int aciertos = Math.max(0, s.getAciertosTotales());
+        return (intentos > 0) ? clamp01((double) aciertos / intentos) : 0.0;
+    }
+
+    private static double consistencia(SesionJuego s) {
+        int rondasComp = Math.max(0, s.getRondasCompletadas());
+        int aciertos1 = Math.max(0, s.getAciertosPrimerIntento());
+        return (rondasComp > 0) ? clamp01((double) aciertos1 / rondasComp) : 0.0;
+    }
+
+    private static double clamp(double v, double min, double max) {
+        return Math.max(min, Math.min(max, v));
+    }
+
     private static double clamp01(double v) {
         return Math.max(0.0, Math.min(1.0, v));
     }
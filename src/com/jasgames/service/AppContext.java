@@ -3,57 +3,190 @@ package com.jasgames.service;
 
 import com.jasgames.model.Docente;
 import com.jasgames.model.Nino;
-import com.jasgames.service.PiaService;
-
+import com.jasgames.util.AppLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Contexto de la aplicación: crea los servicios y guarda la sesión actual (docente / niño).
+ *
+ * Arranque:
+ * - Las cargas independientes (settings, juegos, perfiles, auditoría, docentes) corren en paralelo
+ *   en un pool acotado; las que dependen de otra (aulas, directorio) arrancan cuando esa termina.
+ * - Sesiones y PIAs no hacen falta para el login: se cargan en segundo plano después de las demás.
+ * - Cada getter espera solo a su servicio (si ya está listo, no espera).
+ * - {@link #reporteArranque()} desglosa el tiempo por servicio.
+ */
 public class AppContext {
 
-    private final SettingsService settingsService;
+    private static final int HILOS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private final ExecutorService pool;
+    private final long inicioNs = System.nanoTime();
+    private final List<Carga<?>> cargas = new ArrayList<>();
+
+    private final Carga<SettingsService> settingsService;
 
-    private final JuegoService juegoService;
-    private final PerfilService perfilService;
-    private final SesionService sesionService;
-    private final AuditoriaService auditoriaService;
-    private final AulaService aulaService;
+    private final Carga<JuegoService> juegoService;
+    private final Carga<PerfilService> perfilService;
+    private final Carga<SesionService> sesionService;
+    private final Carga<AuditoriaService> auditoriaService;
+    private final Carga<AulaService> aulaService;
 
-    private final PiaService piaService;
+    private final Carga<PiaService> piaService;
 
-    private final AutenticacionService autenticacionService;
-    private final DirectorioEscolarService directorioEscolarService;
+    private final Carga<AutenticacionService> autenticacionService;
+    private final Carga<DirectorioEscolarService> directorioEscolarService;
 
     private Docente docenteSesion;
     private Nino ninoSesion;
 
     public AppContext() {
-        this.settingsService = new SettingsService();
-        this.juegoService = new JuegoService();
-        this.perfilService = new PerfilService();
-        this.aulaService = new AulaService(perfilService);
-        this.sesionService = new SesionService();
-        this.auditoriaService = new AuditoriaService();
-
-        this.piaService = new PiaService();
-
-        this.autenticacionService = new AutenticacionService();
-        this.directorioEscolarService = new DirectorioEscolarService(perfilService, aulaService);
+        AtomicInteger n = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(HILOS, r -> {
+            Thread t = new Thread(r, "AppContext-init-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        // Necesarios para el login / primera ventana
+        this.settingsService = cargar("settings", SettingsService::new);
+        this.juegoService = cargar("juegos", JuegoService::new);
+        this.perfilService = cargar("perfiles", PerfilService::new);
+        this.auditoriaService = cargar("auditoria", AuditoriaService::new);
+        this.autenticacionService = cargar("docentes", AutenticacionService::new);
+        this.aulaService = cargarDespues("aulas", perfilService, () -> new AulaService(perfilService.get()));
+        this.directorioEscolarService = cargarDespues("directorio", aulaService,
+                () -> new DirectorioEscolarService(perfilService.get(), aulaService.get()));
+
+        // No hacen falta para el login: en segundo plano, cuando lo anterior ya terminó
+        CompletableFuture<Void> login = CompletableFuture.allOf(
+                settingsService.futuro, juegoService.futuro, auditoriaService.futuro,
+                autenticacionService.futuro, directorioEscolarService.futuro
+        ).exceptionally(e -> null);
+        this.sesionService = cargarDespues("sesiones", login, () -> new SesionService(juegoService.get()));
+        this.piaService = cargarDespues("pias", login, PiaService::new);
+
+        // Con ambos listos: verificación periódica del progreso PIA contra las sesiones
+        sesionService.futuro.thenAcceptBoth(piaService.futuro,
+                (ses, pia) -> pia.iniciarVerificador(ses::obtenerTodos));
+
+        CompletableFuture.allOf(cargas.stream().map(c -> c.futuro).toArray(CompletableFuture[]::new))
+                .whenComplete((v, e) -> {
+                    pool.shutdown();
+                    AppLog.info(reporteArranque());
+                });
     }
 
-    public JuegoService getJuegoService() { return juegoService; }
-    public PerfilService getPerfilService() { return perfilService; }
-    public SesionService getResultadoService() { return sesionService; }
-    public SesionService getSesionService() { return sesionService; } // Alias
-    public AuditoriaService getAuditoriaService() { return auditoriaService; }
-    public AulaService getAulaService() { return aulaService; }
+    public JuegoService getJuegoService() { return juegoService.get(); }
+    public PerfilService getPerfilService() { return perfilService.get(); }
+    public SesionService getResultadoService() { return sesionService.get(); }
+    public SesionService getSesionService() { return sesionService.get(); } // Alias
+    public AuditoriaService getAuditoriaService() { return auditoriaService.get(); }
+    public AulaService getAulaService() { return aulaService.get(); }
 
-    public PiaService getPiaService() { return piaService; }
+    public PiaService getPiaService() { return piaService.get(); }
 
-    public AutenticacionService getAutenticacionService() { return autenticacionService; }
-    public DirectorioEscolarService getDirectorioEscolarService() { return directorioEscolarService; }
+    public AutenticacionService getAutenticacionService() { return autenticacionService.get(); }
+    public DirectorioEscolarService getDirectorioEscolarService() { return directorioEscolarService.get(); }
 
-    public SettingsService getSettingsService() { return settingsService; }
+    public SettingsService getSettingsService() { return settingsService.get(); }
 
     public Docente getDocenteSesion() { return docenteSesion; }
     public void setDocenteSesion(Docente docenteSesion) { this.docenteSesion = docenteSesion; }
 
     public Nino getNinoSesion() { return ninoSesion; }
     public void setNinoSesion(Nino ninoSesion) { this.ninoSesion = ninoSesion; }
+
+    /**
+     * Tiempos de arranque, p. ej.:
+     * "Arranque: perfiles 120 ms (desde +2 ms), aulas 8 ms (desde +123 ms), ... | pendientes: pias".
+     */
+    public String reporteArranque() {
+        StringBuilder sb = new StringBuilder("Arranque (" + HILOS + " hilos):");
+        List<String> pendientes = new ArrayList<>();
+        for (Carga<?> c : cargas) {
+            if (c.finNs == 0) {
+                pendientes.add(c.nombre);
+                continue;
+            }
+            sb.append(' ').append(c.nombre).append(' ').append(ms(c.finNs - c.comienzoNs)).append(" ms")
+                    .append(" (desde +").append(ms(c.comienzoNs - inicioNs)).append(" ms)")
+                    .append(c.error ? " ERROR" : "").append(',');
+        }
+        if (sb.charAt(sb.length() - 1) == ',') sb.setLength(sb.length() - 1);
+        long ultimo = cargas.stream().mapToLong(c -> c.finNs).max().orElse(0);
+        if (ultimo > 0) sb.append(" | total ").append(ms(ultimo - inicioNs)).append(" ms");
+        if (!pendientes.isEmpty()) sb.append(" | pendientes: ").append(String.join(", ", pendientes));
+        return sb.toString();
+    }
+
+    // =========================================================
+    // Cargas
+    // =========================================================
+
+    private <T> Carga<T> cargar(String nombre, Supplier<T> crear) {
+        return cargarDespues(nombre, CompletableFuture.completedFuture(null), crear);
+    }
+
+    private <T> Carga<T> cargarDespues(String nombre, Carga<?> previa, Supplier<T> crear) {
+        return cargarDespues(nombre, previa.futuro, crear);
+    }
+
+    private <T> Carga<T> cargarDespues(String nombre, CompletableFuture<?> previa, Supplier<T> crear) {
+        Carga<T> c = new Carga<>(nombre);
+        // Si la previa falló, esta igual se intenta: el error aparece al pedir el servicio
+        c.futuro = previa.handle((v, e) -> null).thenApplyAsync(x -> c.medir(crear), pool);
+        cargas.add(c);
+        return c;
+    }
+
+    private static long ms(long ns) {
+        return ns / 1_000_000L;
+    }
+
+    /** Un servicio en construcción, con sus tiempos. */
+    private static final class Carga<T> {
+        final String nombre;
+        CompletableFuture<T> futuro;
+        volatile long comienzoNs;
+        volatile long finNs;
+        volatile boolean error;
+
+        Carga(String nombre) {
+            this.nombre = nombre;
+        }
+
+        T medir(Supplier<T> crear) {
+            comienzoNs = System.nanoTime();
+            try {
+                return crear.get();
+            } catch (RuntimeException | Error e) {
+                error = true;
+                AppLog.error("No se pudo iniciar el servicio: " + nombre, e);
+                throw e;
+            } finally {
+                finNs = System.nanoTime();
+            }
+        }
+
+        /** Espera (si hace falta) y devuelve el servicio; un fallo de carga se relanza tal cual. */
+        T get() {
+            try {
+                return futuro.join();
+            } catch (CompletionException e) {
+                Throwable causa = e.getCause();
+                if (causa instanceof RuntimeException re) throw re;
+                if (causa instanceof Error err) throw err;
+                throw e;
+            }
+        }
+    }
 }
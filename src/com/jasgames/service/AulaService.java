@@ -5,14 +5,13 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 import com.jasgames.model.Aula;
-import com.jasgames.util.AtomicFiles;
 import com.jasgames.util.DataBackups;
 import com.jasgames.util.FileLocks;
 import com.jasgames.util.JsonSafeIO;
+import com.jasgames.util.PersistenceScheduler;
 
 import java.awt.Color;
 import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
 import java.util.concurrent.locks.ReentrantLock;
@@ -169,14 +168,18 @@ public class AulaService {
         try {
             aulas.clear();
             Path p = Paths.get(ARCHIVO_AULAS);
-            Aula[] arr = JsonSafeIO.readOrRecover(p, gson, Aula[].class, new Aula[0]);
-            this.aulas.addAll(Arrays.asList(arr));
+            List<Aula> arr = JsonSafeIO.readListOrRecover(p, gson, Aula.class);
+            this.aulas.addAll(arr);
         } finally {
             ioLock.unlock();
         }
     }
 
     private void guardar() {
+        PersistenceScheduler.markDirty(Paths.get(ARCHIVO_AULAS), this::escribirArchivo);
+    }
+
+    private void escribirArchivo() {
         ioLock.lock();
         try {
             Path p = Paths.get(ARCHIVO_AULAS);
@@ -186,7 +189,7 @@ public class AulaService {
             // Backup antes de sobrescribir
             DataBackups.backupIfExists(p);
 
-            AtomicFiles.writeStringAtomic(p, gson.toJson(aulas), StandardCharsets.UTF_8);
+            JsonSafeIO.writeListAtomic(p, gson, aulas, Aula.class);
         } catch (Exception e) {
             AppLog.error("Error guardando aulas.", e);
         } finally {
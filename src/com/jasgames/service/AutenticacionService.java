@@ -9,6 +9,7 @@ import com.jasgames.util.AtomicFiles;
 import com.jasgames.util.DataBackups;
 import com.jasgames.util.FileLocks;
 import com.jasgames.util.JsonSafeIO;
+import com.jasgames.util.PersistenceScheduler;
 
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
@@ -140,15 +141,22 @@ public class AutenticacionService {
         ioLock.lock();
         try {
             Path path = Paths.get(ARCHIVO_DOCENTES);
-            Docente[] arr = JsonSafeIO.readOrRecover(path, gson, Docente[].class, new Docente[0]);
+            List<Docente> arr = JsonSafeIO.readListOrRecover(path, gson, Docente.class);
             this.docentes.clear();
-            this.docentes.addAll(Arrays.asList(arr));
+            this.docentes.addAll(arr);
         } finally {
             ioLock.unlock();
         }
     }
 
+    /** Credenciales: pasa por el scheduler pero se escribe en el momento (camino crítico). */
     private void guardarDocentes() {
+        Path path = Paths.get(ARCHIVO_DOCENTES);
+        PersistenceScheduler.markDirty(path, this::escribirDocentes);
+        PersistenceScheduler.flushNow(path);
+    }
+
+    private void escribirDocentes() {
         ioLock.lock();
         try {
             Path path = Paths.get(ARCHIVO_DOCENTES);
@@ -156,8 +164,7 @@ public class AutenticacionService {
             // Backup antes de sobrescribir
             DataBackups.backupIfExists(path);
 
-            String json = gson.toJson(docentes);
-            AtomicFiles.writeStringAtomic(path, json, StandardCharsets.UTF_8);
+            JsonSafeIO.writeListAtomic(path, gson, docentes, Docente.class);
         } catch (Exception e) {
             AppLog.error("Error en AutenticacionService.", e);
         } finally {
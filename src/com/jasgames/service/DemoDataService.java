@@ -153,7 +153,7 @@ public final class DemoDataService {
     /**
      * Limpia datos operativos:
      * - niños (ninos.json)
-     * - sesiones/resultados (resultados.json)
+     * - sesiones/resultados (resultados.bin)
      * - PIA (pias.json)
      * - aulas se resetean a por defecto
      *
@@ -0,0 +1,59 @@
+package com.jasgames.service;
+
+import com.jasgames.model.ObjetivoPIA;
+import com.jasgames.model.PIA;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice inmutable de PIAs: idPia → PIA y (idPia, idObjetivo) → ObjetivoPIA.
+ *
+ * PiaService lo reconstruye junto con cada foto publicada (los PIAs son pocos; las búsquedas,
+ * una por fila del Dashboard). Apunta a los mismos objetos del servicio.
+ */
+final class IndicePias {
+
+    static final IndicePias VACIO = new IndicePias(Collections.emptyMap(), Collections.emptyMap());
+
+    private final Map<String, PIA> porId;
+    private final Map<String, ObjetivoPIA> porObjetivo;
+
+    private IndicePias(Map<String, PIA> porId, Map<String, ObjetivoPIA> porObjetivo) {
+        this.porId = porId;
+        this.porObjetivo = porObjetivo;
+    }
+
+    static IndicePias construir(List<PIA> pias) {
+        if (pias == null || pias.isEmpty()) return VACIO;
+
+        Map<String, PIA> porId = new HashMap<>();
+        Map<String, ObjetivoPIA> porObjetivo = new HashMap<>();
+        for (PIA p : pias) {
+            if (p == null || p.getIdPia() == null) continue;
+            // Igual que la búsqueda lineal anterior: gana el primero de la lista
+            if (porId.putIfAbsent(p.getIdPia(), p) != null) continue;
+
+            for (ObjetivoPIA obj : p.getObjetivos()) {
+                if (obj == null || obj.getIdObjetivo() == null) continue;
+                porObjetivo.putIfAbsent(clave(p.getIdPia(), obj.getIdObjetivo()), obj);
+            }
+        }
+        return new IndicePias(porId, porObjetivo);
+    }
+
+    PIA porId(String idPia) {
+        return (idPia == null) ? null : porId.get(idPia);
+    }
+
+    ObjetivoPIA objetivo(String idPia, String idObjetivo) {
+        if (idPia == null || idObjetivo == null) return null;
+        return porObjetivo.get(clave(idPia, idObjetivo));
+    }
+
+    private static String clave(String idPia, String idObjetivo) {
+        return idPia + "|" + idObjetivo;
+    }
+}
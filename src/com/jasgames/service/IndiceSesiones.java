@@ -0,0 +1,232 @@
+package com.jasgames.service;
+
+import com.jasgames.model.Juego;
+import com.jasgames.model.SesionJuego;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Índices secundarios en memoria sobre el historial de sesiones.
+ *
+ * - Por id de sesión (búsqueda exacta).
+ * - Por estudiante, por juego, por aula, por PIA y por objetivo PIA (conjuntos en orden de registro).
+ * - Por (niño, juego) ordenado por fecha: "últimas N" cuesta O(log n + N).
+ *
+ * No es thread-safe: el dueño (SesionService) lo protege con su lock.
+ * Las sesiones se indexan por identidad (SesionJuego no redefine equals/hashCode).
+ */
+final class IndiceSesiones {
+
+    /** Fecha de referencia: fin si existe, si no inicio. */
+    static LocalDateTime fechaRef(SesionJuego s) {
+        return (s.getFechaFin() != null) ? s.getFechaFin() : s.getFechaHora();
+    }
+
+    /**
+     * Orden ascendente por fecha (nulls primero), desempate por id. Para ordenar listas;
+     * no distingue dos sesiones con misma fecha e id (el índice agrega su orden de llegada).
+     */
+    static final Comparator<SesionJuego> POR_FECHA = (a, b) -> {
+        LocalDateTime fa = fechaRef(a);
+        LocalDateTime fb = fechaRef(b);
+        if (fa != fb) {
+            if (fa == null) return -1;
+            if (fb == null) return 1;
+            int c = fa.compareTo(fb);
+            if (c != 0) return c;
+        }
+        return Comparator.nullsFirst(String::compareTo).compare(a.getIdSesion(), b.getIdSesion());
+    };
+
+    private final Map<String, SesionJuego> porId = new HashMap<>();
+    private final Map<Integer, Set<SesionJuego>> porNino = new HashMap<>();
+    private final Map<Integer, Set<SesionJuego>> porJuego = new HashMap<>();
+    private final Map<String, Set<SesionJuego>> porAula = new HashMap<>();
+    private final Map<String, Set<SesionJuego>> porPia = new HashMap<>();
+    private final Map<String, Set<SesionJuego>> porObjetivo = new HashMap<>();
+    private final Map<Long, NavigableSet<SesionJuego>> porNinoJuego = new HashMap<>();
+
+    // Orden de llegada de cada sesión (por identidad): último desempate de porNinoJuego, para que
+    // dos sesiones distintas con misma fecha e id nunca se consideren iguales en el TreeSet
+    private final Map<SesionJuego, Long> llegada = new IdentityHashMap<>();
+    private long proximaLlegada;
+    private final Comparator<SesionJuego> porFechaYLlegada = POR_FECHA.thenComparingLong(llegada::get);
+
+    void reconstruir(Collection<SesionJuego> sesiones) {
+        porId.clear();
+        porNino.clear();
+        porJuego.clear();
+        porAula.clear();
+        porPia.clear();
+        porObjetivo.clear();
+        porNinoJuego.clear();
+        llegada.clear();
+        if (sesiones == null) return;
+        for (SesionJuego s : sesiones) agregar(s);
+    }
+
+    void agregar(SesionJuego s) {
+        if (s == null) return;
+
+        if (s.getIdSesion() != null) porId.putIfAbsent(s.getIdSesion(), s);
+
+        Integer idNino = s.getIdEstudiante();
+        Integer idJuego = (s.getJuego() != null) ? s.getJuego().getId() : null;
+
+        if (idNino != null) porNino.computeIfAbsent(idNino, k -> new LinkedHashSet<>()).add(s);
+        if (idJuego != null) porJuego.computeIfAbsent(idJuego, k -> new LinkedHashSet<>()).add(s);
+
+        String aula = claveAula(s.getAula());
+        if (aula != null) porAula.computeIfAbsent(aula, k -> new LinkedHashSet<>()).add(s);
+
+        String idPia = s.getIdPia();
+        if (idPia != null && !idPia.isBlank()) {
+            porPia.computeIfAbsent(idPia, k -> new LinkedHashSet<>()).add(s);
+            if (s.getIdObjetivoPia() != null && !s.getIdObjetivoPia().isBlank()) {
+                porObjetivo.computeIfAbsent(claveObjetivo(idPia, s.getIdObjetivoPia()), k -> new LinkedHashSet<>()).add(s);
+            }
+        }
+
+        if (idNino != null && idJuego != null) {
+            llegada.putIfAbsent(s, proximaLlegada++);
+            porNinoJuego.computeIfAbsent(claveNinoJuego(idNino, idJuego), k -> new TreeSet<>(porFechaYLlegada)).add(s);
+        }
+    }
+
+    void quitar(SesionJuego s) {
+        if (s == null) return;
+
+        if (s.getIdSesion() != null) porId.remove(s.getIdSesion(), s);
+
+        Integer idNino = s.getIdEstudiante();
+        Integer idJuego = (s.getJuego() != null) ? s.getJuego().getId() : null;
+
+        if (idNino != null) quitarDe(porNino, idNino, s);
+        if (idJuego != null) quitarDe(porJuego, idJuego, s);
+
+        String aula = claveAula(s.getAula());
+        if (aula != null) quitarDe(porAula, aula, s);
+
+        String idPia = s.getIdPia();
+        if (idPia != null && !idPia.isBlank()) {
+            quitarDe(porPia, idPia, s);
+            if (s.getIdObjetivoPia() != null && !s.getIdObjetivoPia().isBlank()) {
+                quitarDe(porObjetivo, claveObjetivo(idPia, s.getIdObjetivoPia()), s);
+            }
+        }
+
+        if (idNino != null && idJuego != null) {
+            long k = claveNinoJuego(idNino, idJuego);
+            NavigableSet<SesionJuego> set = porNinoJuego.get(k);
+            if (set != null && llegada.containsKey(s)) {
+                set.remove(s);
+                if (set.isEmpty()) porNinoJuego.remove(k);
+            }
+            llegada.remove(s);
+        }
+    }
+
+    // ---------------- Consultas (devuelven copias) ----------------
+
+    SesionJuego porId(String idSesion) {
+        return (idSesion == null) ? null : porId.get(idSesion);
+    }
+
+    List<SesionJuego> porNino(int idNino) {
+        return copia(porNino.get(idNino));
+    }
+
+    List<SesionJuego> porJuego(int idJuego) {
+        return copia(porJuego.get(idJuego));
+    }
+
+    List<SesionJuego> porAula(String aula) {
+        String k = claveAula(aula);
+        return (k == null) ? new ArrayList<>() : copia(porAula.get(k));
+    }
+
+    List<SesionJuego> porPia(String idPia) {
+        return (idPia == null) ? new ArrayList<>() : copia(porPia.get(idPia));
+    }
+
+    List<SesionJuego> porObjetivo(String idPia, String idObjetivo) {
+        if (idPia == null || idObjetivo == null) return new ArrayList<>();
+        return copia(porObjetivo.get(claveObjetivo(idPia, idObjetivo)));
+    }
+
+    /** Últimas N sesiones de un niño en un juego (más recientes primero; sin fecha al final). */
+    List<SesionJuego> ultimasPorNinoYJuego(int idNino, int idJuego, int limite) {
+        List<SesionJuego> out = new ArrayList<>();
+        NavigableSet<SesionJuego> set = porNinoJuego.get(claveNinoJuego(idNino, idJuego));
+        if (set == null) return out;
+
+        Iterator<SesionJuego> it = set.descendingIterator();
+        List<SesionJuego> sinFecha = null;
+        while (it.hasNext() && out.size() < limite) {
+            SesionJuego s = it.next();
+            if (fechaRef(s) == null) {
+                // Los null quedan al inicio del orden ascendente: se agregan al final
+                if (sinFecha == null) sinFecha = new ArrayList<>();
+                sinFecha.add(s);
+                continue;
+            }
+            out.add(s);
+        }
+        if (sinFecha != null) {
+            for (SesionJuego s : sinFecha) {
+                if (out.size() >= limite) break;
+                out.add(s);
+            }
+        }
+        return out;
+    }
+
+    /** Juegos con al menos una sesión (orden de primera aparición por id). */
+    List<Juego> juegosConSesiones() {
+        List<Juego> out = new ArrayList<>();
+        for (Set<SesionJuego> set : porJuego.values()) {
+            if (set.isEmpty()) continue;
+            out.add(set.iterator().next().getJuego());
+        }
+        out.sort(Comparator.comparingInt(Juego::getId));
+        return out;
+    }
+
+    /** Aulas (tal como se registraron en la primera sesión) con al menos una sesión. */
+    List<String> aulasConSesiones() {
+        List<String> out = new ArrayList<>();
+        for (Set<SesionJuego> set : porAula.values()) {
+            if (set.isEmpty()) continue;
+            out.add(set.iterator().next().getAula().trim());
+        }
+        out.sort(String.CASE_INSENSITIVE_ORDER);
+        return out;
+    }
+
+    // ---------------- helpers ----------------
+
+    private static <K> void quitarDe(Map<K, Set<SesionJuego>> map, K key, SesionJuego s) {
+        Set<SesionJuego> set = map.get(key);
+        if (set == null) return;
+        set.remove(s);
+        if (set.isEmpty()) map.remove(key);
+    }
+
+    private static List<SesionJuego> copia(Collection<SesionJuego> c) {
+        return (c == null) ? new ArrayList<>() : new ArrayList<>(c);
+    }
+
+    private static String claveAula(String aula) {
+        if (aula == null || aula.isBlank()) return null;
+        return aula.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String claveObjetivo(String idPia, String idObjetivo) {
+        return idPia + "|" + idObjetivo;
+    }
+
+    private static long claveNinoJuego(int idNino, int idJuego) {
+        return ((long) idNino << 32) | (idJuego & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,45 @@
+package com.jasgames.service;
+
+import com.jasgames.model.Juego;
+import com.jasgames.model.TipoJuego;
+
+import java.util.List;
+
+/**
+ * Módulo de juego (SPI, ver {@link java.util.ServiceLoader}).
+ *
+ * Cada juego se declara con una clase liviana listada en
+ * {@code META-INF/services/com.jasgames.service.JuegoModulo}: metadatos para el catálogo,
+ * recursos fijos y la clase de su panel. Al arrancar solo se instancian estos descriptores;
+ * la clase del panel (y sus imágenes/audios) se carga la primera vez que se abre el juego.
+ */
+public interface JuegoModulo {
+
+    int getId();
+
+    String getNombre();
+
+    TipoJuego getTipo();
+
+    String getDescripcion();
+
+    default int getDificultadInicial() {
+        return 1;
+    }
+
+    /**
+     * Nombre completo de la clase del panel: debe extender BaseJuegoPanel y tener
+     * constructor {@code (Actividad, JuegoListener)}. Se resuelve por nombre para no cargarla al arrancar.
+     */
+    String getClasePanel();
+
+    /** Recursos del classpath (.png / .wav) a preparar en segundo plano al abrir el juego por primera vez. */
+    default List<String> getAssets() {
+        return List.of();
+    }
+
+    /** Entrada de catálogo para data/juegos.json. */
+    default Juego crearJuego() {
+        return new Juego(getId(), getNombre(), getTipo(), getDificultadInicial(), getDescripcion());
+    }
+}
@@ -7,14 +7,14 @@ import com.google.gson.reflect.TypeToken;
 import com.jasgames.model.Actividad;
 import com.jasgames.model.Juego;
 import com.jasgames.model.TipoJuego;
-import com.jasgames.util.AtomicFiles;
 import com.jasgames.util.DataBackups;
 import com.jasgames.util.FileLocks;
 import com.jasgames.util.JsonSafeIO;
+import com.jasgames.util.ListSnapshot;
+import com.jasgames.util.PersistenceScheduler;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -28,6 +28,7 @@ public class JuegoService {
     private final List<Juego> juegos;
     private final Queue<Actividad> colaActividades;
     private final ReentrantLock ioLock = FileLocks.of(Paths.get(ARCHIVO_JUEGOS));
+    private volatile ListSnapshot<Juego> snapshot = ListSnapshot.empty();
 
     private final Gson gson = new GsonBuilder()
             .setPrettyPrinting()
@@ -47,111 +48,29 @@ public class JuegoService {
         asegurarJuegosMinimos();
     }
 
+    /** Catálogo inicial: un juego por módulo instalado (ver {@link ModulosJuego}). */
     private void cargarJuegosIniciales() {
         ioLock.lock();
         try {
-            agregarJuego(new Juego(
-                    1,
-                    "Discriminación de Colores",
-                    TipoJuego.COLORES,
-                    1,
-                    "Toca el círculo del color indicado. Refuerzo positivo y sin castigo por error."
-            ));
-
-            agregarJuego(new Juego(
-                    2,
-                    "Cuenta y Conecta",
-                    TipoJuego.NUMEROS,
-                    1,
-                    "Cuenta las figuras y toca el número correcto. 5 rondas completadas = 100 puntos."
-            ));
-
-            agregarJuego(new Juego(
-                    3,
-                    "Sigue la Serie",
-                    TipoJuego.SERIES,
-                    1,
-                    "Completa el patrón (serie) eligiendo la figura que falta. 5 rondas completadas = 100 puntos."
-            ));
-
-            agregarJuego(new Juego(
-                    4,
-                    "Vocales Divertidas",
-                    TipoJuego.FONEMAS,
-                    1,
-                    "Mira el dibujo y completa la palabra: toca la vocal inicial correcta. Intentos ilimitados."
-            ));
-
-            agregarJuego(new Juego(
-                    5,
-                    "Explorando las Vocales",
-                    TipoJuego.FONEMAS,
-                    1,
-                    "Escucha la pregunta y toca la imagen cuyo nombre empieza con la vocal mostrada. 5 rondas = 100 puntos."
-            ));
+            for (JuegoModulo m : ModulosJuego.catalogo()) {
+                agregarJuego(m.crearJuego());
+            }
         } finally {
             ioLock.unlock();
         }
     }
 
+    /** Agrega al catálogo guardado los módulos nuevos (p. ej. un juego instalado después). */
     private void asegurarJuegosMinimos() {
         ioLock.lock();
         try {
             boolean changed = false;
 
-            if (buscarPorId(1) == null) {
-                agregarJuego(new Juego(
-                        1,
-                        "Discriminación de Colores",
-                        TipoJuego.COLORES,
-                        1,
-                        "Toca el círculo que coincide con el color objetivo. 5 rondas completadas = 100 puntos."
-                ));
-                changed = true;
-            }
-
-            if (buscarPorId(2) == null) {
-                agregarJuego(new Juego(
-                        2,
-                        "Cuenta y Conecta",
-                        TipoJuego.NUMEROS,
-                        1,
-                        "Cuenta las figuras y toca el número correcto. 5 rondas completadas = 100 puntos."
-                ));
-                changed = true;
-            }
-
-            if (buscarPorId(3) == null) {
-                agregarJuego(new Juego(
-                        3,
-                        "Sigue la Serie",
-                        TipoJuego.SERIES,
-                        1,
-                        "Completa el patrón (serie) eligiendo la figura que falta. 5 rondas completadas = 100 puntos."
-                ));
-                changed = true;
-            }
-
-            if (buscarPorId(4) == null) {
-                agregarJuego(new Juego(
-                        4,
-                        "Vocales Divertidas",
-                        TipoJuego.FONEMAS,
-                        1,
-                        "Mira el dibujo y completa la palabra: toca la vocal inicial correcta. Intentos ilimitados."
-            ));
-                changed = true;
-            }
-
-            if (buscarPorId(5) == null) {
-                agregarJuego(new Juego(
-                        5,
-                        "Explorando las Vocales",
-                        TipoJuego.FONEMAS,
-                        1,
-                        "Escucha la pregunta y toca la imagen cuyo nombre empieza con la vocal mostrada. 5 rondas = 100 puntos."
-                ));
-                changed = true;
+            for (JuegoModulo m : ModulosJuego.catalogo()) {
+                if (buscarPorId(m.getId()) == null) {
+                    agregarJuego(m.crearJuego());
+                    changed = true;
+                }
             }
 
             if (changed) guardar();
@@ -169,8 +88,18 @@ public class JuegoService {
         return null;
     }
 
-    /** Guarda juegos (incluye habilitado y dificultad global) en data/juegos.json */
+    /** Guarda juegos (incluye habilitado y dificultad global) en data/juegos.json (escritura diferida). */
     public void guardar() {
+        ioLock.lock();
+        try {
+            publicar();
+        } finally {
+            ioLock.unlock();
+        }
+        PersistenceScheduler.markDirty(Paths.get(ARCHIVO_JUEGOS), this::escribirArchivo);
+    }
+
+    private void escribirArchivo() {
         ioLock.lock();
         try {
             Path pathArchivo = Paths.get(ARCHIVO_JUEGOS);
@@ -182,8 +111,7 @@ public class JuegoService {
             // Backup antes de sobrescribir
             DataBackups.backupIfExists(pathArchivo);
 
-            String json = gson.toJson(juegos);
-            AtomicFiles.writeStringAtomic(pathArchivo, json, StandardCharsets.UTF_8);
+            JsonSafeIO.writeListAtomic(pathArchivo, gson, juegos, Juego.class);
 
         } catch (IOException e) {
             AppLog.error("Error guardando juegos.", e);
@@ -199,8 +127,8 @@ public class JuegoService {
             Path pathArchivo = Paths.get(ARCHIVO_JUEGOS);
             if (!Files.exists(pathArchivo)) return false;
 
-            Juego[] arr = JsonSafeIO.readOrRecover(pathArchivo, gson, Juego[].class, new Juego[0]);
-            if (arr == null || arr.length == 0) return false;
+            List<Juego> arr = JsonSafeIO.readListOrRecover(pathArchivo, gson, Juego.class);
+            if (arr.isEmpty()) return false;
 
             // Normalizar por seguridad
             for (Juego j : arr) {
@@ -209,7 +137,8 @@ public class JuegoService {
             }
 
             juegos.clear();
-            juegos.addAll(Arrays.asList(arr));
+            juegos.addAll(arr);
+            publicar();
             return true;
         } finally {
             ioLock.unlock();
@@ -221,6 +150,7 @@ public class JuegoService {
         ioLock.lock();
         try {
             juegos.add(juego);
+            publicar();
         } finally {
             ioLock.unlock();
         }
@@ -229,34 +159,43 @@ public class JuegoService {
     public void eliminarJuego(Juego juego) {
         ioLock.lock();
         try {
-            juegos.remove(juego);
+            if (juegos.remove(juego)) publicar();
         } finally {
             ioLock.unlock();
         }
     }
 
+    /** Catálogo completo (lista inmutable; no bloquea ni copia). */
     public List<Juego> obtenerTodos() {
-        ioLock.lock();
-        try {
-            return Collections.unmodifiableList(new ArrayList<>(juegos));
-        } finally {
-            ioLock.unlock();
+        return snapshot.getItems();
+    }
+
+    /** Foto versionada del catálogo, para detectar cambios con {@link ListSnapshot#cambioDesde(long)}. */
+    public ListSnapshot<Juego> snapshot() {
+        return snapshot;
+    }
+
+    /** Juego por id (sin lock; null si no existe). */
+    public Juego obtenerPorId(int id) {
+        for (Juego j : snapshot.getItems()) {
+            if (j.getId() == id) return j;
         }
+        return null;
     }
 
     public List<Juego> filtrarPorTipo(TipoJuego tipo) {
-        ioLock.lock();
-        try {
-            List<Juego> resultado = new ArrayList<>();
-            for (Juego juego : juegos) {
-                if (juego.getTipo() == tipo) {
-                    resultado.add(juego);
-                }
+        List<Juego> resultado = new ArrayList<>();
+        for (Juego juego : snapshot.getItems()) {
+            if (juego.getTipo() == tipo) {
+                resultado.add(juego);
             }
-            return resultado;
-        } finally {
-            ioLock.unlock();
         }
+        return resultado;
+    }
+
+    /** Publica una nueva foto inmutable (llamar con el lock tomado, después de cada cambio). */
+    private void publicar() {
+        snapshot = snapshot.next(juegos);
     }
 
     // ------------ COLA DE ACTIVIDADES ------------
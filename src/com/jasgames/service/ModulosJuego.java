@@ -0,0 +1,69 @@
+package com.jasgames.service;
+
+import com.jasgames.util.AppLog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Catálogo de módulos de juego descubiertos con {@link ServiceLoader} (una sola vez por ejecución).
+ *
+ * - Ordenados por id; si dos módulos declaran el mismo id, gana el primero y se avisa en el log.
+ * - Un módulo que no se puede instanciar se omite (los demás siguen disponibles).
+ */
+public final class ModulosJuego {
+
+    private static volatile Map<Integer, JuegoModulo> modulos;
+
+    private ModulosJuego() {}
+
+    /** Módulos disponibles, ordenados por id. */
+    public static List<JuegoModulo> catalogo() {
+        return new ArrayList<>(cargar().values());
+    }
+
+    /** Módulo del juego {@code id}, o null si no hay ninguno instalado. */
+    public static JuegoModulo buscar(int id) {
+        return cargar().get(id);
+    }
+
+    private static Map<Integer, JuegoModulo> cargar() {
+        Map<Integer, JuegoModulo> m = modulos;
+        if (m != null) return m;
+
+        synchronized (ModulosJuego.class) {
+            if (modulos != null) return modulos;
+
+            List<JuegoModulo> encontrados = new ArrayList<>();
+            ServiceLoader<JuegoModulo> loader = ServiceLoader.load(JuegoModulo.class, ModulosJuego.class.getClassLoader());
+            for (ServiceLoader.Provider<JuegoModulo> p : (Iterable<ServiceLoader.Provider<JuegoModulo>>) loader.stream()::iterator) {
+                try {
+                    encontrados.add(p.get());
+                } catch (Throwable e) {
+                    AppLog.error("No se pudo cargar el módulo de juego " + p.type().getName(), e);
+                }
+            }
+            encontrados.sort(Comparator.comparingInt(JuegoModulo::getId));
+
+            Map<Integer, JuegoModulo> porId = new LinkedHashMap<>();
+            for (JuegoModulo mod : encontrados) {
+                JuegoModulo previo = porId.putIfAbsent(mod.getId(), mod);
+                if (previo != null) {
+                    AppLog.warn("Módulo de juego con id repetido (" + mod.getId() + "): se ignora "
+                            + mod.getClass().getName());
+                }
+            }
+            if (porId.isEmpty()) {
+                AppLog.warn("No se encontraron módulos de juego (META-INF/services/" + JuegoModulo.class.getName() + ").");
+            }
+
+            modulos = Collections.unmodifiableMap(porId);
+            return modulos;
+        }
+    }
+}
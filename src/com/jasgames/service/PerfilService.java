@@ -3,17 +3,15 @@ package com.jasgames.service;
 import com.jasgames.util.AppLog;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
 import com.jasgames.model.CriterioOrdenNino;
 import com.jasgames.model.Nino;
-import com.jasgames.util.AtomicFiles;
 import com.jasgames.util.DataBackups;
 import com.jasgames.util.FileLocks;
 import com.jasgames.util.JsonSafeIO;
+import com.jasgames.util.ListSnapshot;
+import com.jasgames.util.PersistenceScheduler;
 
 import java.io.IOException;
-import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -28,6 +26,7 @@ public class PerfilService {
     // Lista interna de niños
     private final List<Nino> ninos = new ArrayList<>();
     private final ReentrantLock ioLock = FileLocks.of(Paths.get(ARCHIVO_NINOS));
+    private volatile ListSnapshot<Nino> snapshot = ListSnapshot.empty();
 
     // Gson para JSON
     private final Gson gson = new GsonBuilder()
@@ -51,14 +50,14 @@ public class PerfilService {
     // MÉTODOS QUE LA UI USA
     // =========================================================
 
-    /** Usado por PerfilesPanel para llenar la tabla */
+    /** Usado por PerfilesPanel para llenar la tabla (lista inmutable; no bloquea ni copia). */
     public List<Nino> obtenerTodosNinos() {
-        ioLock.lock();
-        try {
-            return new ArrayList<>(ninos);
-        } finally {
-            ioLock.unlock();
-        }
+        return snapshot.getItems();
+    }
+
+    /** Foto versionada de los niños, para detectar cambios con {@link ListSnapshot#cambioDesde(long)}. */
+    public ListSnapshot<Nino> snapshot() {
+        return snapshot;
     }
 
     /** Usado por PerfilesPanel al buscar por ID */
@@ -203,37 +202,32 @@ public class PerfilService {
 
     /** Devolver copia de la lista ordenada según el criterio */
     public List<Nino> obtenerNinosOrdenados(CriterioOrdenNino criterio) {
-        ioLock.lock();
-        try {
-            List<Nino> copia = new ArrayList<>(ninos);
-            if (criterio == null) return copia;
-
-            switch (criterio) {
-                case ID:
-                    // id es int
-                    copia.sort(Comparator.comparingInt(Nino::getId));
-                    break;
-                case NOMBRE:
-                    copia.sort(Comparator.comparing(
-                            Nino::getNombre,
-                            String.CASE_INSENSITIVE_ORDER
-                    ));
-                    break;
-                case EDAD:
-                    copia.sort(Comparator.comparingInt(Nino::getEdad));
-                    break;
-                case DIAGNOSTICO:
-                    // por si diagnostico no es String, usamos String.valueOf
-                    copia.sort(Comparator.comparing(
-                            n -> String.valueOf(n.getDiagnostico()),
-                            String.CASE_INSENSITIVE_ORDER
-                    ));
-                    break;
-            }
-            return copia;
-        } finally {
-            ioLock.unlock();
+        List<Nino> copia = new ArrayList<>(snapshot.getItems());
+        if (criterio == null) return copia;
+
+        switch (criterio) {
+            case ID:
+                // id es int
+                copia.sort(Comparator.comparingInt(Nino::getId));
+                break;
+            case NOMBRE:
+                copia.sort(Comparator.comparing(
+                        Nino::getNombre,
+                        String.CASE_INSENSITIVE_ORDER
+                ));
+                break;
+            case EDAD:
+                copia.sort(Comparator.comparingInt(Nino::getEdad));
+                break;
+            case DIAGNOSTICO:
+                // por si diagnostico no es String, usamos String.valueOf
+                copia.sort(Comparator.comparing(
+                        n -> String.valueOf(n.getDiagnostico()),
+                        String.CASE_INSENSITIVE_ORDER
+                ));
+                break;
         }
+        return copia;
     }
 
     public int getDificultadAsignada(int idNino, int idJuego, int difDefault) {
@@ -250,8 +244,19 @@ public class PerfilService {
     // =========================================================
     // PERSISTENCIA JSON
     // =========================================================
-    /** Guarda la lista de niños en data/ninos.json */
+    /** Publica los cambios y programa la escritura de data/ninos.json (se agrupa con los cambios cercanos). */
     private void guardarNinosEnArchivo() {
+        ioLock.lock();
+        try {
+            publicar();
+        } finally {
+            ioLock.unlock();
+        }
+        PersistenceScheduler.markDirty(Paths.get(ARCHIVO_NINOS), this::escribirNinosEnArchivo);
+    }
+
+    /** Escribe la lista de niños en data/ninos.json (lo ejecuta {@link PersistenceScheduler}). */
+    private void escribirNinosEnArchivo() {
         ioLock.lock();
         try {
             Path pathArchivo = Paths.get(ARCHIVO_NINOS);
@@ -263,8 +268,7 @@ public class PerfilService {
             // Backup antes de sobrescribir
             DataBackups.backupIfExists(pathArchivo);
 
-            String json = gson.toJson(ninos);
-            AtomicFiles.writeStringAtomic(pathArchivo, json, StandardCharsets.UTF_8);
+            JsonSafeIO.writeListAtomic(pathArchivo, gson, ninos, Nino.class);
 
         } catch (Exception e) {
             AppLog.error("Error en PerfilService (persistencia).", e);
@@ -278,15 +282,8 @@ public class PerfilService {
         ioLock.lock();
         try {
             Path pathArchivo = Paths.get(ARCHIVO_NINOS);
-            Type tipoLista = new TypeToken<List<Nino>>() {}.getType();
-
-            // Lectura robusta con recuperación si el JSON está corrupto
-            List<Nino> cargados = JsonSafeIO.readOrRecover(
-                    pathArchivo,
-                    gson,
-                    tipoLista,
-                    new ArrayList<>()
-            );
+            // Lectura en streaming; un niño corrupto se omite sin perder el resto
+            List<Nino> cargados = JsonSafeIO.readListOrRecover(pathArchivo, gson, Nino.class);
 
             ninos.clear();
             if (cargados != null) {
@@ -330,6 +327,8 @@ public class PerfilService {
             }
             if (cambiado) {
                 guardarNinosEnArchivo();
+            } else {
+                publicar();
             }
 
         } catch (Exception e) {
@@ -339,6 +338,11 @@ public class PerfilService {
         }
     }
 
+    /** Publica una nueva foto inmutable (llamar con el lock tomado, después de cada cambio). */
+    private void publicar() {
+        snapshot = snapshot.next(ninos);
+    }
+
     public void asignarJuegosConDificultad(int idNino, Set<Integer> juegosIds, Map<Integer, Integer> dificultades) {
         ioLock.lock();
         try {
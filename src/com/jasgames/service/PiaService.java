@@ -5,26 +5,45 @@ import com.google.gson.*;
 import com.jasgames.model.ObjetivoPIA;
 import com.jasgames.model.PIA;
 import com.jasgames.model.SesionJuego;
-import com.jasgames.util.AtomicFiles;
 import com.jasgames.util.DataBackups;
 import com.jasgames.util.FileLocks;
 import com.jasgames.util.JsonSafeIO;
+import com.jasgames.util.ListSnapshot;
+import com.jasgames.util.PersistenceScheduler;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+/**
+ * PIAs y su progreso.
+ *
+ * El progreso de cada objetivo se mantiene por deltas O(1) según los eventos de sesión:
+ * {@link #aplicarSesion} (registrar), {@link #sesionEliminada} y {@link #sesionRestaurada}.
+ * El recálculo completo ({@link #recalcularProgresoPIA}) queda para el botón manual, y
+ * {@link #iniciarVerificador} compara cada tanto los contadores con las sesiones y corrige si hay deriva.
+ */
 public class PiaService {
 
     private static final String ARCHIVO_PIAS = "data/pias.json";
 
     private final List<PIA> pias = new ArrayList<>();
     private final ReentrantLock ioLock = FileLocks.of(Paths.get(ARCHIVO_PIAS));
+    private volatile ListSnapshot<PIA> snapshot = ListSnapshot.empty();
+    private volatile IndicePias indice = IndicePias.VACIO;
+
+    // Verificador de consistencia (opcional, ver iniciarVerificador)
+    private static final long VERIFICAR_CADA_MIN = 10;
+    private static final long CONFIRMAR_DERIVA_MS = 5_000;
+    private ScheduledExecutorService verificador;
 
     private final Gson gson = new GsonBuilder()
             .setPrettyPrinting()
@@ -35,39 +54,40 @@ public class PiaService {
         cargarDesdeArchivo();
     }
 
+    /** Todos los PIAs (lista inmutable; no bloquea ni copia). */
     public List<PIA> obtenerTodos() {
-        ioLock.lock();
-        try {
-            return new ArrayList<>(pias);
-        } finally {
-            ioLock.unlock();
-        }
+        return snapshot.getItems();
+    }
+
+    /** Foto versionada de los PIAs, para detectar cambios con {@link ListSnapshot#cambioDesde(long)}. */
+    public ListSnapshot<PIA> snapshot() {
+        return snapshot;
+    }
+
+    /** Búsqueda O(1) por idPia (sin lock). */
+    public PIA obtenerPorId(String idPia) {
+        return indice.porId(idPia);
+    }
+
+    /** Búsqueda O(1) de un objetivo por (idPia, idObjetivo) (sin lock). */
+    public ObjetivoPIA obtenerObjetivo(String idPia, String idObjetivo) {
+        return indice.objetivo(idPia, idObjetivo);
     }
 
     @SuppressWarnings("unused")
     public List<PIA> obtenerPorNino(int idNino) {
-        ioLock.lock();
-        try {
-            List<PIA> out = new ArrayList<>();
-            for (PIA p : pias) {
-                if (p != null && p.getIdNino() == idNino) out.add(p);
-            }
-            return out;
-        } finally {
-            ioLock.unlock();
+        List<PIA> out = new ArrayList<>();
+        for (PIA p : snapshot.getItems()) {
+            if (p != null && p.getIdNino() == idNino) out.add(p);
         }
+        return out;
     }
 
     public PIA obtenerActivo(int idNino) {
-        ioLock.lock();
-        try {
-            for (PIA p : pias) {
-                if (p != null && p.getIdNino() == idNino && p.isActivo()) return p;
-            }
-            return null;
-        } finally {
-            ioLock.unlock();
+        for (PIA p : snapshot.getItems()) {
+            if (p != null && p.getIdNino() == idNino && p.isActivo()) return p;
         }
+        return null;
     }
 
     /**
@@ -174,7 +194,18 @@ public class PiaService {
             ObjetivoPIA obj = p.getObjetivoPorId(idObjetivo);
             if (obj == null) return false;
 
+            int rondasAntes = obj.getProgresoRondasCorrectas();
+            int sesionesAntes = obj.getProgresoSesionesCompletadas();
+            LocalDateTime desdeAntes = obj.getProgresoDesde();
+
             mutator.accept(obj);
+
+            // Contadores cambiados a mano (sin reiniciarProgreso): el verificador no los corrige
+            boolean reiniciado = !Objects.equals(desdeAntes, obj.getProgresoDesde());
+            if (!reiniciado && (rondasAntes != obj.getProgresoRondasCorrectas()
+                    || sesionesAntes != obj.getProgresoSesionesCompletadas())) {
+                obj.setProgresoAjustadoManual(true);
+            }
             obj.evaluarCompletadoSiAplica();
 
             p.asegurarObjetivoActivoValido();
@@ -217,7 +248,8 @@ public class PiaService {
             String idActivo = pia.getIdObjetivoActivo();
             if (idActivo != null) {
                 ObjetivoPIA elegido = pia.getObjetivoPorId(idActivo);
-                if (elegido != null && !elegido.isCompletado() && elegido.getJuegoId() == juegoId) {
+                if (elegido != null && !elegido.isCompletado() && elegido.getJuegoId() == juegoId
+                        && elegido.cuentaSesionDel(sesion.getFechaHora())) {
                     objetivo = elegido;
                 }
             }
@@ -225,7 +257,8 @@ public class PiaService {
             // 2b) Fallback: primer objetivo no completado que coincida con el juego
             if (objetivo == null) {
                 for (ObjetivoPIA obj : pia.getObjetivos()) {
-                    if (obj != null && obj.getJuegoId() == juegoId && !obj.isCompletado()) {
+                    if (obj != null && obj.getJuegoId() == juegoId && !obj.isCompletado()
+                            && obj.cuentaSesionDel(sesion.getFechaHora())) {
                         objetivo = obj;
                         break;
                     }
@@ -237,7 +270,7 @@ public class PiaService {
 
 
             // 3. Actualizar progreso
-            objetivo.setProgresoRondasCorrectas(objetivo.getProgresoRondasCorrectas() + sesion.getAciertosTotales());
+            objetivo.setProgresoRondasCorrectas(objetivo.getProgresoRondasCorrectas() + aporteRondas(sesion));
             objetivo.setProgresoSesionesCompletadas(objetivo.getProgresoSesionesCompletadas() + 1);
 
             // 4. Evaluar si se completó
@@ -259,6 +292,191 @@ public class PiaService {
         }
     }
 
+    /**
+     * Descuenta del objetivo vinculado el aporte de una sesión eliminada (O(1), sin recorrer el historial).
+     * Si el progreso baja de la meta, el objetivo vuelve a quedar pendiente.
+     *
+     * @return true si la sesión estaba vinculada a un objetivo existente
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    public boolean sesionEliminada(SesionJuego sesion) {
+        return aplicarDelta(sesion, -1);
+    }
+
+    /** Vuelve a sumar el aporte de una sesión restaurada (Deshacer). Inverso de {@link #sesionEliminada}. */
+    @SuppressWarnings("UnusedReturnValue")
+    public boolean sesionRestaurada(SesionJuego sesion) {
+        return aplicarDelta(sesion, +1);
+    }
+
+    private boolean aplicarDelta(SesionJuego sesion, int signo) {
+        if (sesion == null || sesion.getIdPia() == null || sesion.getIdObjetivoPia() == null) return false;
+
+        ioLock.lock();
+        try {
+            PIA pia = obtenerPorIdInterno(sesion.getIdPia().trim());
+            if (pia == null) return false;
+            ObjetivoPIA obj = pia.getObjetivoPorId(sesion.getIdObjetivoPia());
+            // Sesión anterior a un reinicio del progreso: no sumaba, tampoco resta
+            if (obj == null || !obj.cuentaSesionDel(sesion.getFechaHora())) return false;
+
+            fijarProgreso(obj,
+                    obj.getProgresoRondasCorrectas() + signo * aporteRondas(sesion),
+                    obj.getProgresoSesionesCompletadas() + signo);
+            pia.asegurarObjetivoActivoValido();
+
+            guardarEnArchivo();
+            return true;
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    // ---------------- Verificador de consistencia ----------------
+
+    /** Un objetivo cuyos contadores no coinciden con el recálculo desde las sesiones vinculadas. */
+    public static final class Deriva {
+        public final String idPia;
+        public final String idObjetivo;
+        public final int rondasGuardadas;
+        public final int sesionesGuardadas;
+        public final int rondasEsperadas;
+        public final int sesionesEsperadas;
+        /** El docente ajustó los contadores a mano: la diferencia es intencional, no se corrige. */
+        public final boolean ajusteManual;
+
+        Deriva(String idPia, ObjetivoPIA obj, int[] esperado) {
+            this.idPia = idPia;
+            this.idObjetivo = obj.getIdObjetivo();
+            this.rondasGuardadas = obj.getProgresoRondasCorrectas();
+            this.sesionesGuardadas = obj.getProgresoSesionesCompletadas();
+            this.rondasEsperadas = esperado[0];
+            this.sesionesEsperadas = esperado[1];
+            this.ajusteManual = obj.isProgresoAjustadoManual();
+        }
+
+        /** Misma deriva (mismos valores guardados y esperados) que {@code otra}. */
+        boolean igualA(Deriva otra) {
+            return otra != null && idPia.equals(otra.idPia) && idObjetivo.equals(otra.idObjetivo)
+                    && rondasGuardadas == otra.rondasGuardadas && sesionesGuardadas == otra.sesionesGuardadas
+                    && rondasEsperadas == otra.rondasEsperadas && sesionesEsperadas == otra.sesionesEsperadas;
+        }
+
+        @Override
+        public String toString() {
+            return "PIA " + idPia + " / objetivo " + idObjetivo + ": guardado " + rondasGuardadas + " rondas, "
+                    + sesionesGuardadas + " sesiones; según sesiones " + rondasEsperadas + " rondas, "
+                    + sesionesEsperadas + " sesiones" + (ajusteManual ? " (ajuste manual)" : "");
+        }
+    }
+
+    /**
+     * Arranca (una sola vez) una verificación periódica en segundo plano de los PIAs activos contra
+     * {@code fuente} (normalmente sesionService::obtenerTodos). Toda deriva se registra en el log;
+     * solo se corrige si los contadores están comprobadamente desactualizados:
+     * - el PIA sigue activo (los cerrados no se tocan),
+     * - el docente no ajustó esos contadores a mano (un reinicio de progreso no cuenta como ajuste:
+     *   las sesiones anteriores quedan fuera del recálculo), y
+     * - la misma deriva, con los mismos valores, sigue ahí al volver a mirar unos segundos después
+     *   (entre aplicarSesion y el registro de la sesión hay un instante en que ambos no coinciden).
+     */
+    public synchronized void iniciarVerificador(Supplier<List<SesionJuego>> fuente) {
+        if (fuente == null || verificador != null) return;
+
+        verificador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "PiaService-verificador");
+            t.setDaemon(true);
+            return t;
+        });
+        verificador.scheduleWithFixedDelay(() -> {
+            try {
+                List<Deriva> primera = detectarDerivas(fuente.get());
+                if (primera.isEmpty()) return;
+                Thread.sleep(CONFIRMAR_DERIVA_MS);
+
+                List<Deriva> confirmadas = new ArrayList<>();
+                for (Deriva d : detectarDerivas(fuente.get())) {
+                    for (Deriva p : primera) {
+                        if (d.igualA(p)) {
+                            confirmadas.add(d);
+                            break;
+                        }
+                    }
+                }
+                for (Deriva d : confirmadas) AppLog.warn("PIA: deriva de progreso: " + d);
+
+                int corregidos = corregirDerivas(confirmadas);
+                if (corregidos > 0) {
+                    AppLog.warn("PIA: progreso corregido en " + corregidos + " objetivo(s) (contadores desactualizados)");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                AppLog.error("PIA: falló la verificación de progreso", e);
+            }
+        }, 1, VERIFICAR_CADA_MIN, TimeUnit.MINUTES);
+    }
+
+    /** Objetivos de PIAs activos cuyos contadores difieren del recálculo desde {@code sesiones}. No modifica nada. */
+    public List<Deriva> detectarDerivas(List<SesionJuego> sesiones) {
+        ioLock.lock();
+        try {
+            List<PIA> activos = new ArrayList<>();
+            for (PIA pia : pias) {
+                if (pia != null && pia.isActivo()) activos.add(pia);
+            }
+            Map<String, int[]> esperado = agregarPorObjetivo(activos, sesiones);
+
+            List<Deriva> out = new ArrayList<>();
+            for (PIA pia : activos) {
+                for (ObjetivoPIA obj : pia.getObjetivos()) {
+                    if (obj == null) continue;
+                    int[] e = esperado.getOrDefault(clave(pia, obj), new int[2]);
+                    if (obj.getProgresoRondasCorrectas() != e[0] || obj.getProgresoSesionesCompletadas() != e[1]) {
+                        out.add(new Deriva(pia.getIdPia(), obj, e));
+                    }
+                }
+            }
+            return out;
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * Corrige las derivas indicadas que no sean ajustes manuales, solo si el objetivo sigue en el mismo
+     * estado en que se detectó (PIA activo y mismos contadores guardados).
+     *
+     * @return cantidad de objetivos corregidos
+     */
+    public int corregirDerivas(List<Deriva> derivas) {
+        if (derivas == null || derivas.isEmpty()) return 0;
+
+        ioLock.lock();
+        try {
+            int corregidos = 0;
+            Set<PIA> tocados = new HashSet<>();
+            for (Deriva d : derivas) {
+                if (d.ajusteManual) continue;
+                PIA pia = obtenerPorIdInterno(d.idPia);
+                if (pia == null || !pia.isActivo()) continue;
+                ObjetivoPIA obj = pia.getObjetivoPorId(d.idObjetivo);
+                if (obj == null || obj.isProgresoAjustadoManual()
+                        || obj.getProgresoRondasCorrectas() != d.rondasGuardadas
+                        || obj.getProgresoSesionesCompletadas() != d.sesionesGuardadas) continue;
+
+                fijarProgreso(obj, d.rondasEsperadas, d.sesionesEsperadas);
+                tocados.add(pia);
+                corregidos++;
+            }
+            for (PIA pia : tocados) pia.asegurarObjetivoActivoValido();
+            if (corregidos > 0) guardarEnArchivo();
+            return corregidos;
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
     /**
      * Recalcula el progreso de un PIA (y sus objetivos) a partir de una lista de sesiones,
      * usando como fuente de verdad las sesiones con idPia/idObjetivoPia.
@@ -277,51 +495,13 @@ public class PiaService {
             PIA pia = obtenerPorIdInterno(idPia);
             if (pia == null) return false;
 
-            // Agregados por objetivo
-            Map<String, Integer> rondasPorObj = new HashMap<>();
-            Map<String, Integer> sesionesPorObj = new HashMap<>();
-
-            if (sesiones != null) {
-                for (SesionJuego s : sesiones) {
-                    if (s == null) continue;
-                    if (s.getIdPia() == null || s.getIdObjetivoPia() == null) continue;
-                    if (!idPia.equals(s.getIdPia())) continue;
-
-                    String idObj = s.getIdObjetivoPia();
-                    rondasPorObj.put(
-                            idObj,
-                            rondasPorObj.getOrDefault(idObj, 0) + Math.max(0, s.getAciertosTotales())
-                    );
-                    sesionesPorObj.put(
-                            idObj,
-                            sesionesPorObj.getOrDefault(idObj, 0) + 1
-                    );
-                }
-            }
-
-            // Aplicar a cada objetivo del PIA
+            // Recálculo explícito (botón del docente): también descarta ajustes manuales
+            Map<String, int[]> esperado = agregarPorObjetivo(List.of(pia), sesiones);
             for (ObjetivoPIA obj : pia.getObjetivos()) {
                 if (obj == null) continue;
-
-                int progR = rondasPorObj.getOrDefault(obj.getIdObjetivo(), 0);
-                int progS = sesionesPorObj.getOrDefault(obj.getIdObjetivo(), 0);
-
-                obj.setProgresoRondasCorrectas(progR);
-                obj.setProgresoSesionesCompletadas(progS);
-
-                // Re-evaluar completado desde cero (si bajó por eliminación, puede descompletarse)
-                boolean okRondas = (obj.getMetaRondasCorrectas() <= 0) || (progR >= obj.getMetaRondasCorrectas());
-                boolean okSesiones = (obj.getMetaSesionesCompletadas() <= 0) || (progS >= obj.getMetaSesionesCompletadas());
-
-                if (okRondas && okSesiones) {
-                    if (!obj.isCompletado()) {
-                        obj.setCompletado(true);
-                        if (obj.getFechaCompletado() == null) obj.setFechaCompletado(LocalDateTime.now());
-                    }
-                } else {
-                    obj.setCompletado(false);
-                    obj.setFechaCompletado(null);
-                }
+                int[] e = esperado.getOrDefault(clave(pia, obj), new int[2]);
+                fijarProgreso(obj, e[0], e[1]);
+                obj.setProgresoAjustadoManual(false);
             }
 
             // Asegurar objetivo activo coherente
@@ -343,60 +523,85 @@ public class PiaService {
 public static void recalcularProgresoLista(List<PIA> pias, List<SesionJuego> sesiones) {
     if (pias == null) return;
 
-    // Agregados por (idPia|idObj)
-    Map<String, Integer> rondasPorKey = new HashMap<>();
-    Map<String, Integer> sesionesPorKey = new HashMap<>();
-
-    if (sesiones != null) {
-        for (SesionJuego s : sesiones) {
-            if (s == null) continue;
-            String idPia = s.getIdPia();
-            String idObj = s.getIdObjetivoPia();
-            if (idPia == null || idObj == null) continue;
-
-            int rondas = s.getAciertosTotales();
-            if (rondas <= 0) rondas = Math.max(0, s.getRondasCompletadas());
-
-            String key = idPia + "|" + idObj;
-            rondasPorKey.merge(key, rondas, Integer::sum);
-            sesionesPorKey.merge(key, 1, Integer::sum);
-        }
-    }
+    Map<String, int[]> esperado = agregarPorObjetivo(pias, sesiones);
 
     for (PIA pia : pias) {
         if (pia == null) continue;
 
-        String idPia = pia.getIdPia();
         for (ObjetivoPIA obj : pia.getObjetivos()) {
             if (obj == null) continue;
 
-            String key = idPia + "|" + obj.getIdObjetivo();
+            int[] e = esperado.getOrDefault(clave(pia, obj), new int[2]);
+            fijarProgreso(obj, e[0], e[1]);
+        }
 
-            int progR = rondasPorKey.getOrDefault(key, 0);
-            int progS = sesionesPorKey.getOrDefault(key, 0);
+        pia.asegurarObjetivoActivoValido();
+    }
+}
 
-            obj.setProgresoRondasCorrectas(progR);
-            obj.setProgresoSesionesCompletadas(progS);
+// ----------------- helpers internos -----------------
 
-            boolean okRondas = (obj.getMetaRondasCorrectas() <= 0) || (progR >= obj.getMetaRondasCorrectas());
-            boolean okSesiones = (obj.getMetaSesionesCompletadas() <= 0) || (progS >= obj.getMetaSesionesCompletadas());
+    /**
+     * Lo que una sesión suma a "rondas correctas" del objetivo. Único criterio para todos los caminos
+     * (sesión nueva, eliminar/deshacer, recálculos, verificador y datos demo).
+     */
+    private static int aporteRondas(SesionJuego s) {
+        return Math.max(0, s.getAciertosTotales());
+    }
 
-            if (okRondas && okSesiones) {
-                if (!obj.isCompletado()) {
-                    obj.setCompletado(true);
-                    if (obj.getFechaCompletado() == null) obj.setFechaCompletado(LocalDateTime.now());
-                }
-            } else {
-                obj.setCompletado(false);
-                obj.setFechaCompletado(null);
+    private static String clave(PIA pia, ObjetivoPIA obj) {
+        return pia.getIdPia() + "|" + obj.getIdObjetivo();
+    }
+
+    /**
+     * (idPia|idObjetivo) -> {rondas, sesiones} de los objetivos de {@code pias}, según las sesiones
+     * vinculadas que cuentan para cada uno (las anteriores a un reinicio de progreso no suman).
+     */
+    private static Map<String, int[]> agregarPorObjetivo(List<PIA> pias, List<SesionJuego> sesiones) {
+        Map<String, ObjetivoPIA> objetivos = new HashMap<>();
+        for (PIA pia : pias) {
+            if (pia == null) continue;
+            for (ObjetivoPIA obj : pia.getObjetivos()) {
+                if (obj != null) objetivos.put(clave(pia, obj), obj);
             }
         }
 
-        pia.asegurarObjetivoActivoValido();
+        Map<String, int[]> out = new HashMap<>();
+        if (sesiones == null) return out;
+        for (SesionJuego s : sesiones) {
+            if (s == null || s.getIdPia() == null || s.getIdObjetivoPia() == null) continue;
+            String key = s.getIdPia() + "|" + s.getIdObjetivoPia();
+            ObjetivoPIA obj = objetivos.get(key);
+            if (obj == null || !obj.cuentaSesionDel(s.getFechaHora())) continue;
+
+            int[] acc = out.computeIfAbsent(key, k -> new int[2]);
+            acc[0] += aporteRondas(s);
+            acc[1]++;
+        }
+        return out;
     }
-}
 
-// ----------------- helpers internos -----------------
+    /**
+     * Fija los contadores de un objetivo y re-evalúa "completado" en ambos sentidos
+     * (si bajó de la meta por una eliminación, vuelve a quedar pendiente).
+     */
+    private static void fijarProgreso(ObjetivoPIA obj, int progR, int progS) {
+        obj.setProgresoRondasCorrectas(progR);
+        obj.setProgresoSesionesCompletadas(progS);
+
+        boolean okRondas = (obj.getMetaRondasCorrectas() <= 0) || (obj.getProgresoRondasCorrectas() >= obj.getMetaRondasCorrectas());
+        boolean okSesiones = (obj.getMetaSesionesCompletadas() <= 0) || (obj.getProgresoSesionesCompletadas() >= obj.getMetaSesionesCompletadas());
+
+        if (okRondas && okSesiones) {
+            if (!obj.isCompletado()) {
+                obj.setCompletado(true);
+                if (obj.getFechaCompletado() == null) obj.setFechaCompletado(LocalDateTime.now());
+            }
+        } else {
+            obj.setCompletado(false);
+            obj.setFechaCompletado(null);
+        }
+    }
 
 
     private int indexOf(String idPia) {
@@ -416,7 +621,21 @@ public static void recalcularProgresoLista(List<PIA> pias, List<SesionJuego> ses
 
     // ---------------- PERSISTENCIA ----------------
 
+    /** Publica una nueva foto inmutable y su índice (llamar con el lock tomado, después de cada cambio). */
+    private void publicar() {
+        ListSnapshot<PIA> nueva = snapshot.next(pias);
+        indice = IndicePias.construir(nueva.getItems());
+        snapshot = nueva;
+    }
+
+    /** Publica los cambios y programa la escritura de data/pias.json (llamar con el lock tomado). */
     private void guardarEnArchivo() {
+        publicar();
+        PersistenceScheduler.markDirty(Paths.get(ARCHIVO_PIAS), this::escribirEnArchivo);
+    }
+
+    private void escribirEnArchivo() {
+        ioLock.lock();
         try {
             Path path = Paths.get(ARCHIVO_PIAS);
             Path dir = path.getParent();
@@ -425,11 +644,12 @@ public static void recalcularProgresoLista(List<PIA> pias, List<SesionJuego> ses
             // Backup antes de sobrescribir
             DataBackups.backupIfExists(path);
 
-            String json = gson.toJson(pias);
-            AtomicFiles.writeStringAtomic(path, json, StandardCharsets.UTF_8);
+            JsonSafeIO.writeListAtomic(path, gson, pias, PIA.class);
 
         } catch (IOException e) {
             AppLog.error("Error guardando PIAs: " + e.getMessage(), e);
+        } finally {
+            ioLock.unlock();
         }
     }
 
@@ -438,15 +658,10 @@ public static void recalcularProgresoLista(List<PIA> pias, List<SesionJuego> ses
             Path path = Paths.get(ARCHIVO_PIAS);
             if (!Files.exists(path)) return;
 
-            PIA[] lista = JsonSafeIO.readOrRecover(
-                    path,
-                    gson,
-                    PIA[].class,
-                    new PIA[0]
-            );
+            List<PIA> lista = JsonSafeIO.readListOrRecover(path, gson, PIA.class);
 
             pias.clear();
-            if (lista != null) pias.addAll(Arrays.asList(lista));
+            pias.addAll(lista);
 
             // Validaciones suaves por compatibilidad
             boolean changed = false;
@@ -479,6 +694,8 @@ public static void recalcularProgresoLista(List<PIA> pias, List<SesionJuego> ses
 
             if (changed) {
                 guardarEnArchivo();
+            } else {
+                publicar();
             }
 
         } catch (Exception e) {
@@ -0,0 +1,162 @@
+package com.jasgames.service;
+
+import com.jasgames.model.EstimadorCuantiles;
+import com.jasgames.model.SesionJuego;
+import com.jasgames.util.AppLog;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recalcula el puntaje de todo el historial con la fórmula vigente ({@link ScoreService#VERSION}),
+ * para que el Dashboard no mezcle puntajes de versiones distintas.
+ *
+ * - Por (niño, juego), en orden cronológico: cada sesión se puntúa con la referencia que había
+ *   en ese momento (las 3 anteriores y el estimador de duración armado con las previas),
+ *   igual que al jugarla.
+ * - Los niños se reparten en un ForkJoinPool (cada niño es independiente).
+ * - El resultado se escribe de una vez con {@link SesionService#aplicarPuntajes}; cada sesión
+ *   modificada conserva su puntaje y versión anteriores para comparar.
+ */
+public final class RecalculoPuntajes {
+
+    /** Avance: niños terminados sobre el total. Se llama desde hilos del pool. */
+    @FunctionalInterface
+    public interface Progreso {
+        void avance(int hechos, int total);
+    }
+
+    /** Resumen de una corrida. */
+    public static final class Resultado {
+        public int sesiones;
+        public int ninos;
+        public int cambiadas;
+        public long nanos;
+
+        @Override
+        public String toString() {
+            return sesiones + " sesiones de " + ninos + " niño(s) recalculadas en " + (nanos / 1_000_000)
+                    + " ms; " + cambiadas + " actualizada(s) a la versión " + ScoreService.VERSION + ".";
+        }
+    }
+
+    // Grupos por tarea hoja: varios niños chicos juntos para no crear miles de tareas
+    private static final int SESIONES_POR_HOJA = 2_000;
+
+    private RecalculoPuntajes() {}
+
+    /** Recalcula y aplica sobre el historial de {@code sesionService}. */
+    public static Resultado ejecutar(SesionService sesionService, Progreso progreso) {
+        long t0 = System.nanoTime();
+        List<List<SesionJuego>> grupos = agrupar(sesionService.obtenerTodos());
+
+        Map<SesionJuego, Integer> nuevos = calcularGrupos(grupos, ForkJoinPool.commonPool(), progreso);
+
+        Resultado r = new Resultado();
+        r.sesiones = nuevos.size();
+        r.ninos = grupos.size();
+        r.cambiadas = sesionService.aplicarPuntajes(nuevos, ScoreService.VERSION);
+        r.nanos = System.nanoTime() - t0;
+        AppLog.info("Recálculo de puntajes: " + r);
+        return r;
+    }
+
+    /**
+     * Calcula (sin modificar nada) el puntaje de cada sesión con la fórmula vigente.
+     *
+     * @return sesión -> puntaje nuevo
+     */
+    public static Map<SesionJuego, Integer> calcular(List<SesionJuego> todas, ForkJoinPool pool, Progreso progreso) {
+        return calcularGrupos(agrupar(todas), pool, progreso);
+    }
+
+    private static Map<SesionJuego, Integer> calcularGrupos(List<List<SesionJuego>> grupos, ForkJoinPool pool, Progreso progreso) {
+        int total = 0;
+        for (List<SesionJuego> g : grupos) total += g.size();
+        Map<SesionJuego, Integer> out = new ConcurrentHashMap<>(Math.max(16, total * 2));
+        AtomicInteger hechos = new AtomicInteger();
+
+        pool.invoke(new Tarea(grupos, 0, grupos.size(), out, hechos, progreso));
+        return out;
+    }
+
+    /** Sesiones por niño (las sin id de estudiante van juntas: se puntúan sin historial, como al jugarlas). */
+    private static List<List<SesionJuego>> agrupar(List<SesionJuego> todas) {
+        Map<Integer, List<SesionJuego>> porNino = new HashMap<>();
+        for (SesionJuego s : todas) {
+            if (s != null) porNino.computeIfAbsent(s.getIdEstudiante(), k -> new ArrayList<>()).add(s);
+        }
+        return new ArrayList<>(porNino.values());
+    }
+
+    /** Divide la lista de niños hasta que cada hoja tenga pocas sesiones. */
+    private static final class Tarea extends RecursiveAction {
+        private final List<List<SesionJuego>> grupos;
+        private final int desde;
+        private final int hasta;
+        private final Map<SesionJuego, Integer> out;
+        private final AtomicInteger hechos;
+        private final Progreso progreso;
+
+        Tarea(List<List<SesionJuego>> grupos, int desde, int hasta, Map<SesionJuego, Integer> out,
+              AtomicInteger hechos, Progreso progreso) {
+            this.grupos = grupos;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.out = out;
+            this.hechos = hechos;
+            this.progreso = progreso;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > 1 && sesiones() > SESIONES_POR_HOJA) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new Tarea(grupos, desde, medio, out, hechos, progreso),
+                        new Tarea(grupos, medio, hasta, out, hechos, progreso));
+                return;
+            }
+            for (int i = desde; i < hasta; i++) {
+                recalcularNino(grupos.get(i), out);
+                int h = hechos.incrementAndGet();
+                if (progreso != null) progreso.avance(h, grupos.size());
+            }
+        }
+
+        private int sesiones() {
+            int n = 0;
+            for (int i = desde; i < hasta; i++) n += grupos.get(i).size();
+            return n;
+        }
+    }
+
+    /** Un niño: por juego, cronológico, reconstruyendo la referencia sesión a sesión. */
+    private static void recalcularNino(List<SesionJuego> sesiones, Map<SesionJuego, Integer> out) {
+        Map<Integer, List<SesionJuego>> porJuego = new HashMap<>();
+        for (SesionJuego s : sesiones) {
+            Integer idJuego = (s.getJuego() == null) ? null : s.getJuego().getId();
+            porJuego.computeIfAbsent(idJuego, k -> new ArrayList<>()).add(s);
+        }
+
+        for (List<SesionJuego> lista : porJuego.values()) {
+            lista.sort(IndiceSesiones.POR_FECHA);
+            boolean conHistorial = lista.get(0).getIdEstudiante() != null;
+
+            EstimadorCuantiles duraciones = conHistorial ? new EstimadorCuantiles() : null;
+            Deque<SesionJuego> ultimas = new ArrayDeque<>(4); // más reciente primero
+
+            for (SesionJuego s : lista) {
+                List<SesionJuego> previas = conHistorial ? new ArrayList<>(ultimas) : Collections.emptyList();
+                out.put(s, ScoreService.calcularScore(s, previas, duraciones));
+
+                if (!conHistorial) continue;
+                if (s.getDuracionMs() > 0) duraciones.agregar(s.getDuracionMs());
+                ultimas.addFirst(s);
+                while (ultimas.size() > 3) ultimas.removeLast();
+            }
+        }
+    }
+}
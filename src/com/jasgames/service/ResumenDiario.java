@@ -0,0 +1,355 @@
+package com.jasgames.service;
+
+import com.jasgames.model.SesionJuego;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Resumen diario pre-agregado del historial, para KPIs sin recorrer sesión por sesión.
+ *
+ * - Una fila por (día, niño, juego, aula, dificultad, PIA/objetivo) con conteo, sumas
+ *   (puntaje, aciertos, intentos, errores, duración), mín/máx de puntaje y última fecha.
+ * - Se mantiene al agregar/quitar sesiones; una consulta fusiona unas pocas filas ({@link Totales}).
+ * - El día es el de inicio (fechaHora), igual que el filtro de rango del Dashboard.
+ *
+ * No es thread-safe: el dueño (SesionService) lo protege con su lock.
+ */
+public final class ResumenDiario {
+
+    /** Filtro de una consulta; null en un campo = no filtra por ese campo. Días en formato ISO (yyyy-MM-dd). */
+    public static final class Filtro {
+        public String desdeDia;
+        public String hastaDia;
+        public Integer idNino;
+        public Integer idJuego;
+        public String aula;
+        public Integer dificultad;
+        public boolean soloPia;
+        public String idPia;
+        public String idObjetivo;
+    }
+
+    /** Agregado de varias filas. */
+    public static final class Totales {
+        public int sesiones;
+        public long sumaPuntaje;
+        public long aciertos;
+        public long intentos;
+        public long errores;
+        public long duracionMs;
+        public int sesionesConDuracion;
+        public int puntajeMin = Integer.MAX_VALUE;
+        public int puntajeMax = Integer.MIN_VALUE;
+        public LocalDateTime ultima;
+
+        /** Niño con el mejor puntaje (null si no hay sesiones). */
+        public Integer idMejor;
+        public String nombreMejor;
+
+        /** Sesiones por aula ("Sin aula" si no tiene). */
+        public final Map<String, Integer> porAula = new HashMap<>();
+
+        void sumar(Fila f) {
+            sesiones += f.n;
+            sumaPuntaje += f.sumaPuntaje;
+            aciertos += f.aciertos;
+            intentos += f.intentos;
+            errores += f.errores;
+            duracionMs += f.duracionMs;
+            sesionesConDuracion += f.nDuracion;
+            puntajeMin = Math.min(puntajeMin, f.puntajeMin);
+            if (f.puntajeMax > puntajeMax) {
+                puntajeMax = f.puntajeMax;
+                idMejor = f.idNino;
+                nombreMejor = f.nombre;
+            }
+            if (f.ultima != null && (ultima == null || f.ultima.isAfter(ultima))) ultima = f.ultima;
+            porAula.merge((f.aula == null) ? "Sin aula" : f.aula, f.n, Integer::sum);
+        }
+    }
+
+    /** Fila del resumen (también es el formato persistido). */
+    static final class Fila {
+        String dia;
+        Integer idNino;
+        Integer idJuego;
+        String aula;
+        int dificultad;
+        String idPia;
+        String idObjetivo;
+
+        String nombre;
+        int n;
+        long sumaPuntaje;
+        long aciertos;
+        long intentos;
+        long errores;
+        long duracionMs;
+        int nDuracion;
+        int puntajeMin = Integer.MAX_VALUE;
+        int puntajeMax = Integer.MIN_VALUE;
+        LocalDateTime ultima;
+
+        boolean mismaClave(SesionJuego s) {
+            return Objects.equals(dia, dia(s)) && Objects.equals(idNino, s.getIdEstudiante())
+                    && Objects.equals(idJuego, idJuego(s)) && Objects.equals(aula, aula(s))
+                    && dificultad == s.getDificultad()
+                    && Objects.equals(idPia, texto(s.getIdPia())) && Objects.equals(idObjetivo, texto(s.getIdObjetivoPia()));
+        }
+
+        void sumar(SesionJuego s) {
+            if (s.getNombreEstudiante() != null) nombre = s.getNombreEstudiante();
+            n++;
+            sumaPuntaje += s.getPuntaje();
+            aciertos += s.getAciertosTotales();
+            intentos += s.getIntentosTotales();
+            errores += s.getErroresTotales();
+            if (s.getDuracionMs() > 0) {
+                duracionMs += s.getDuracionMs();
+                nDuracion++;
+            }
+            puntajeMin = Math.min(puntajeMin, s.getPuntaje());
+            puntajeMax = Math.max(puntajeMax, s.getPuntaje());
+            LocalDateTime fh = IndiceSesiones.fechaRef(s);
+            if (fh != null && (ultima == null || fh.isAfter(ultima))) ultima = fh;
+        }
+
+        /** @return true si min/máx/última dependían de esta sesión y hay que recalcularlos */
+        boolean restar(SesionJuego s) {
+            n--;
+            sumaPuntaje -= s.getPuntaje();
+            aciertos -= s.getAciertosTotales();
+            intentos -= s.getIntentosTotales();
+            errores -= s.getErroresTotales();
+            if (s.getDuracionMs() > 0) {
+                duracionMs -= s.getDuracionMs();
+                nDuracion--;
+            }
+            return s.getPuntaje() == puntajeMin || s.getPuntaje() == puntajeMax
+                    || Objects.equals(IndiceSesiones.fechaRef(s), ultima);
+        }
+
+        void recalcularExtremos(Collection<SesionJuego> candidatas) {
+            puntajeMin = Integer.MAX_VALUE;
+            puntajeMax = Integer.MIN_VALUE;
+            ultima = null;
+            for (SesionJuego s : candidatas) {
+                if (s == null || !mismaClave(s)) continue;
+                puntajeMin = Math.min(puntajeMin, s.getPuntaje());
+                puntajeMax = Math.max(puntajeMax, s.getPuntaje());
+                LocalDateTime fh = IndiceSesiones.fechaRef(s);
+                if (fh != null && (ultima == null || fh.isAfter(ultima))) ultima = fh;
+            }
+        }
+
+        boolean cumple(Filtro f) {
+            if (f.desdeDia != null && (dia == null || dia.compareTo(f.desdeDia) < 0)) return false;
+            if (f.hastaDia != null && (dia == null || dia.compareTo(f.hastaDia) > 0)) return false;
+            if (f.idNino != null && !f.idNino.equals(idNino)) return false;
+            if (f.idJuego != null && !f.idJuego.equals(idJuego)) return false;
+            if (f.aula != null && (aula == null || !aula.trim().equalsIgnoreCase(f.aula.trim()))) return false;
+            if (f.dificultad != null && f.dificultad != dificultad) return false;
+            if (f.soloPia && idPia == null) return false;
+            if (f.idPia != null && !f.idPia.equals(idPia)) return false;
+            return f.idObjetivo == null || f.idObjetivo.equals(idObjetivo);
+        }
+    }
+
+    /** Contenido de data/resumen_diario.json: filas + huella del historial del que salieron. */
+    static final class Archivo {
+        int version = 2;
+        int sesiones;
+        long huella;
+        List<Fila> filas = new ArrayList<>();
+    }
+
+    // Filas por clave compuesta; por objetivo PIA aparte (las estadísticas del PIA consultan solo esas)
+    private final Map<String, Fila> filas = new HashMap<>();
+    private final Map<String, Set<Fila>> porObjetivo = new HashMap<>();
+
+    // Huella del conjunto de sesiones incluidas y de los campos que se agregan (independiente del orden),
+    // para validar lo persistido: un historial restaurado o re-puntuado con los mismos ids no coincide
+    private int sesiones;
+    private long huella;
+
+    void reconstruir(Collection<SesionJuego> todas) {
+        filas.clear();
+        porObjetivo.clear();
+        sesiones = 0;
+        huella = 0;
+        if (todas == null) return;
+        for (SesionJuego s : todas) agregar(s);
+    }
+
+    void agregar(SesionJuego s) {
+        if (s == null) return;
+        String k = clave(s);
+        Fila f = filas.get(k);
+        if (f == null) {
+            f = nuevaFila(s);
+            filas.put(k, f);
+            indexar(f);
+        }
+        f.sumar(s);
+        sesiones++;
+        huella += hashSesion(s);
+    }
+
+    /**
+     * @param candidatas sesiones entre las que están las de la misma fila (p. ej. las del niño);
+     *                   solo se piden si la quitada era el mín/máx/última de su fila
+     */
+    void quitar(SesionJuego s, Supplier<? extends Collection<SesionJuego>> candidatas) {
+        if (s == null) return;
+        String k = clave(s);
+        Fila f = filas.get(k);
+        if (f == null) return;
+
+        sesiones--;
+        huella -= hashSesion(s);
+
+        boolean extremos = f.restar(s);
+        if (f.n <= 0) {
+            filas.remove(k);
+            Set<Fila> set = (f.idObjetivo != null) ? porObjetivo.get(claveObjetivo(f.idPia, f.idObjetivo)) : null;
+            if (set != null) {
+                set.remove(f);
+                if (set.isEmpty()) porObjetivo.remove(claveObjetivo(f.idPia, f.idObjetivo));
+            }
+        } else if (extremos) {
+            f.recalcularExtremos(candidatas.get());
+        }
+    }
+
+    Totales consultar(Filtro filtro) {
+        Totales t = new Totales();
+        Collection<Fila> base = filas.values();
+        if (filtro.idPia != null && filtro.idObjetivo != null) {
+            base = porObjetivo.getOrDefault(claveObjetivo(filtro.idPia, filtro.idObjetivo), Collections.emptySet());
+        }
+        for (Fila f : base) {
+            if (f.cumple(filtro)) t.sumar(f);
+        }
+        return t;
+    }
+
+    int cantidadFilas() {
+        return filas.size();
+    }
+
+    // ---------------- Persistencia ----------------
+
+    /** Huella del historial dado, comparable con la del resumen (para validar un archivo cargado). */
+    static long huellaDe(Collection<SesionJuego> todas) {
+        long h = 0;
+        for (SesionJuego s : todas) {
+            if (s != null) h += hashSesion(s);
+        }
+        return h;
+    }
+
+    Archivo exportar() {
+        Archivo a = new Archivo();
+        a.sesiones = sesiones;
+        a.huella = huella;
+        a.filas.addAll(filas.values());
+        return a;
+    }
+
+    /** Adopta lo persistido si corresponde exactamente a {@code todas}; si no, devuelve false (hay que reconstruir). */
+    boolean importar(Archivo a, Collection<SesionJuego> todas) {
+        if (a == null || a.filas == null || a.version != 2) return false;
+        int cant = 0;
+        for (SesionJuego s : todas) if (s != null) cant++;
+        if (a.sesiones != cant || a.huella != huellaDe(todas)) return false;
+
+        filas.clear();
+        porObjetivo.clear();
+        for (Fila f : a.filas) {
+            if (f == null || f.n <= 0) continue;
+            filas.put(clave(f.dia, f.idNino, f.idJuego, f.aula, f.dificultad, f.idPia, f.idObjetivo), f);
+            indexar(f);
+        }
+        sesiones = a.sesiones;
+        huella = a.huella;
+        return true;
+    }
+
+    // ---------------- helpers ----------------
+
+    private void indexar(Fila f) {
+        if (f.idPia != null && f.idObjetivo != null) {
+            porObjetivo.computeIfAbsent(claveObjetivo(f.idPia, f.idObjetivo), x -> new HashSet<>()).add(f);
+        }
+    }
+
+    private static Fila nuevaFila(SesionJuego s) {
+        Fila f = new Fila();
+        f.dia = dia(s);
+        f.idNino = s.getIdEstudiante();
+        f.idJuego = idJuego(s);
+        f.aula = aula(s);
+        f.dificultad = s.getDificultad();
+        f.idPia = texto(s.getIdPia());
+        f.idObjetivo = texto(s.getIdObjetivoPia());
+        return f;
+    }
+
+    private static String clave(SesionJuego s) {
+        return clave(dia(s), s.getIdEstudiante(), idJuego(s), aula(s), s.getDificultad(),
+                texto(s.getIdPia()), texto(s.getIdObjetivoPia()));
+    }
+
+    private static String clave(String dia, Integer nino, Integer juego, String aula, int dif, String idPia, String idObj) {
+        return dia + '\u0000' + nino + '\u0000' + juego + '\u0000' + aula + '\u0000' + dif + '\u0000' + idPia + '\u0000' + idObj;
+    }
+
+    private static String claveObjetivo(String idPia, String idObj) {
+        return idPia + '\u0000' + idObj;
+    }
+
+    private static String dia(SesionJuego s) {
+        return (s.getFechaHora() == null) ? null : s.getFechaHora().toLocalDate().toString();
+    }
+
+    private static Integer idJuego(SesionJuego s) {
+        return (s.getJuego() == null) ? null : s.getJuego().getId();
+    }
+
+    private static String aula(SesionJuego s) {
+        return texto(s.getAula());
+    }
+
+    private static String texto(String v) {
+        return (v == null || v.isBlank()) ? null : v;
+    }
+
+    /** Hash de una sesión: id y todo lo que aporta a su fila (clave y sumas). */
+    private static long hashSesion(SesionJuego s) {
+        long z = mezclar(0, Objects.hashCode(s.getIdSesion()));
+        z = mezclar(z, s.getPuntaje());
+        z = mezclar(z, s.getAciertosTotales());
+        z = mezclar(z, s.getIntentosTotales());
+        z = mezclar(z, s.getErroresTotales());
+        z = mezclar(z, s.getDuracionMs());
+        z = mezclar(z, Objects.hashCode(s.getFechaHora()));
+        z = mezclar(z, Objects.hashCode(s.getFechaFin()));
+        z = mezclar(z, Objects.hashCode(s.getIdEstudiante()));
+        z = mezclar(z, Objects.hashCode(s.getNombreEstudiante()));
+        z = mezclar(z, Objects.hashCode(idJuego(s)));
+        z = mezclar(z, Objects.hashCode(aula(s)));
+        z = mezclar(z, s.getDificultad());
+        z = mezclar(z, Objects.hashCode(texto(s.getIdPia())));
+        return mezclar(z, Objects.hashCode(texto(s.getIdObjetivoPia())));
+    }
+
+    // Mezcla (splitmix) para que la suma de hashes no se cancele con facilidad
+    private static long mezclar(long acc, long v) {
+        long z = (acc ^ v) * 0x9E3779B97F4A7C15L + 0x632BE59BD9B4E019L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,5 +1,6 @@
 package com.jasgames.service;
 
+import com.jasgames.model.EstimadorCuantiles;
 import com.jasgames.model.SesionJuego;
 
 import java.util.ArrayList;
@@ -11,12 +12,33 @@ import java.util.List;
  *
  * Nota TEA: el tiempo pesa poco (no se busca “castigar” ir lento),
  * pero sí se registra para seguimiento.
+ *
+ * Referencia de tiempo: la mediana y el p75 de largo plazo del niño en ese juego
+ * ({@link EstimadorCuantiles}, guardado en el perfil); mientras tenga pocas sesiones,
+ * la mediana de las últimas del historial.
  */
 public final class ScoreService {
 
+    /**
+     * Versión de la fórmula: subirla al cambiar pesos, completitud o referencia de tiempo
+     * (las sesiones guardan con qué versión se calcularon; ver {@link RecalculoPuntajes}).
+     * 1 = mediana de las últimas sesiones; 2 = estimador de duración de largo plazo.
+     */
+    public static final int VERSION = 2;
+
+    /** Sesiones con duración a partir de las cuales se usa el estimador de largo plazo. */
+    static final int MIN_MUESTRAS_ESTIMADOR = 5;
+
     private ScoreService() {}
 
     public static int calcularScore(SesionJuego sesion, List<SesionJuego> historialMismoJuego) {
+        return calcularScore(sesion, historialMismoJuego, null);
+    }
+
+    /**
+     * @param duraciones estimador de duración del niño en este juego (antes de sumar esta sesión); puede ser null
+     */
+    public static int calcularScore(SesionJuego sesion, List<SesionJuego> historialMismoJuego, EstimadorCuantiles duraciones) {
         if (sesion == null) return 0;
 
         int rondasTotal = safePos(sesion.getRondasTotales());
@@ -31,7 +53,7 @@ public final class ScoreService {
         double precision = (intentosTot > 0) ? clamp01((double) aciertosTot / intentosTot) : 0.0;
         double consistencia = (rondasComp > 0) ? clamp01((double) aciertos1 / rondasComp) : 0.0;
 
-        double tiempoScore = scoreTiempo(sesion.getDuracionMs(), rondasTotal, historialMismoJuego);
+        double tiempoScore = scoreTiempo(sesion.getDuracionMs(), rondasTotal, historialMismoJuego, duraciones);
 
         // Completitud: si el juego permite “pasar ronda” sin acierto, esto evita inflar score
         double completitud = (rondasTotal > 0) ? clamp01((double) rondasComp / rondasTotal) : 1.0;
@@ -44,9 +66,16 @@ public final class ScoreService {
         return clampInt(score, 0, 100);
     }
 
-    private static double scoreTiempo(long duracionMs, int rondasTotal, List<SesionJuego> historial) {
+    private static double scoreTiempo(long duracionMs, int rondasTotal, List<SesionJuego> historial,
+                                      EstimadorCuantiles duraciones) {
         if (duracionMs <= 0) return 0.6; // neutral
 
+        if (duraciones != null && duraciones.getCantidad() >= MIN_MUESTRAS_ESTIMADOR) {
+            // Hasta el p75 propio es variación normal del niño: no baja; más lento, baja suave con piso
+            double p75 = Math.max(duraciones.p75(), duraciones.mediana());
+            if (p75 > 0) return clamp(p75 / (double) duracionMs, 0.35, 1.0);
+        }
+
         long baseline = baselineDuracion(historial);
         if (baseline <= 0) {
             // Heurística suave: ~15s por ronda, mínimo 25s
@@ -4,10 +4,13 @@ import com.jasgames.util.AppLog;
 import com.google.gson.*;
 import com.jasgames.model.Juego;
 import com.jasgames.model.SesionJuego;
+import com.jasgames.util.AppendOnlyJournal;
 import com.jasgames.util.AtomicFiles;
 import com.jasgames.util.DataBackups;
 import com.jasgames.util.FileLocks;
 import com.jasgames.util.JsonSafeIO;
+import com.jasgames.util.ListSnapshot;
+import com.jasgames.util.PersistenceScheduler;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
@@ -16,13 +19,33 @@ import java.nio.file.*;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
 public class SesionService {
 
+    /** Formato anterior (JSON). Se migra solo a {@link #ARCHIVO_BINARIO} al cargar. */
     private static final String ARCHIVO_RESULTADOS = "data/resultados.json";
+    private static final String ARCHIVO_BINARIO = "data/resultados.bin";
+    private static final String ARCHIVO_JOURNAL = "data/resultados.journal";
+    /**
+     * Marca qué archivo es la fuente del historial ("resultados.json" tras restaurar un backup en JSON).
+     * Sin marca: resultados.bin si existe, si no resultados.json.
+     */
+    private static final String ARCHIVO_FUENTE = "data/resultados.fuente";
+    /** Resumen diario (derivado): se valida contra el historial al cargar y si no coincide se reconstruye. */
+    private static final String ARCHIVO_RESUMEN = "data/resumen_diario.json";
+
+    /** Cada cuántos registros del journal se vuelca todo al snapshot (resultados.bin). */
+    private static final int COMPACTAR_CADA = 200;
+
+    private static final String OP_ADD = "ADD";
+    private static final String OP_DEL = "DEL";
 
     private final List<SesionJuego> resultados = new ArrayList<>();
+    private final IndiceSesiones indice = new IndiceSesiones();
+    private final ResumenDiario resumen = new ResumenDiario();
+    private volatile ListSnapshot<SesionJuego> snapshot = ListSnapshot.empty();
     private final ReentrantLock ioLock = FileLocks.of(Paths.get(ARCHIVO_RESULTADOS));
 
     private final Gson gson = new GsonBuilder()
@@ -30,7 +53,35 @@ public class SesionService {
             .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
             .create();
 
+    // Journal: una línea JSON compacta por operación
+    private final Gson gsonJournal = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+            .create();
+
+    private final boolean modoJournal;
+    private final IntFunction<Juego> catalogoJuegos;
+    private final AppendOnlyJournal journal = new AppendOnlyJournal(Paths.get(ARCHIVO_JOURNAL));
+    private int registrosEnJournal = 0;
+    // Umbral del próximo compactado automático (se corre si un compactado falla, para no reintentar en cada cambio)
+    private int compactarEn = COMPACTAR_CADA;
+
     public SesionService() {
+        this(true, null);
+    }
+
+    /** Las sesiones apuntan a los juegos del catálogo (no a copias guardadas en cada sesión). */
+    public SesionService(JuegoService juegoService) {
+        this(true, (juegoService == null) ? null : juegoService::obtenerPorId);
+    }
+
+    /**
+     * @param modoJournal    true: cada cambio se agrega a data/resultados.journal y se compacta periódicamente;
+     *                       false: cada cambio reescribe data/resultados.bin completo (comportamiento clásico).
+     * @param catalogoJuegos juego por id para resolver las sesiones al cargar (null: usar la tabla del archivo)
+     */
+    public SesionService(boolean modoJournal, IntFunction<Juego> catalogoJuegos) {
+        this.modoJournal = modoJournal;
+        this.catalogoJuegos = catalogoJuegos;
         cargarDesdeArchivo();
     }
 
@@ -39,20 +90,23 @@ public class SesionService {
             ioLock.lock();
             try {
                 resultados.add(resultado);
-                guardarEnArchivo();
+                indice.agregar(resultado);
+                resumen.agregar(resultado);
+                persistirOperacion(OP_ADD, resultado, resultado.getIdSesion());
             } finally {
                 ioLock.unlock();
             }
         }
     }
 
+    /** Historial completo (lista inmutable; no bloquea ni copia). */
     public List<SesionJuego> obtenerTodos() {
-        ioLock.lock();
-        try {
-            return new ArrayList<>(resultados);
-        } finally {
-            ioLock.unlock();
-        }
+        return snapshot.getItems();
+    }
+
+    /** Foto versionada del historial, para detectar cambios con {@link ListSnapshot#cambioDesde(long)}. */
+    public ListSnapshot<SesionJuego> snapshot() {
+        return snapshot;
     }
 
     /**
@@ -63,9 +117,7 @@ public class SesionService {
 
         ioLock.lock();
         try {
-            boolean removed = resultados.removeIf(s -> idSesion.equals(s.getIdSesion()));
-            if (removed) guardarEnArchivo();
-            return removed;
+            return eliminarSesionYDevolver(idSesion).isPresent();
         } finally {
             ioLock.unlock();
         }
@@ -79,15 +131,14 @@ public class SesionService {
 
         ioLock.lock();
         try {
-            for (int i = 0; i < resultados.size(); i++) {
-                SesionJuego s = resultados.get(i);
-                if (s != null && idSesion.equals(s.getIdSesion())) {
-                    resultados.remove(i);
-                    guardarEnArchivo();
-                    return Optional.of(s);
-                }
-            }
-            return Optional.empty();
+            SesionJuego s = indice.porId(idSesion);
+            if (s == null || !resultados.remove(s)) return Optional.empty();
+
+            indice.quitar(s);
+            Integer idNino = s.getIdEstudiante();
+            resumen.quitar(s, () -> (idNino == null) ? resultados : indice.porNino(idNino));
+            persistirOperacion(OP_DEL, null, idSesion);
+            return Optional.of(s);
         } finally {
             ioLock.unlock();
         }
@@ -102,11 +153,11 @@ public class SesionService {
         ioLock.lock();
         try {
             String id = sesion.getIdSesion();
-            for (SesionJuego s : resultados) {
-                if (s != null && id.equals(s.getIdSesion())) return false;
-            }
+            if (indice.porId(id) != null) return false;
             resultados.add(sesion);
-            guardarEnArchivo();
+            indice.agregar(sesion);
+            resumen.agregar(sesion);
+            persistirOperacion(OP_ADD, sesion, id);
             return true;
         } finally {
             ioLock.unlock();
@@ -115,11 +166,13 @@ public class SesionService {
 
     public List<SesionJuego> obtenerPorJuego(Juego juego) {
         if (juego == null) return new ArrayList<>();
+        return obtenerPorJuego(juego.getId());
+    }
+
+    public List<SesionJuego> obtenerPorJuego(int idJuego) {
         ioLock.lock();
         try {
-            return resultados.stream()
-                    .filter(r -> r.getJuego() != null && r.getJuego().getId() == juego.getId())
-                    .collect(Collectors.toList());
+            return indice.porJuego(idJuego);
         } finally {
             ioLock.unlock();
         }
@@ -131,57 +184,299 @@ public class SesionService {
                 .collect(Collectors.toList());
     }
 
+    /** Sesiones de un niño (orden de registro). */
+    public List<SesionJuego> obtenerPorNino(int idNino) {
+        ioLock.lock();
+        try {
+            return indice.porNino(idNino);
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /** Sesiones de un aula (sin distinguir mayúsculas/minúsculas). */
+    public List<SesionJuego> obtenerPorAula(String aula) {
+        ioLock.lock();
+        try {
+            return indice.porAula(aula);
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /** Sesiones vinculadas a un PIA. */
+    public List<SesionJuego> obtenerPorPia(String idPia) {
+        ioLock.lock();
+        try {
+            return indice.porPia(idPia);
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /** Sesiones vinculadas a un objetivo concreto de un PIA. */
+    public List<SesionJuego> obtenerPorObjetivoPia(String idPia, String idObjetivo) {
+        ioLock.lock();
+        try {
+            return indice.porObjetivo(idPia, idObjetivo);
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * Totales pre-agregados (conteo, sumas, mín/máx, mejor, sesiones por aula) de las sesiones que cumplen
+     * el filtro. Fusiona filas diarias del resumen: no recorre el historial.
+     */
+    public ResumenDiario.Totales resumir(ResumenDiario.Filtro filtro) {
+        ioLock.lock();
+        try {
+            return resumen.consultar((filtro == null) ? new ResumenDiario.Filtro() : filtro);
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * Aplica en bloque puntajes recalculados: cada sesión que cambia guarda su puntaje y versión
+     * anteriores, y todo se escribe una sola vez (snapshot completo). Las sesiones que ya no
+     * están en el historial se ignoran.
+     *
+     * @return cantidad de sesiones modificadas
+     */
+    public int aplicarPuntajes(Map<SesionJuego, Integer> nuevos, int version) {
+        if (nuevos == null || nuevos.isEmpty()) return 0;
+
+        ioLock.lock();
+        try {
+            Set<SesionJuego> vigentes = Collections.newSetFromMap(new IdentityHashMap<>());
+            vigentes.addAll(resultados);
+
+            int cambiadas = 0;
+            for (Map.Entry<SesionJuego, Integer> e : nuevos.entrySet()) {
+                SesionJuego s = e.getKey();
+                if (s == null || e.getValue() == null || !vigentes.contains(s)) continue;
+                int nuevo = e.getValue();
+                if (s.getPuntaje() == nuevo && s.getVersionPuntaje() == version) continue;
+
+                s.setPuntajeAnterior(s.getPuntaje());
+                s.setVersionPuntajeAnterior(s.getVersionPuntaje());
+                s.setPuntaje(nuevo);
+                s.setVersionPuntaje(version);
+                cambiadas++;
+            }
+            if (cambiadas > 0) {
+                resumen.reconstruir(resultados);
+                compactar();
+            }
+            return cambiadas;
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /** Juegos que tienen al menos una sesión registrada (ordenados por id). */
+    public List<Juego> obtenerJuegosConSesiones() {
+        ioLock.lock();
+        try {
+            return indice.juegosConSesiones();
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /** Aulas que tienen al menos una sesión registrada. */
+    public List<String> obtenerAulasConSesiones() {
+        ioLock.lock();
+        try {
+            return indice.aulasConSesiones();
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
     /**
      * Devuelve las últimas N sesiones de un niño para un juego (más recientes primero).
+     * Usa el índice (niño, juego) ordenado por fecha: O(log n + N).
      */
-    public java.util.List<com.jasgames.model.SesionJuego> obtenerUltimasPorNinoYJuego(int idNino, int idJuego, int limite) {
+    public List<SesionJuego> obtenerUltimasPorNinoYJuego(int idNino, int idJuego, int limite) {
+        if (limite <= 0) limite = 1;
         ioLock.lock();
         try {
-            if (limite <= 0) limite = 1;
+            return indice.ultimasPorNinoYJuego(idNino, idJuego, limite);
+        } finally {
+            ioLock.unlock();
+        }
+    }
 
-            java.util.List<com.jasgames.model.SesionJuego> filtradas = new java.util.ArrayList<>();
-            for (com.jasgames.model.SesionJuego s1 : resultados) {
-                if (s1 == null) continue;
-                if ((s1.getIdEstudiante() != null && s1.getIdEstudiante() == idNino) && s1.getJuego() != null && s1.getJuego().getId() == idJuego) {
-                    filtradas.add(s1);
-                }
+    // ---------------- PERSISTENCIA ----------------
+
+    /**
+     * Exporta el historial completo como JSON (mismo formato que el antiguo resultados.json),
+     * para abrirlo con otras herramientas o importarlo en otra instalación.
+     */
+    public void exportarJson(Path destino) throws IOException {
+        ioLock.lock();
+        try {
+            JsonSafeIO.writeListAtomic(destino, gson, resultados, SesionJuego.class);
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * Vuelca el estado actual al snapshot (resultados.bin) y vacía el journal.
+     * Se llama sola cada {@link #COMPACTAR_CADA} registros; puede invocarse al cerrar la app.
+     *
+     * El journal se vacía solo si el snapshot se escribió: si falla (disco lleno, archivo bloqueado),
+     * el journal sigue siendo la copia durable de los cambios y queda intacto.
+     *
+     * @return true si el snapshot quedó escrito
+     */
+    public boolean compactar() {
+        ioLock.lock();
+        try {
+            publicar();
+            if (!guardarEnArchivo()) {
+                AppLog.warn("Snapshot de sesiones no escrito; se conserva el journal (" + registrosEnJournal + " registro(s)).");
+                compactarEn = registrosEnJournal + COMPACTAR_CADA;
+                return false;
             }
+            try {
+                journal.truncate();
+                registrosEnJournal = 0;
+                compactarEn = COMPACTAR_CADA;
+            } catch (IOException e) {
+                // El snapshot ya incluye todo: el replay de un journal viejo es idempotente.
+                AppLog.error("No se pudo vaciar el journal de sesiones.", e);
+            }
+            return true;
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /** Registra un cambio puntual: en modo journal solo agrega una línea; si no, reescribe el snapshot. */
+    private void persistirOperacion(String op, SesionJuego sesion, String idSesion) {
+        publicar();
+        if (!modoJournal) {
+            guardarEnArchivo();
+            return;
+        }
 
-            filtradas.sort((a, b) -> {
-                java.time.LocalDateTime fa = (a.getFechaFin() != null) ? a.getFechaFin() : a.getFechaHora();
-                java.time.LocalDateTime fb = (b.getFechaFin() != null) ? b.getFechaFin() : b.getFechaHora();
-                if (fa == null && fb == null) return 0;
-                if (fa == null) return 1;
-                if (fb == null) return -1;
-                return fb.compareTo(fa);
-            });
-
-            if (filtradas.size() > limite) {
-                return new java.util.ArrayList<>(filtradas.subList(0, limite));
+        RegistroJournal r = new RegistroJournal();
+        r.op = op;
+        r.idSesion = idSesion;
+        r.sesion = sesion;
+
+        try {
+            journal.append(gsonJournal.toJson(r));
+            registrosEnJournal++;
+        } catch (IOException e) {
+            AppLog.error("Error escribiendo journal de sesiones; se guarda snapshot completo.", e);
+            compactar();
+            return;
+        }
+
+        if (registrosEnJournal >= compactarEn) {
+            compactar();
+        }
+    }
+
+    /** true si {@code nombreArchivo} (nombre dentro de data/) es el historial de sesiones. */
+    public static boolean esArchivoDeHistorial(String nombreArchivo) {
+        return Paths.get(ARCHIVO_BINARIO).getFileName().toString().equals(nombreArchivo)
+                || Paths.get(ARCHIVO_RESULTADOS).getFileName().toString().equals(nombreArchivo);
+    }
+
+    /**
+     * Restaura resultados.bin o resultados.json desde un backup y recarga el historial.
+     *
+     * - El journal se mueve a data/backups y se empieza uno nuevo: sus cambios son posteriores
+     *   al backup y, reproducidos sobre él, podrían borrar justo las sesiones restauradas.
+     *   Si no se puede archivar, no se restaura.
+     * - El archivo restaurado queda marcado como fuente (no se decide por fecha de modificación).
+     * - El resumen diario se borra: se reconstruye con el historial restaurado.
+     * - Si la restauración falla, se vuelve a guardar el estado actual.
+     */
+    public void restaurarDesdeBackup(DataBackups.Snapshot backup) throws IOException {
+        if (backup == null || !esArchivoDeHistorial(backup.getNombreArchivo())) {
+            throw new IllegalArgumentException("El backup no es del historial de sesiones");
+        }
+
+        ioLock.lock();
+        try {
+            // Se mueve (no hard link + truncar: el link vería el archivo vaciado)
+            DataBackups.archivar(journal.getPath());
+            registrosEnJournal = 0;
+            compactarEn = COMPACTAR_CADA;
+            Files.deleteIfExists(Paths.get(ARCHIVO_RESUMEN));
+
+            try {
+                DataBackups.restaurar(backup, Paths.get(ARCHIVO_BINARIO).getParent());
+            } catch (IOException | RuntimeException e) {
+                compactar();
+                throw e;
             }
-            return filtradas;
+            AtomicFiles.writeStringAtomic(Paths.get(ARCHIVO_FUENTE), backup.getNombreArchivo(), StandardCharsets.UTF_8);
+
+            cargarDesdeArchivo();
+            AppLog.info("Historial de sesiones restaurado desde " + backup.getNombreArchivo()
+                    + " (" + resultados.size() + " sesiones).");
         } finally {
             ioLock.unlock();
         }
     }
 
-    // ---------------- PERSISTENCIA ----------------
+    /** Publica una nueva foto inmutable (llamar con el lock tomado, después de cada cambio). */
+    private void publicar() {
+        snapshot = snapshot.next(resultados);
+        PersistenceScheduler.markDirty(Paths.get(ARCHIVO_RESUMEN), this::escribirResumen);
+    }
+
+    private void escribirResumen() {
+        ioLock.lock();
+        try {
+            AtomicFiles.writeStringAtomic(Paths.get(ARCHIVO_RESUMEN), gsonJournal.toJson(resumen.exportar()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            AppLog.error("No se pudo guardar el resumen diario de sesiones.", e);
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /** Usa data/resumen_diario.json si corresponde al historial cargado; si no, lo reconstruye (una pasada). */
+    private void cargarResumen() {
+        Path path = Paths.get(ARCHIVO_RESUMEN);
+        if (Files.exists(path)) {
+            try {
+                String json = Files.readString(path, StandardCharsets.UTF_8);
+                if (resumen.importar(gsonJournal.fromJson(json, ResumenDiario.Archivo.class), resultados)) return;
+                AppLog.info("Resumen diario desactualizado respecto del historial; se reconstruye.");
+            } catch (IOException | JsonParseException e) {
+                AppLog.warn("Resumen diario ilegible; se reconstruye.");
+            }
+        }
+        resumen.reconstruir(resultados);
+    }
 
-    private void guardarEnArchivo() {
+    /** Escribe resultados.bin de forma atómica. Devuelve false (y lo registra) si no se pudo. */
+    private boolean guardarEnArchivo() {
         ioLock.lock();
         try {
-            Path path = Paths.get(ARCHIVO_RESULTADOS);
+            Path path = Paths.get(ARCHIVO_BINARIO);
             Path dir = path.getParent();
             if (dir != null) Files.createDirectories(dir);
 
             // Backup antes de sobrescribir
             DataBackups.backupIfExists(path);
 
-            String json = gson.toJson(resultados);
-            AtomicFiles.writeStringAtomic(path, json, StandardCharsets.UTF_8);
+            AtomicFiles.writeBytesAtomic(path, SesionesBinario.escribir(resultados));
+            return true;
 
         } catch (IOException e) {
             AppLog.error("Error en SesionService (persistencia).", e);
+            return false;
         } finally {
             ioLock.unlock();
         }
@@ -190,17 +485,33 @@ public class SesionService {
     private void cargarDesdeArchivo() {
         ioLock.lock();
         try {
-            Path path = Paths.get(ARCHIVO_RESULTADOS);
-            if (!Files.exists(path)) return;
-
-            SesionJuego[] lista = JsonSafeIO.readOrRecover(
-                    path,
-                    gson,
-                    SesionJuego[].class,
-                    new SesionJuego[0]
-            );
+            Path bin = Paths.get(ARCHIVO_BINARIO);
+            Path json = Paths.get(ARCHIVO_RESULTADOS);
             resultados.clear();
-            if (lista != null) resultados.addAll(Arrays.asList(lista));
+
+            // El JSON se usa si está marcado como fuente (restaurado desde un backup) o si no hay binario
+            boolean desdeJson = Files.exists(json) && (!Files.exists(bin) || fuenteMarcadaEs(json));
+
+            if (desdeJson) {
+                resultados.addAll(JsonSafeIO.readListOrRecover(json, gson, SesionJuego.class));
+            } else if (Files.exists(bin)) {
+                resultados.addAll(leerBinario(bin));
+            }
+
+            // Replay del journal (cambios posteriores al último snapshot)
+            registrosEnJournal = reproducirJournal();
+
+            resolverJuegos();
+            indice.reconstruir(resultados);
+            cargarResumen();
+            publicar();
+
+            if (desdeJson) {
+                migrarJsonABinario(json);
+            } else if (!modoJournal && registrosEnJournal > 0) {
+                // Si se cambió a modo clásico, no dejar cambios colgando en el journal
+                compactar();
+            }
 
         } catch (Exception e) {
             AppLog.error("Error en SesionService (persistencia).", e);
@@ -209,6 +520,121 @@ public class SesionService {
         }
     }
 
+    private static boolean fuenteMarcadaEs(Path archivo) {
+        Path marca = Paths.get(ARCHIVO_FUENTE);
+        if (!Files.exists(marca)) return false;
+        try {
+            return archivo.getFileName().toString().equals(Files.readString(marca, StandardCharsets.UTF_8).trim());
+        } catch (IOException e) {
+            AppLog.warn("No se pudo leer " + ARCHIVO_FUENTE + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private List<SesionJuego> leerBinario(Path bin) {
+        try {
+            return SesionesBinario.leer(Files.readAllBytes(bin), catalogoJuegos);
+        } catch (IOException e) {
+            // No se sobrescribe: se aparta para poder recuperarlo a mano
+            AppLog.error("resultados.bin ilegible; se aparta y se inicia vacío.", e);
+            try {
+                Files.move(bin, bin.resolveSibling(bin.getFileName() + ".corrupto-" + System.currentTimeMillis()));
+            } catch (IOException ignored) {}
+            return new ArrayList<>();
+        }
+    }
+
+    /** Escribe el binario y retira el JSON viejo (queda en data/backups). */
+    private void migrarJsonABinario(Path json) {
+        // Si el binario no se pudo escribir, el JSON sigue siendo la fuente: no se retira
+        if (!compactar()) return;
+        try {
+            DataBackups.backupIfExists(json);
+            Files.deleteIfExists(json);
+            Files.deleteIfExists(Paths.get(ARCHIVO_FUENTE));
+            AppLog.info("Historial de sesiones migrado a " + ARCHIVO_BINARIO + " (" + resultados.size() + " sesiones).");
+        } catch (IOException e) {
+            AppLog.error("No se pudo retirar " + ARCHIVO_RESULTADOS + " tras migrar.", e);
+        }
+    }
+
+    /** Reemplaza las copias de Juego (JSON / journal) por las instancias del catálogo. */
+    private void resolverJuegos() {
+        if (catalogoJuegos == null) return;
+        for (SesionJuego s : resultados) {
+            if (s == null || s.getJuego() == null) continue;
+            Juego j = catalogoJuegos.apply(s.getJuego().getId());
+            if (j != null) s.setJuego(j);
+        }
+    }
+
+    /**
+     * Aplica sobre {@code resultados} las operaciones del journal. Es idempotente:
+     * un ADD de una sesión ya presente o un DEL de una inexistente no cambian nada
+     * (por ejemplo si se cortó la luz entre escribir el snapshot y vaciar el journal).
+     *
+     * @return cantidad de registros leídos
+     */
+    private int reproducirJournal() {
+        List<String> lineas;
+        try {
+            lineas = journal.readRecords();
+        } catch (IOException e) {
+            AppLog.error("No se pudo leer el journal de sesiones.", e);
+            return 0;
+        }
+        if (lineas.isEmpty()) return 0;
+
+        Map<String, Integer> posPorId = new HashMap<>();
+        for (int i = 0; i < resultados.size(); i++) {
+            SesionJuego s = resultados.get(i);
+            if (s != null && s.getIdSesion() != null) posPorId.put(s.getIdSesion(), i);
+        }
+
+        boolean huboBorrados = false;
+        int invalidas = 0;
+
+        for (String linea : lineas) {
+            RegistroJournal r;
+            try {
+                r = gsonJournal.fromJson(linea, RegistroJournal.class);
+            } catch (JsonParseException ex) {
+                invalidas++;
+                continue;
+            }
+            if (r == null || r.op == null) {
+                invalidas++;
+                continue;
+            }
+
+            if (OP_ADD.equals(r.op) && r.sesion != null) {
+                String id = r.sesion.getIdSesion();
+                if (id != null && posPorId.containsKey(id)) continue;
+                if (id != null) posPorId.put(id, resultados.size());
+                resultados.add(r.sesion);
+            } else if (OP_DEL.equals(r.op) && r.idSesion != null) {
+                Integer pos = posPorId.remove(r.idSesion);
+                if (pos != null) {
+                    // Se marca con null y se compacta al final para no mover índices
+                    resultados.set(pos, null);
+                    huboBorrados = true;
+                }
+            }
+        }
+
+        if (huboBorrados) resultados.removeIf(Objects::isNull);
+        if (invalidas > 0) AppLog.warn("Journal de sesiones: " + invalidas + " registro(s) inválido(s) ignorado(s).");
+
+        return lineas.size();
+    }
+
+    /** Una línea del journal. */
+    private static class RegistroJournal {
+        String op;
+        String idSesion;
+        SesionJuego sesion;
+    }
+
     private static class LocalDateTimeAdapter implements JsonSerializer<LocalDateTime>, JsonDeserializer<LocalDateTime> {
         @Override
         public JsonElement serialize(LocalDateTime src, Type typeOfSrc, JsonSerializationContext context) {
@@ -247,7 +673,9 @@ public class SesionService {
                 }
             }
 
-            guardarEnArchivo();
+            indice.reconstruir(resultados);
+            resumen.reconstruir(resultados);
+            compactar();
         } finally {
             ioLock.unlock();
         }
@@ -258,7 +686,9 @@ public class SesionService {
         ioLock.lock();
         try {
             resultados.clear();
-            guardarEnArchivo();
+            indice.reconstruir(resultados);
+            resumen.reconstruir(resultados);
+            compactar();
         } finally {
             ioLock.unlock();
         }
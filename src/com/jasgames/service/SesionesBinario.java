@@ -0,0 +1,375 @@
+package com.jasgames.service;
+
+import com.jasgames.model.Juego;
+import com.jasgames.model.SesionJuego;
+import com.jasgames.model.TipoJuego;
+import com.jasgames.util.AppLog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Formato binario compacto para el historial de sesiones (data/resultados.bin).
+ *
+ * <pre>
+ * "JSES" | versión (1 byte)
+ * juegos:      n, luego (id, nombre, tipo, dificultad, descripción, habilitado)   -- una vez por archivo
+ * diccionario: n, luego strings                                                 -- aula, nombre, idPia, idObjetivoPia
+ * sesiones:    n, luego (largo en bytes, registro)
+ * </pre>
+ *
+ * Enteros como varint (zigzag), fechas como segundos UTC + nanos, strings como largo + UTF-8.
+ * Cada sesión guarda solo el id de su juego; al leer se resuelve con el catálogo (JuegoService)
+ * y, si no está, con la tabla de juegos del propio archivo.
+ * El largo por registro permite agregar campos al final sin romper lectores viejos y
+ * recuperar las sesiones anteriores a una cola truncada.
+ */
+final class SesionesBinario {
+
+    private static final byte[] MAGIC = {'J', 'S', 'E', 'S'};
+    private static final int VERSION = 1;
+
+    // Flags por sesión
+    private static final int F_ID_SESION = 1;
+    private static final int F_ID_ESTUDIANTE = 1 << 1;
+    private static final int F_JUEGO = 1 << 2;
+    private static final int F_FECHA_HORA = 1 << 3;
+    private static final int F_FECHA_FIN = 1 << 4;
+    private static final int F_ADAPTADA = 1 << 5;
+    private static final int F_PUNTAJE_ANTERIOR = 1 << 6;
+
+    private SesionesBinario() {}
+
+    static boolean esBinario(byte[] datos) {
+        if (datos == null || datos.length < MAGIC.length) return false;
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (datos[i] != MAGIC[i]) return false;
+        }
+        return true;
+    }
+
+    // ---------------- escritura ----------------
+
+    static byte[] escribir(List<SesionJuego> sesiones) {
+        List<SesionJuego> lista = (sesiones == null) ? Collections.emptyList() : sesiones;
+
+        // 1) Juegos referenciados y diccionario de strings repetidos
+        Map<Integer, Juego> juegos = new LinkedHashMap<>();
+        Map<String, Integer> dicc = new LinkedHashMap<>();
+        for (SesionJuego s : lista) {
+            if (s == null) continue;
+            if (s.getJuego() != null) juegos.putIfAbsent(s.getJuego().getId(), s.getJuego());
+            registrar(dicc, s.getNombreEstudiante());
+            registrar(dicc, s.getAula());
+            registrar(dicc, s.getIdPia());
+            registrar(dicc, s.getIdObjetivoPia());
+        }
+
+        Salida out = new Salida(64 + lista.size() * 48);
+        out.bytes(MAGIC);
+        out.u8(VERSION);
+
+        out.varint(juegos.size());
+        for (Juego j : juegos.values()) {
+            out.zz(j.getId());
+            out.str(j.getNombre());
+            out.str(j.getTipo() == null ? null : j.getTipo().name());
+            out.zz(j.getDificultad());
+            out.str(j.getDescripcion());
+            out.u8(j.isHabilitado() ? 1 : 0);
+        }
+
+        out.varint(dicc.size());
+        for (String s : dicc.keySet()) out.str(s);
+
+        int n = 0;
+        for (SesionJuego s : lista) if (s != null) n++;
+        out.varint(n);
+
+        Salida reg = new Salida(64);
+        for (SesionJuego s : lista) {
+            if (s == null) continue;
+            reg.reset();
+            escribirSesion(reg, s, dicc);
+            out.varint(reg.size());
+            reg.volcarEn(out);
+        }
+        return out.toByteArray();
+    }
+
+    private static void escribirSesion(Salida o, SesionJuego s, Map<String, Integer> dicc) {
+        int flags = 0;
+        if (s.getIdSesion() != null) flags |= F_ID_SESION;
+        if (s.getIdEstudiante() != null) flags |= F_ID_ESTUDIANTE;
+        if (s.getJuego() != null) flags |= F_JUEGO;
+        if (s.getFechaHora() != null) flags |= F_FECHA_HORA;
+        if (s.getFechaFin() != null) flags |= F_FECHA_FIN;
+        if (s.isDificultadAdaptada()) flags |= F_ADAPTADA;
+        if (s.getPuntajeAnterior() != null) flags |= F_PUNTAJE_ANTERIOR;
+        o.varint(flags);
+
+        if (s.getIdSesion() != null) o.str(s.getIdSesion());
+        if (s.getIdEstudiante() != null) o.zz(s.getIdEstudiante());
+        o.varint(ref(dicc, s.getNombreEstudiante()));
+        o.varint(ref(dicc, s.getAula()));
+        if (s.getJuego() != null) o.zz(s.getJuego().getId());
+
+        o.zz(s.getPuntaje());
+        if (s.getFechaHora() != null) o.fecha(s.getFechaHora());
+        if (s.getFechaFin() != null) o.fecha(s.getFechaFin());
+        o.zz(s.getDuracionMs());
+
+        o.zz(s.getDificultad());
+        o.zz(s.getDificultadInicial());
+        o.zz(s.getDificultadFinal());
+
+        o.zz(s.getRondasTotales());
+        o.zz(s.getRondasCompletadas());
+        o.zz(s.getIntentosMaxPorRonda());
+        o.zz(s.getPistasDesdeIntento());
+        o.zz(s.getIntentosTotales());
+        o.zz(s.getErroresTotales());
+        o.zz(s.getPistasUsadas());
+        o.zz(s.getAciertosTotales());
+        o.zz(s.getAciertosPrimerIntento());
+
+        o.varint(ref(dicc, s.getIdPia()));
+        o.varint(ref(dicc, s.getIdObjetivoPia()));
+
+        // Agregados al final del registro (los lectores viejos los ignoran)
+        o.zz(s.getVersionPuntaje());
+        if (s.getPuntajeAnterior() != null) {
+            o.zz(s.getPuntajeAnterior());
+            o.zz(s.getVersionPuntajeAnterior());
+        }
+    }
+
+    private static void registrar(Map<String, Integer> dicc, String s) {
+        if (s != null) dicc.putIfAbsent(s, dicc.size());
+    }
+
+    /** 0 = null; i+1 = posición en el diccionario. */
+    private static int ref(Map<String, Integer> dicc, String s) {
+        return (s == null) ? 0 : dicc.get(s) + 1;
+    }
+
+    // ---------------- lectura ----------------
+
+    /**
+     * @param catalogo juego por id (puede ser null o devolver null: se usa la tabla del archivo)
+     * @throws IOException si el encabezado no es válido
+     */
+    static List<SesionJuego> leer(byte[] datos, IntFunction<Juego> catalogo) throws IOException {
+        if (!esBinario(datos)) throw new IOException("No es un archivo de sesiones binario.");
+
+        ByteBuffer in = ByteBuffer.wrap(datos);
+        in.position(MAGIC.length);
+        List<SesionJuego> out = new ArrayList<>();
+
+        try {
+            int version = in.get() & 0xFF;
+            if (version > VERSION) throw new IOException("Versión de formato no soportada: " + version);
+
+            int nJuegos = varint(in);
+            Map<Integer, Juego> juegosArchivo = new HashMap<>();
+            for (int i = 0; i < nJuegos; i++) {
+                Juego j = new Juego();
+                j.setId(zz(in));
+                j.setNombre(str(in));
+                j.setTipo(tipo(str(in)));
+                j.setDificultad(zz(in));
+                j.setDescripcion(str(in));
+                j.setHabilitado(in.get() != 0);
+                juegosArchivo.put(j.getId(), j);
+            }
+
+            int nDicc = varint(in);
+            if (nDicc < 0 || nDicc > in.remaining()) throw new IOException("Diccionario inválido.");
+            String[] dicc = new String[nDicc];
+            for (int i = 0; i < nDicc; i++) dicc[i] = str(in);
+
+            Map<Integer, Juego> resueltos = new HashMap<>();
+            int n = varint(in);
+            for (int i = 0; i < n; i++) {
+                int largo = varint(in);
+                int fin = in.position() + largo;
+                if (largo < 0 || fin > in.limit()) {
+                    AppLog.warn("resultados.bin truncado: se leyeron " + i + " de " + n + " sesiones.");
+                    break;
+                }
+                ByteBuffer reg = in.slice(in.position(), largo);
+                in.position(fin);
+
+                out.add(leerSesion(reg, dicc, id -> resueltos.computeIfAbsent(id,
+                        k -> resolverJuego(k, catalogo, juegosArchivo))));
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+            AppLog.warn("resultados.bin incompleto: se recuperaron " + out.size() + " sesiones.");
+        }
+        return out;
+    }
+
+    private static SesionJuego leerSesion(ByteBuffer in, String[] dicc, IntFunction<Juego> juegos) {
+        SesionJuego s = new SesionJuego();
+        int flags = varint(in);
+
+        s.setIdSesion(((flags & F_ID_SESION) != 0) ? str(in) : null);
+        s.setIdEstudiante(((flags & F_ID_ESTUDIANTE) != 0) ? zz(in) : null);
+        s.setNombreEstudiante(deref(dicc, varint(in)));
+        s.setAula(deref(dicc, varint(in)));
+        s.setJuego(((flags & F_JUEGO) != 0) ? juegos.apply(zz(in)) : null);
+
+        s.setPuntaje(zz(in));
+        s.setFechaHora(((flags & F_FECHA_HORA) != 0) ? fecha(in) : null);
+        s.setFechaFin(((flags & F_FECHA_FIN) != 0) ? fecha(in) : null);
+        s.setDuracionMs(zzLong(in));
+
+        s.setDificultad(zz(in));
+        s.setDificultadInicial(zz(in));
+        s.setDificultadFinal(zz(in));
+        s.setDificultadAdaptada((flags & F_ADAPTADA) != 0);
+
+        s.setRondasTotales(zz(in));
+        s.setRondasCompletadas(zz(in));
+        s.setIntentosMaxPorRonda(zz(in));
+        s.setPistasDesdeIntento(zz(in));
+        s.setIntentosTotales(zz(in));
+        s.setErroresTotales(zz(in));
+        s.setPistasUsadas(zz(in));
+        s.setAciertosTotales(zz(in));
+        s.setAciertosPrimerIntento(zz(in));
+
+        s.setIdPia(deref(dicc, varint(in)));
+        s.setIdObjetivoPia(deref(dicc, varint(in)));
+
+        // Registros escritos antes de versionar el puntaje terminan aquí
+        if (in.hasRemaining()) {
+            s.setVersionPuntaje(zz(in));
+            if ((flags & F_PUNTAJE_ANTERIOR) != 0) {
+                s.setPuntajeAnterior(zz(in));
+                s.setVersionPuntajeAnterior(zz(in));
+            }
+        }
+        // Campos agregados en versiones futuras quedan al final del registro y se ignoran
+        return s;
+    }
+
+    private static Juego resolverJuego(int id, IntFunction<Juego> catalogo, Map<Integer, Juego> juegosArchivo) {
+        Juego j = (catalogo != null) ? catalogo.apply(id) : null;
+        if (j != null) return j;
+        j = juegosArchivo.get(id);
+        if (j != null) return j;
+
+        j = new Juego();
+        j.setId(id);
+        j.setNombre("Juego " + id);
+        return j;
+    }
+
+    private static String deref(String[] dicc, int ref) {
+        if (ref <= 0 || ref > dicc.length) return null;
+        return dicc[ref - 1];
+    }
+
+    private static TipoJuego tipo(String nombre) {
+        if (nombre == null) return null;
+        try {
+            return TipoJuego.valueOf(nombre);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static int varint(ByteBuffer in) {
+        return (int) varlong(in);
+    }
+
+    private static long varlong(ByteBuffer in) {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IndexOutOfBoundsException("varint demasiado largo");
+    }
+
+    private static int zz(ByteBuffer in) {
+        return (int) zzLong(in);
+    }
+
+    private static long zzLong(ByteBuffer in) {
+        long v = varlong(in);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static String str(ByteBuffer in) {
+        int largo = varint(in);
+        if (largo == 0) return null;
+        if (largo < 0 || largo - 1 > in.remaining()) throw new BufferUnderflowException();
+        byte[] b = new byte[largo - 1];
+        in.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDateTime fecha(ByteBuffer in) {
+        long seg = zzLong(in);
+        int nanos = varint(in);
+        return LocalDateTime.ofEpochSecond(seg, nanos, ZoneOffset.UTC);
+    }
+
+    /** Buffer de escritura con varints (evita DataOutputStream + ByteArrayOutputStream por campo). */
+    private static final class Salida extends ByteArrayOutputStream {
+
+        Salida(int capacidad) {
+            super(capacidad);
+        }
+
+        void u8(int v) {
+            write(v & 0xFF);
+        }
+
+        void bytes(byte[] b) {
+            write(b, 0, b.length);
+        }
+
+        /** Copia el contenido a otra salida sin crear un arreglo intermedio. */
+        void volcarEn(Salida destino) {
+            destino.write(buf, 0, count);
+        }
+
+        void varint(long v) {
+            while ((v & ~0x7FL) != 0) {
+                write((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            write((int) v);
+        }
+
+        void zz(long v) {
+            varint((v << 1) ^ (v >> 63));
+        }
+
+        void str(String s) {
+            if (s == null) {
+                varint(0);
+                return;
+            }
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            varint(b.length + 1L);
+            bytes(b);
+        }
+
+        void fecha(LocalDateTime t) {
+            zz(t.toEpochSecond(ZoneOffset.UTC));
+            varint(t.getNano());
+        }
+    }
+}
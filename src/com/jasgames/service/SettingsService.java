@@ -8,6 +8,7 @@ import com.jasgames.util.AtomicFiles;
 import com.jasgames.util.DataBackups;
 import com.jasgames.util.FileLocks;
 import com.jasgames.util.JsonSafeIO;
+import com.jasgames.util.PersistenceScheduler;
 
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
@@ -69,12 +70,19 @@ public class SettingsService {
     }
 
     private void guardar() {
+        PersistenceScheduler.markDirty(path, this::escribir);
+    }
+
+    private void escribir() {
+        ioLock.lock();
         try {
             DataBackups.backupIfExists(path);
             String json = gson.toJson(settings == null ? new UiSettings() : settings);
             AtomicFiles.writeStringAtomic(path, json, StandardCharsets.UTF_8);
         } catch (Exception ex) {
             AppLog.error("No se pudo guardar settings: " + ex.getMessage(), ex);
+        } finally {
+            ioLock.unlock();
         }
     }
 }
@@ -3,6 +3,7 @@ package com.jasgames.ui;
 import com.jasgames.service.AppContext;
 import com.jasgames.ui.framework.UiTheme;
 import com.jasgames.ui.login.AccesoWindow;
+import com.jasgames.util.AppLog;
 
 import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
@@ -11,10 +12,14 @@ public class App {
     private JPanel mainWindow;
 
     public static void main(String[] args) {
+        long t0 = System.nanoTime();
+        // Los servicios empiezan a cargar en paralelo mientras arranca Swing
+        AppContext context = new AppContext();
+
         SwingUtilities.invokeLater(() -> {
             UiTheme.install();
-            AppContext context = new AppContext();
             new AccesoWindow(context).setVisible(true);
+            AppLog.info("Primera ventana visible en " + (System.nanoTime() - t0) / 1_000_000L + " ms");
         });
     }
 }
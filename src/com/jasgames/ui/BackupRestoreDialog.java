@@ -1,17 +1,21 @@
 package com.jasgames.ui;
 
 import com.jasgames.service.AppContext;
+import com.jasgames.service.RecalculoPuntajes;
+import com.jasgames.service.ScoreService;
+import com.jasgames.service.SesionService;
 import com.jasgames.util.DataBackups;
 
 import javax.swing.*;
 import java.awt.*;
-import java.nio.file.*;
-import java.util.ArrayList;
-import java.util.Comparator;
+import java.io.File;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
- * Diálogo para restaurar archivos desde data/backups/.
+ * Diálogo para restaurar archivos desde data/backups/ (snapshots del store de backups).
  *
  * Nota: algunos servicios mantienen datos en memoria; tras restaurar es recomendable
  * cerrar y volver a abrir Modo Docente para recargar desde disco.
@@ -20,12 +24,16 @@ public class BackupRestoreDialog extends JDialog {
 
     private final AppContext context;
 
-    private final DefaultListModel<Path> modelBackups = new DefaultListModel<>();
-    private final JList<Path> listBackups = new JList<>(modelBackups);
+    private static final DateTimeFormatter FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final DefaultListModel<DataBackups.Snapshot> modelBackups = new DefaultListModel<>();
+    private final JList<DataBackups.Snapshot> listBackups = new JList<>(modelBackups);
     private final DefaultListModel<String> modelFiles = new DefaultListModel<>();
     private final JList<String> listFiles = new JList<>(modelFiles);
 
     private final JButton btnRestore = new JButton("Restaurar");
+    private final JButton btnExportarSesiones = new JButton("Exportar sesiones (JSON)");
+    private final JButton btnRecalcularPuntajes = new JButton("Recalcular puntajes");
     private final JLabel lblEstado = new JLabel(" ");
 
     public BackupRestoreDialog(Window owner, AppContext context) {
@@ -54,8 +62,8 @@ public class BackupRestoreDialog extends JDialog {
             @Override
             public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
                 Component c = super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
-                if (value instanceof Path p) {
-                    setText(p.getFileName().toString());
+                if (value instanceof DataBackups.Snapshot s) {
+                    setText(s.getFecha().format(FMT) + "  —  " + s.getNombreArchivo());
                 }
                 return c;
             }
@@ -68,7 +76,7 @@ public class BackupRestoreDialog extends JDialog {
         left.add(new JScrollPane(listBackups), BorderLayout.CENTER);
 
         JPanel right = new JPanel(new BorderLayout(8, 8));
-        right.add(new JLabel("Archivos dentro del backup:"), BorderLayout.NORTH);
+        right.add(new JLabel("Contenido del backup:"), BorderLayout.NORTH);
         right.add(new JScrollPane(listFiles), BorderLayout.CENTER);
 
         JSplitPane split = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, left, right);
@@ -83,6 +91,10 @@ public class BackupRestoreDialog extends JDialog {
         JButton btnClose = new JButton("Cerrar");
 
         btnRestore.setEnabled(false);
+        btnExportarSesiones.setEnabled(context != null && context.getSesionService() != null);
+        btnRecalcularPuntajes.setEnabled(btnExportarSesiones.isEnabled());
+        actions.add(btnRecalcularPuntajes);
+        actions.add(btnExportarSesiones);
         actions.add(btnRestore);
         actions.add(btnClose);
 
@@ -101,6 +113,69 @@ public class BackupRestoreDialog extends JDialog {
         });
 
         btnRestore.addActionListener(e -> restaurarSeleccionado());
+        btnExportarSesiones.addActionListener(e -> exportarSesionesJson());
+        btnRecalcularPuntajes.addActionListener(e -> recalcularPuntajes());
+    }
+
+    /** Vuelve a puntuar todo el historial con la fórmula actual (en segundo plano, con avance). */
+    private void recalcularPuntajes() {
+        int r = JOptionPane.showConfirmDialog(
+                this,
+                "Se recalculará el puntaje de todas las sesiones con la fórmula actual (versión " + ScoreService.VERSION + ").\n" +
+                        "Cada sesión conserva su puntaje anterior para comparar, y se hace backup del historial.\n\n" +
+                        "¿Deseas continuar?",
+                "Recalcular puntajes",
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.QUESTION_MESSAGE
+        );
+        if (r != JOptionPane.YES_OPTION) return;
+
+        btnRecalcularPuntajes.setEnabled(false);
+        lblEstado.setText("Recalculando puntajes...");
+
+        SwingWorker<RecalculoPuntajes.Resultado, Void> worker = new SwingWorker<>() {
+            @Override
+            protected RecalculoPuntajes.Resultado doInBackground() {
+                return RecalculoPuntajes.ejecutar(context.getSesionService(),
+                        (hechos, total) -> setProgress(total == 0 ? 100 : hechos * 100 / total));
+            }
+
+            @Override
+            protected void done() {
+                btnRecalcularPuntajes.setEnabled(true);
+                try {
+                    lblEstado.setText(get().toString());
+                } catch (Exception ex) {
+                    lblEstado.setText("Error recalculando puntajes: " + ex.getMessage());
+                }
+            }
+        };
+        worker.addPropertyChangeListener(ev -> {
+            if ("progress".equals(ev.getPropertyName()) && !worker.isDone()) {
+                lblEstado.setText("Recalculando puntajes... " + ev.getNewValue() + "%");
+            }
+        });
+        worker.execute();
+    }
+
+    /** El historial se guarda en binario (resultados.bin); esto genera una copia JSON legible. */
+    private void exportarSesionesJson() {
+        JFileChooser fc = new JFileChooser();
+        fc.setDialogTitle("Exportar sesiones");
+        fc.setSelectedFile(new File("sesiones_" + LocalDate.now() + ".json"));
+        if (fc.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        File destino = fc.getSelectedFile();
+        if (!destino.getName().toLowerCase().endsWith(".json")) {
+            destino = new File(destino.getParentFile(), destino.getName() + ".json");
+        }
+
+        try {
+            context.getSesionService().exportarJson(destino.toPath());
+            lblEstado.setText("Sesiones exportadas: " + destino.getAbsolutePath());
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, "Error exportando: " + ex.getMessage(), "Exportar", JOptionPane.ERROR_MESSAGE);
+        }
     }
 
     private void cargarBackups() {
@@ -108,29 +183,20 @@ public class BackupRestoreDialog extends JDialog {
         modelFiles.clear();
         btnRestore.setEnabled(false);
 
-        Path backupsRoot = Paths.get("data", "backups");
-        if (!Files.isDirectory(backupsRoot)) {
-            lblEstado.setText("No hay backups aún (se crean al guardar cambios en data/)." );
-            return;
-        }
-
-        List<Path> dirs = new ArrayList<>();
-        try (DirectoryStream<Path> ds = Files.newDirectoryStream(backupsRoot)) {
-            for (Path p : ds) {
-                if (Files.isDirectory(p)) dirs.add(p);
-            }
+        List<DataBackups.Snapshot> snapshots;
+        try {
+            snapshots = DataBackups.listarSnapshots();
         } catch (Exception ex) {
             lblEstado.setText("Error leyendo backups: " + ex.getMessage());
             return;
         }
 
-        dirs.sort(Comparator.comparing((Path p) -> p.getFileName().toString()).reversed());
-        for (Path d : dirs) modelBackups.addElement(d);
+        for (DataBackups.Snapshot s : snapshots) modelBackups.addElement(s);
 
-        if (!dirs.isEmpty()) {
+        if (!snapshots.isEmpty()) {
             listBackups.setSelectedIndex(0);
         } else {
-            lblEstado.setText("No hay backups aún.");
+            lblEstado.setText("No hay backups aún (se crean al guardar cambios en data/)." );
         }
     }
 
@@ -138,38 +204,28 @@ public class BackupRestoreDialog extends JDialog {
         modelFiles.clear();
         btnRestore.setEnabled(false);
 
-        Path selected = listBackups.getSelectedValue();
-        if (selected == null || !Files.isDirectory(selected)) {
+        DataBackups.Snapshot selected = listBackups.getSelectedValue();
+        if (selected == null) {
             lblEstado.setText("Selecciona un backup.");
             return;
         }
 
-        try (DirectoryStream<Path> ds = Files.newDirectoryStream(selected)) {
-            int count = 0;
-            for (Path p : ds) {
-                if (!Files.isRegularFile(p)) continue;
-                long size = 0L;
-                try { size = Files.size(p); } catch (Exception ignored) {}
-                modelFiles.addElement(p.getFileName().toString() + "  (" + size + " bytes)");
-                count++;
-            }
-            btnRestore.setEnabled(count > 0);
-            lblEstado.setText("Backup: " + selected.getFileName() + " | archivos: " + count);
-        } catch (Exception ex) {
-            lblEstado.setText("Error leyendo archivos del backup: " + ex.getMessage());
-        }
+        modelFiles.addElement(selected.getNombreArchivo() + "  (" + selected.getBytes() + " bytes)");
+        modelFiles.addElement("sha256: " + selected.getHash());
+        btnRestore.setEnabled(true);
+        lblEstado.setText("Backup: " + selected.getFecha().format(FMT) + " | archivo: " + selected.getNombreArchivo());
     }
 
     private void restaurarSeleccionado() {
-        Path backupDir = listBackups.getSelectedValue();
-        if (backupDir == null || !Files.isDirectory(backupDir)) {
+        DataBackups.Snapshot snapshot = listBackups.getSelectedValue();
+        if (snapshot == null) {
             JOptionPane.showMessageDialog(this, "Selecciona un backup válido.", "Backups", JOptionPane.WARNING_MESSAGE);
             return;
         }
 
         int r = JOptionPane.showConfirmDialog(
                 this,
-                "Esto sobrescribirá archivos en la carpeta data/.\n" +
+                "Esto sobrescribirá " + snapshot.getNombreArchivo() + " en la carpeta data/.\n" +
                         "Se hará un backup automático de lo actual antes de restaurar.\n\n" +
                         "¿Deseas continuar?",
                 "Confirmar restauración",
@@ -178,22 +234,14 @@ public class BackupRestoreDialog extends JDialog {
         );
         if (r != JOptionPane.YES_OPTION) return;
 
-        Path dataDir = Paths.get("data");
+        boolean historial = SesionService.esArchivoDeHistorial(snapshot.getNombreArchivo())
+                && context != null && context.getSesionService() != null;
         try {
-            Files.createDirectories(dataDir);
-        } catch (Exception ignored) {}
-
-        int restored = 0;
-        try (DirectoryStream<Path> ds = Files.newDirectoryStream(backupDir)) {
-            for (Path src : ds) {
-                if (!Files.isRegularFile(src)) continue;
-                Path dest = dataDir.resolve(src.getFileName());
-
-                // backup de seguridad antes de sobreescribir
-                DataBackups.backupIfExists(dest);
-
-                Files.copy(src, dest, StandardCopyOption.REPLACE_EXISTING);
-                restored++;
+            if (historial) {
+                // Archiva el journal y recarga el historial en memoria
+                context.getSesionService().restaurarDesdeBackup(snapshot);
+            } else {
+                DataBackups.restaurar(snapshot, Paths.get("data"));
             }
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "Error restaurando: " + ex.getMessage(), "Backups", JOptionPane.ERROR_MESSAGE);
@@ -202,13 +250,13 @@ public class BackupRestoreDialog extends JDialog {
 
         try {
             if (context != null && context.getAuditoriaService() != null) {
-                context.getAuditoriaService().registrar("RESTORE_BACKUP", "dir=" + backupDir.getFileName() + " files=" + restored);
+                context.getAuditoriaService().registrar("RESTORE_BACKUP", "snapshot=" + snapshot.getId() + " file=" + snapshot.getNombreArchivo());
             }
         } catch (Exception ignored) {}
 
         JOptionPane.showMessageDialog(
                 this,
-                "Restauración completada. Archivos restaurados: " + restored + "\n\n" +
+                "Restauración completada: " + snapshot.getNombreArchivo() + "\n\n" +
                         "Recomendación: cierra y vuelve a abrir Modo Docente para recargar datos.",
                 "Backups",
                 JOptionPane.INFORMATION_MESSAGE
@@ -8,11 +8,13 @@ import com.jasgames.model.SesionJuego;
 import com.jasgames.service.AulaService;
 import com.jasgames.service.PerfilService;
 import com.jasgames.service.PiaService;
+import com.jasgames.service.ResumenDiario;
 import com.jasgames.service.SesionService;
 
 import javax.swing.*;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
+import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableModel;
 
 import java.io.BufferedWriter;
@@ -59,8 +61,11 @@ public class DashboardPanel extends JPanel {
 
     private final ObjectiveNavigator navigator;
 
-    private final java.util.List<SesionJuego> filasTabla = new java.util.ArrayList<>();
-    private DefaultTableModel tablaModelo;
+    private SesionesTableModel tablaModelo;
+
+    // Consulta en segundo plano (solo se publica la última)
+    private SwingWorker<ResultadoConsulta, Void> consultaEnCurso;
+    private volatile long generacionConsulta;
 
     // --- Filtros nuevos  ---
     private JComboBox<String> cbFiltroAula;
@@ -186,14 +191,7 @@ public class DashboardPanel extends JPanel {
     }
 
     private void inicializarTabla() {
-        tablaModelo = new DefaultTableModel(
-                new Object[]{"ID", "Estudiante", "Aula", "Juego", "Dificultad", "Puntaje", "Intentos", "Errores", "Pistas", "Duración(s)", "Precisión", "PIA", "Objetivo", "Fecha", "Hora"}, 0
-        ) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tablaModelo = new SesionesTableModel(this::obtenerTextoObjetivo);
 
         tblResultados.setModel(tablaModelo);
         tblResultados.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
@@ -443,7 +441,7 @@ public class DashboardPanel extends JPanel {
         cbReportePia.addItem(null);
 
         boolean incluirCerrados = chkIncluirPiasCerrados != null && chkIncluirPiasCerrados.isSelected();
-        List<PIA> pias = piaService.obtenerTodos();
+        List<PIA> pias = new ArrayList<>(piaService.obtenerTodos());
 
         // Orden estable (por nombre, luego id)
         pias.sort(Comparator
@@ -486,13 +484,10 @@ public class DashboardPanel extends JPanel {
             return;
         }
 
-        // Tomamos todas las sesiones una sola vez
-        List<SesionJuego> sesiones = sesionService.obtenerTodos();
-
         for (ObjetivoPIA o : pia.getObjetivos()) {
             if (o == null) continue;
 
-            StatsObjetivo st = calcularStatsObjetivo(pia, o, sesiones);
+            StatsObjetivo st = calcularStatsObjetivo(pia, o);
 
             modeloReporteObjetivos.addRow(new Object[]{
                     o.getIdObjetivo(),
@@ -555,7 +550,7 @@ public class DashboardPanel extends JPanel {
         } catch (Exception ignored) {}
         if (limite <= 0) limite = 10;
 
-        List<SesionJuego> sesiones = sesionesParaObjetivo(pia, obj, sesionService.obtenerTodos());
+        List<SesionJuego> sesiones = sesionesParaObjetivo(pia, obj);
         sesiones.sort((a, b) -> {
             LocalDateTime fa = (a.getFechaFin() != null) ? a.getFechaFin() : a.getFechaHora();
             LocalDateTime fb = (b.getFechaFin() != null) ? b.getFechaFin() : b.getFechaHora();
@@ -604,7 +599,7 @@ public class DashboardPanel extends JPanel {
         btnReporteIrAObjetivo.setEnabled(navigator != null);
 
         // Resumen
-        StatsObjetivo st = calcularStatsObjetivo(pia, obj, sesionService.obtenerTodos());
+        StatsObjetivo st = calcularStatsObjetivo(pia, obj);
         String activoTxt = (Objects.equals(pia.getIdObjetivoActivo(), obj.getIdObjetivo())) ? " (activo)" : "";
         lblReporteResumen.setText(
                 "Objetivo: Juego " + obj.getJuegoId() + " — " + safe(obj.getDescripcion()) + activoTxt +
@@ -674,11 +669,9 @@ public class DashboardPanel extends JPanel {
                 writer.write("ID_OBJ;Juego;Descripción;ProgresoRondas;MetaRondas;ProgresoSesiones;MetaSesiones;Estado;Precisión;ErroresProm;DuraciónProm;ÚltimaSesion");
                 writer.newLine();
 
-                List<SesionJuego> sesiones = sesionService.obtenerTodos();
-
                 for (ObjetivoPIA o : pia.getObjetivos()) {
                     if (o == null) continue;
-                    StatsObjetivo st = calcularStatsObjetivo(pia, o, sesiones);
+                    StatsObjetivo st = calcularStatsObjetivo(pia, o);
 
                     String line = String.join(";",
                             safe(o.getIdObjetivo()),
@@ -742,35 +735,24 @@ public class DashboardPanel extends JPanel {
         String ultimaTxt = "—";
     }
 
-    private StatsObjetivo calcularStatsObjetivo(PIA pia, ObjetivoPIA obj, List<SesionJuego> todas) {
+    private StatsObjetivo calcularStatsObjetivo(PIA pia, ObjetivoPIA obj) {
         StatsObjetivo st = new StatsObjetivo();
-        if (pia == null || obj == null || todas == null) return st;
-
-        List<SesionJuego> sesiones = sesionesParaObjetivo(pia, obj, todas);
-        if (sesiones.isEmpty()) return st;
-
-        int n = 0;
-        int sumErrores = 0;
-        long sumDur = 0L;
-        int cntDur = 0;
-        int sumAciertos = 0;
-        int sumIntentos = 0;
-        LocalDateTime ultima = null;
-
-        for (SesionJuego s : sesiones) {
-            if (s == null) continue;
-            n++;
-            sumErrores += s.getErroresTotales();
-            if (s.getDuracionMs() > 0) {
-                sumDur += s.getDuracionMs();
-                cntDur++;
-            }
-            sumAciertos += s.getAciertosTotales();
-            sumIntentos += s.getIntentosTotales();
-
-            LocalDateTime fh = (s.getFechaFin() != null) ? s.getFechaFin() : s.getFechaHora();
-            if (fh != null && (ultima == null || fh.isAfter(ultima))) ultima = fh;
-        }
+        if (pia == null || obj == null) return st;
+
+        // Totales del objetivo desde el resumen diario (unas filas por día jugado)
+        ResumenDiario.Filtro f = new ResumenDiario.Filtro();
+        f.idPia = pia.getIdPia();
+        f.idObjetivo = obj.getIdObjetivo();
+        ResumenDiario.Totales t = sesionService.resumir(f);
+        if (t.sesiones == 0) return st;
+
+        int n = t.sesiones;
+        long sumErrores = t.errores;
+        long sumDur = t.duracionMs;
+        int cntDur = t.sesionesConDuracion;
+        long sumAciertos = t.aciertos;
+        long sumIntentos = t.intentos;
+        LocalDateTime ultima = t.ultima;
 
         if (sumIntentos > 0) {
             double p = (double) sumAciertos / (double) sumIntentos;
@@ -795,19 +777,10 @@ public class DashboardPanel extends JPanel {
         return st;
     }
 
-    private List<SesionJuego> sesionesParaObjetivo(PIA pia, ObjetivoPIA obj, List<SesionJuego> todas) {
-        if (pia == null || obj == null || todas == null) return new ArrayList<>();
-        String idPia = pia.getIdPia();
-        String idObj = obj.getIdObjetivo();
-        List<SesionJuego> out = new ArrayList<>();
-        for (SesionJuego s : todas) {
-            if (s == null) continue;
-            if (idPia == null || idObj == null) continue;
-            if (!Objects.equals(idPia, s.getIdPia())) continue;
-            if (!Objects.equals(idObj, s.getIdObjetivoPia())) continue;
-            out.add(s);
-        }
-        return out;
+    private List<SesionJuego> sesionesParaObjetivo(PIA pia, ObjetivoPIA obj) {
+        if (pia == null || obj == null) return new ArrayList<>();
+        // Índice (idPia, idObjetivo) de SesionService
+        return sesionService.obtenerPorObjetivoPia(pia.getIdPia(), obj.getIdObjetivo());
     }
 
     private JLabel crearKpi(String titulo, String valor) {
@@ -925,7 +898,7 @@ public class DashboardPanel extends JPanel {
         cbFiltroDificultad.addActionListener(e -> actualizarTabla(false));
         cbFiltroRango.addActionListener(e -> actualizarTabla(false));
         chkSoloPia.addActionListener(e -> actualizarTabla(false));
-        cbOrden.addActionListener(e -> actualizarTabla(false));
+        cbOrden.addActionListener(e -> reordenarTabla());
 
                 // Debounce (250ms) para que no recalculen los filtros en cada tecla
         if (debounceBuscar == null) {
@@ -1032,9 +1005,8 @@ public class DashboardPanel extends JPanel {
                     int viewRow = tblResultados.rowAtPoint(e.getPoint());
                     if (viewRow < 0) return;
                     int modelRow = tblResultados.convertRowIndexToModel(viewRow);
-                    if (modelRow >= 0 && modelRow < filasTabla.size()) {
-                        mostrarDetalleSesion(filasTabla.get(modelRow));
-                    }
+                    SesionJuego s = tablaModelo.getSesion(modelRow);
+                    if (s != null) mostrarDetalleSesion(s);
                 }
             }
 
@@ -1074,8 +1046,7 @@ public class DashboardPanel extends JPanel {
         int viewRow = tblResultados.getSelectedRow();
         if (viewRow < 0) return null;
         int modelRow = tblResultados.convertRowIndexToModel(viewRow);
-        if (modelRow < 0 || modelRow >= filasTabla.size()) return null;
-        return filasTabla.get(modelRow);
+        return tablaModelo.getSesion(modelRow);
     }
 
     private void copiarAlPortapapeles(String texto) {
@@ -1107,9 +1078,7 @@ public class DashboardPanel extends JPanel {
         if (viewRow < 0) return;
 
         int modelRow = tblResultados.convertRowIndexToModel(viewRow);
-        if (modelRow < 0 || modelRow >= filasTabla.size()) return;
-
-        SesionJuego s = filasTabla.get(modelRow);
+        SesionJuego s = tablaModelo.getSesion(modelRow);
         if (s == null || s.getIdSesion() == null || s.getIdSesion().isBlank()) {
             JOptionPane.showMessageDialog(this, "No se pudo identificar la sesión seleccionada.", "Eliminar sesión", JOptionPane.WARNING_MESSAGE);
             return;
@@ -1140,11 +1109,8 @@ public class DashboardPanel extends JPanel {
 
         SesionJuego eliminado = eliminadoOpt.get();
 
-        // Mantener consistencia del PIA si esta sesión aportaba a un objetivo
-        String idPiaAfectado = (eliminado.getIdPia() != null) ? eliminado.getIdPia().trim() : null;
-        if (idPiaAfectado != null && !idPiaAfectado.isBlank()) {
-            piaService.recalcularProgresoPIA(idPiaAfectado, sesionService.obtenerTodos());
-        }
+        // Mantener consistencia del PIA si esta sesión aportaba a un objetivo (delta, sin recorrer el historial)
+        piaService.sesionEliminada(eliminado);
 
         // Refrescar tabla y filtros
         recargarCombosFiltros(true);
@@ -1219,11 +1185,8 @@ public class DashboardPanel extends JPanel {
             return;
         }
 
-        // Recalcular PIA si aplica
-        String idPia = (s.getIdPia() != null) ? s.getIdPia().trim() : null;
-        if (idPia != null && !idPia.isBlank()) {
-            piaService.recalcularProgresoPIA(idPia, sesionService.obtenerTodos());
-        }
+        // Devolver al PIA el aporte de la sesión (si aplica)
+        piaService.sesionRestaurada(s);
 
         recargarCombosFiltros(true);
         actualizarTabla(false);
@@ -1257,12 +1220,7 @@ public class DashboardPanel extends JPanel {
         cbFiltroJuego.removeAllItems();
         cbFiltroJuego.addItem("Todos");
 
-        Map<Integer, Juego> juegosPorId = new LinkedHashMap<>();
-        for (SesionJuego r : sesionService.obtenerTodos()) {
-            Juego j = r.getJuego();
-            if (j != null) juegosPorId.putIfAbsent(j.getId(), j);
-        }
-        for (Juego j : juegosPorId.values()) cbFiltroJuego.addItem(j);
+        for (Juego j : sesionService.obtenerJuegosConSesiones()) cbFiltroJuego.addItem(j);
 
         // ---- Aulas ----
         cbFiltroAula.removeAllItems();
@@ -1282,11 +1240,7 @@ public class DashboardPanel extends JPanel {
         }
         for (String a : aulasBase) cbFiltroAula.addItem(a);
 
-        Set<String> aulasExtras = new LinkedHashSet<>();
-        for (SesionJuego r : sesionService.obtenerTodos()) {
-            if (r.getAula() != null && !r.getAula().isBlank()) aulasExtras.add(r.getAula().trim());
-        }
-        for (String a : aulasExtras) {
+        for (String a : sesionService.obtenerAulasConSesiones()) {
             boolean ya = false;
             for (int i = 0; i < cbFiltroAula.getItemCount(); i++) {
                 if (cbFiltroAula.getItemAt(i).equalsIgnoreCase(a)) { ya = true; break; }
@@ -1315,135 +1269,148 @@ public class DashboardPanel extends JPanel {
         }
     }
 
+    /**
+     * Lanza una consulta en segundo plano con los filtros actuales.
+     * Los valores de los combos se leen aquí (EDT); el filtrado, el orden y los KPIs se calculan fuera.
+     */
     private void actualizarTabla(boolean atajoOrdenarPorPuntajeDesc) {
-        tablaModelo.setRowCount(0);
-        filasTabla.clear();
-
-        List<SesionJuego> lista = new ArrayList<>(sesionService.obtenerTodos());
-
-        // ----- 1) Filtro: Juego -----
         Object juegoSel = cbFiltroJuego.getSelectedItem();
-        if (juegoSel instanceof Juego) {
-            Juego j = (Juego) juegoSel;
-            lista.removeIf(r -> r.getJuego() == null || r.getJuego().getId() != j.getId());
-        }
-
-        // ----- 2) Filtro: Solo PIA -----
-        if (chkSoloPia != null && chkSoloPia.isSelected()) {
-            lista.removeIf(r -> r.getIdPia() == null || r.getIdPia().isBlank());
-        }
+        Integer idJuego = (juegoSel instanceof Juego) ? ((Juego) juegoSel).getId() : null;
 
-        // ----- 2) Filtro: Aula -----
-        String aulaSel = (String) cbFiltroAula.getSelectedItem();
-        if (aulaSel != null && !aulaSel.equalsIgnoreCase("Todas")) {
-            lista.removeIf(r -> r.getAula() == null || !r.getAula().equalsIgnoreCase(aulaSel));
-        }
+        String aulaCombo = (String) cbFiltroAula.getSelectedItem();
+        String aulaSel = (aulaCombo != null && !aulaCombo.equalsIgnoreCase("Todas")) ? aulaCombo.trim() : null;
 
-        // ----- 3) Filtro: Dificultad -----
         Object difSel = cbFiltroDificultad.getSelectedItem();
-        if (difSel instanceof Integer) {
-            int d = (Integer) difSel;
-            lista.removeIf(r -> r.getDificultad() != d);
-        }
+        Integer dificultad = (difSel instanceof Integer) ? (Integer) difSel : null;
 
-        // ----- 4) Filtro: Rango de tiempo -----
         String rango = (String) cbFiltroRango.getSelectedItem();
         if (rango == null) rango = "Todo";
 
-        LocalDateTime ahora = LocalDateTime.now();
-        switch (rango) {
-            case "Hoy" -> lista.removeIf(r -> r.getFechaHora() == null || !r.getFechaHora().toLocalDate().equals(LocalDate.now()));
-            case "Últimos 7 días" -> lista.removeIf(r -> r.getFechaHora() == null || r.getFechaHora().isBefore(ahora.minusDays(7)));
-            case "Últimos 30 días" -> lista.removeIf(r -> r.getFechaHora() == null || r.getFechaHora().isBefore(ahora.minusDays(30)));
-            default -> { /* Todo */ }
-        }
-
-        // ----- 5) Filtro: Buscar (nombre / id / aula / juego) -----
+        boolean soloPia = chkSoloPia != null && chkSoloPia.isSelected();
         String q = (txtBuscar.getText() == null) ? "" : txtBuscar.getText().trim().toLowerCase(Locale.ROOT);
-        if (!q.isBlank()) {
-            lista.removeIf(r -> {
-                String nombre = (r.getNombreEstudiante() == null) ? "" : r.getNombreEstudiante().toLowerCase(Locale.ROOT);
-                String aula = (r.getAula() == null) ? "" : r.getAula().toLowerCase(Locale.ROOT);
-                String juego = (r.getJuego() == null || r.getJuego().getNombre() == null) ? "" : r.getJuego().getNombre().toLowerCase(Locale.ROOT);
-                String id = (r.getIdEstudiante() == null) ? "" : String.valueOf(r.getIdEstudiante());
-
-                return !(nombre.contains(q) || aula.contains(q) || juego.contains(q) || id.contains(q));
-            });
-        }
+        Comparator<SesionJuego> comp = comparadorOrden(atajoOrdenarPorPuntajeDesc);
+        String rangoSel = rango;
+
+        ejecutarConsulta(cancelada -> {
+            // ----- 1) Punto de partida desde el índice más selectivo -----
+            List<SesionJuego> base;
+            if (idJuego != null) {
+                base = sesionService.obtenerPorJuego(idJuego);
+            } else if (aulaSel != null) {
+                base = sesionService.obtenerPorAula(aulaSel);
+            } else {
+                base = sesionService.obtenerTodos();
+            }
 
-        // ----- 6) Orden -----
-        String ordenSel = atajoOrdenarPorPuntajeDesc ? "Puntaje (mayor)" : (String) cbOrden.getSelectedItem();
-        if (ordenSel == null) ordenSel = "Fecha (más reciente)";
+            // ----- 2..5) Filtros (una sola pasada) -----
+            LocalDateTime ahora = LocalDateTime.now();
+            LocalDate hoy = ahora.toLocalDate();
+            List<SesionJuego> lista = new ArrayList<>();
+            int i = 0;
+            for (SesionJuego r : base) {
+                if ((++i & 0x3FF) == 0 && cancelada.getAsBoolean()) return null;
+
+                if (soloPia && (r.getIdPia() == null || r.getIdPia().isBlank())) continue;
+                if (aulaSel != null && (r.getAula() == null || !r.getAula().trim().equalsIgnoreCase(aulaSel))) continue;
+                if (dificultad != null && r.getDificultad() != dificultad) continue;
+
+                LocalDateTime fh = r.getFechaHora();
+                switch (rangoSel) {
+                    case "Hoy" -> { if (fh == null || !fh.toLocalDate().equals(hoy)) continue; }
+                    case "Últimos 7 días" -> { if (fh == null || fh.isBefore(ahora.minusDays(7))) continue; }
+                    case "Últimos 30 días" -> { if (fh == null || fh.isBefore(ahora.minusDays(30))) continue; }
+                    default -> { /* Todo */ }
+                }
 
-        Comparator<SesionJuego> comp;
-        switch (ordenSel) {
-            case "Fecha (más antigua)" -> comp = Comparator.comparing(
-                    SesionJuego::getFechaHora,
-                    Comparator.nullsLast(Comparator.naturalOrder())
-            );
-            case "Puntaje (menor)" -> comp = Comparator.comparingInt(SesionJuego::getPuntaje);
-            case "Puntaje (mayor)" -> comp = Comparator.comparingInt(SesionJuego::getPuntaje).reversed();
-            default -> comp = Comparator.comparing(
-                    SesionJuego::getFechaHora,
-                    Comparator.nullsLast(Comparator.naturalOrder())
-            ).reversed();
-        }
-        lista.sort(comp);
+                // Buscar (nombre / id / aula / juego)
+                if (!q.isBlank()) {
+                    String nombre = (r.getNombreEstudiante() == null) ? "" : r.getNombreEstudiante().toLowerCase(Locale.ROOT);
+                    String aula = (r.getAula() == null) ? "" : r.getAula().toLowerCase(Locale.ROOT);
+                    String juego = (r.getJuego() == null || r.getJuego().getNombre() == null) ? "" : r.getJuego().getNombre().toLowerCase(Locale.ROOT);
+                    String id = (r.getIdEstudiante() == null) ? "" : String.valueOf(r.getIdEstudiante());
+                    if (!(nombre.contains(q) || aula.contains(q) || juego.contains(q) || id.contains(q))) continue;
+                }
 
-        actualizarKpis(lista);
-        actualizarKpiPia();
+                lista.add(r);
+            }
+            if (cancelada.getAsBoolean()) return null;
+
+            // ----- 6) Orden (sobre índices) + KPIs -----
+            // Sin búsqueda por texto y con rango por días completos, los KPIs salen del resumen diario
+            if (q.isBlank() && (rangoSel.equals("Todo") || rangoSel.equals("Hoy"))) {
+                ResumenDiario.Filtro f = new ResumenDiario.Filtro();
+                f.idJuego = idJuego;
+                f.aula = aulaSel;
+                f.dificultad = dificultad;
+                f.soloPia = soloPia;
+                if (rangoSel.equals("Hoy")) f.desdeDia = f.hastaDia = hoy.toString();
+                return ResultadoConsulta.de(lista, comp, KpisTabla.desdeResumen(sesionService.resumir(f)));
+            }
+            return ResultadoConsulta.de(lista, comp);
+        });
+    }
 
-        // ----- 7) Pintar tabla -----
-        DateTimeFormatter fmtFecha = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        DateTimeFormatter fmtHora = DateTimeFormatter.ofPattern("HH:mm:ss");
+    /** Cambio de orden solamente: reordena los datos actuales sin volver a filtrar ni a armar celdas. */
+    private void reordenarTabla() {
+        // Si hay una consulta de filtros pendiente, sus datos todavía no están en la tabla: consultar de nuevo
+        if (consultaEnCurso != null && !consultaEnCurso.isDone()) {
+            actualizarTabla(false);
+            return;
+        }
+        List<SesionJuego> actuales = tablaModelo.getDatos();
+        Comparator<SesionJuego> comp = comparadorOrden(false);
+        ejecutarConsulta(cancelada -> ResultadoConsulta.de(actuales, comp));
+    }
 
-        for (SesionJuego r : lista) {
-            String nombreJuego = (r.getJuego() == null) ? "" : r.getJuego().getNombre();
+    /**
+     * Ejecuta la consulta en un SwingWorker; la anterior (si sigue corriendo) queda cancelada
+     * y solo el resultado de la última se publica en la tabla y los KPIs.
+     */
+    private void ejecutarConsulta(java.util.function.Function<java.util.function.BooleanSupplier, ResultadoConsulta> consulta) {
+        if (consultaEnCurso != null) consultaEnCurso.cancel(false);
 
-            LocalDateTime fh = r.getFechaHora();
-            String fecha = "";
-            String hora = "";
-            if (fh != null) {
-                fecha = fh.toLocalDate().format(fmtFecha);
-                hora = fh.toLocalTime().truncatedTo(ChronoUnit.SECONDS).format(fmtHora);
+        long gen = ++generacionConsulta;
+        SwingWorker<ResultadoConsulta, Void> worker = new SwingWorker<>() {
+            @Override
+            protected ResultadoConsulta doInBackground() {
+                return consulta.apply(() -> isCancelled() || gen != generacionConsulta);
             }
 
-            // métricas
-            int intentos = r.getIntentosTotales();
-            int errores = r.getErroresTotales();
-            int pistas = r.getPistasUsadas();
-            double durS = r.getDuracionMs() <= 0 ? 0.0 : (r.getDuracionMs() / 1000.0);
-            String durTxt = (durS <= 0) ? "—" : String.format(java.util.Locale.US, "%.1f", durS);
-
-            String precTxt = "—";
-            if (intentos > 0) {
-                double prec = (double) r.getAciertosTotales() / (double) intentos;
-                precTxt = String.format(java.util.Locale.US, "%.0f%%", prec * 100.0);
+            @Override
+            protected void done() {
+                if (isCancelled() || gen != generacionConsulta) return;
+                consultaEnCurso = null;
+                try {
+                    ResultadoConsulta res = get();
+                    if (res == null) return;
+                    tablaModelo.setDatos(res.lista, res.orden);
+                    aplicarKpis(res.kpis);
+                    actualizarKpiPia();
+                } catch (Exception ex) {
+                    AppLog.error("Error consultando sesiones del Dashboard.", ex);
+                }
             }
+        };
+        consultaEnCurso = worker;
+        worker.execute();
+    }
 
-            String piaTxt = (r.getIdPia() != null && !r.getIdPia().isBlank()) ? "Sí" : "—";
-            String objTxt = obtenerTextoObjetivo(r);
-
-            filasTabla.add(r);
+    private Comparator<SesionJuego> comparadorOrden(boolean atajoOrdenarPorPuntajeDesc) {
+        String ordenSel = atajoOrdenarPorPuntajeDesc ? "Puntaje (mayor)" : (String) cbOrden.getSelectedItem();
+        if (ordenSel == null) ordenSel = "Fecha (más reciente)";
 
-            tablaModelo.addRow(new Object[]{
-                    r.getIdEstudiante(),
-                    r.getNombreEstudiante(),
-                    r.getAula(),
-                    nombreJuego,
-                    r.getDificultad(),
-                    r.getPuntaje(),
-                    intentos,
-                    errores,
-                    pistas,
-                    durTxt,
-                    precTxt,
-                    piaTxt,
-                    objTxt,
-                    fecha,
-                    hora
-            });
-        }
+        return switch (ordenSel) {
+            case "Fecha (más antigua)" -> Comparator.comparing(
+                    SesionJuego::getFechaHora,
+                    Comparator.nullsLast(Comparator.naturalOrder())
+            );
+            case "Puntaje (menor)" -> Comparator.comparingInt(SesionJuego::getPuntaje);
+            case "Puntaje (mayor)" -> Comparator.comparingInt(SesionJuego::getPuntaje).reversed();
+            default -> Comparator.comparing(
+                    SesionJuego::getFechaHora,
+                    Comparator.nullsLast(Comparator.naturalOrder())
+            ).reversed();
+        };
     }
 
 
@@ -1452,13 +1419,7 @@ public class DashboardPanel extends JPanel {
         if (s.getIdPia() == null || s.getIdPia().isBlank()) return "—";
         if (s.getIdObjetivoPia() == null || s.getIdObjetivoPia().isBlank()) return "—";
 
-        PIA pia = null;
-        for (PIA p : piaService.obtenerTodos()) {
-            if (p != null && s.getIdPia().equals(p.getIdPia())) { pia = p; break; }
-        }
-        if (pia == null) return "—";
-
-        ObjetivoPIA obj = pia.getObjetivoPorId(s.getIdObjetivoPia());
+        ObjetivoPIA obj = piaService.obtenerObjetivo(s.getIdPia(), s.getIdObjetivoPia());
         if (obj == null) return "—";
 
         String desc = (obj.getDescripcion() == null) ? "" : obj.getDescripcion().trim();
@@ -1496,13 +1457,10 @@ public class DashboardPanel extends JPanel {
         String objetivoInfo = "—";
 
         if (s.getIdPia() != null && !s.getIdPia().isBlank()) {
-            PIA pia = null;
-            for (PIA p : piaService.obtenerTodos()) {
-                if (p != null && s.getIdPia().equals(p.getIdPia())) { pia = p; break; }
-            }
+            PIA pia = piaService.obtenerPorId(s.getIdPia());
             if (pia != null) {
                 piaInfo = "Activo/Registrado (id: " + pia.getIdPia() + ")";
-                ObjetivoPIA obj = (s.getIdObjetivoPia() != null) ? pia.getObjetivoPorId(s.getIdObjetivoPia()) : null;
+                ObjetivoPIA obj = piaService.obtenerObjetivo(pia.getIdPia(), s.getIdObjetivoPia());
                 if (obj != null) {
                     objetivoInfo = "Juego " + obj.getJuegoId() + " — " +
                             (obj.getDescripcion() == null ? "" : obj.getDescripcion()) +
@@ -1521,7 +1479,8 @@ public class DashboardPanel extends JPanel {
                 "Aula: " + safe(s.getAula()) + "\n" +
                 "Juego: " + safe(nombreJuego) + "\n" +
                 "Dificultad: " + s.getDificultad() + "\n" +
-                "Puntaje: " + s.getPuntaje() + "\n\n" +
+                "Puntaje: " + s.getPuntaje() +
+                        ((s.getPuntajeAnterior() != null) ? " (antes: " + s.getPuntajeAnterior() + ", v" + s.getVersionPuntajeAnterior() + ")" : "") + "\n\n" +
                 "Inicio: " + inicio + "\n" +
                 "Fin: " + fin + "\n" +
                 "Duración: " + durTxt + "\n\n" +
@@ -1556,56 +1515,17 @@ public class DashboardPanel extends JPanel {
         return (s == null || s.isBlank()) ? "—" : s;
     }
 
-private void actualizarKpis(List<SesionJuego> lista) {
+private void aplicarKpis(KpisTabla k) {
         if (lblKpiPartidas == null) return;
 
-        int total = lista.size();
-        int suma = 0;
-        SesionJuego mejor = null;
-
-        Map<String, Integer> conteoAula = new HashMap<>();
-
-        for (SesionJuego r : lista) {
-            suma += r.getPuntaje();
-
-            if (mejor == null || r.getPuntaje() > mejor.getPuntaje()) {
-                mejor = r;
-            }
-
-            String aula = (r.getAula() == null || r.getAula().isBlank()) ? "Sin aula" : r.getAula();
-            conteoAula.put(aula, conteoAula.getOrDefault(aula, 0) + 1);
-        }
-
-        if (mejor != null) {
-            ultimoIdMejor = mejor.getIdEstudiante();
-            ultimoNombreMejor = mejor.getNombreEstudiante();
-        } else {
-            ultimoIdMejor = null;
-            ultimoNombreMejor = null;
-        }
-
-        int promedio = (total == 0) ? 0 : (suma / total);
+        ultimoIdMejor = k.idMejor;
+        ultimoNombreMejor = k.nombreMejor;
+        ultimaAulaActiva = k.aulaActiva; // <-- clave para el click
 
-        String mejorTxt = (mejor == null)
-                ? "-"
-                : mejor.getPuntaje() + " • " + (mejor.getNombreEstudiante() == null ? "" : mejor.getNombreEstudiante());
-
-        String aulaActiva = "-";
-        ultimaAulaActiva = null;
-
-        int max = -1;
-        for (Map.Entry<String, Integer> e : conteoAula.entrySet()) {
-            if (e.getValue() > max) {
-                max = e.getValue();
-                ultimaAulaActiva = e.getKey(); // <-- clave para el click
-                aulaActiva = e.getKey() + " (" + e.getValue() + ")";
-            }
-        }
-
-        lblKpiPartidas.setText(kpiHtml("Partidas", String.valueOf(total)));
-        lblKpiPromedio.setText(kpiHtml("Promedio", String.valueOf(promedio)));
-        lblKpiMejor.setText(kpiHtml("Mejor", mejorTxt));
-        lblKpiAulaActiva.setText(kpiHtml("Aula activa", aulaActiva));
+        lblKpiPartidas.setText(kpiHtml("Partidas", String.valueOf(k.total)));
+        lblKpiPromedio.setText(kpiHtml("Promedio", String.valueOf(k.promedio)));
+        lblKpiMejor.setText(kpiHtml("Mejor", k.mejorTxt));
+        lblKpiAulaActiva.setText(kpiHtml("Aula activa", k.aulaActivaTxt));
     }
 
     private void actualizarKpiPia() {
@@ -1660,4 +1580,253 @@ private void actualizarKpis(List<SesionJuego> lista) {
                 "<div style='font-size:18px; font-weight:bold;'>" + valor + "</div>" +
                 "</div></html>";
     }
-}
\ No newline at end of file
+
+    /** Resultado de una consulta del Dashboard (calculado fuera del EDT). */
+    private static final class ResultadoConsulta {
+        final List<SesionJuego> lista;
+        final int[] orden;
+        final KpisTabla kpis;
+
+        private ResultadoConsulta(List<SesionJuego> lista, int[] orden, KpisTabla kpis) {
+            this.lista = lista;
+            this.orden = orden;
+            this.kpis = kpis;
+        }
+
+        static ResultadoConsulta de(List<SesionJuego> lista, Comparator<SesionJuego> comp) {
+            int[] orden = SesionesTableModel.calcularOrden(lista, comp);
+            KpisTabla kpis = KpisTabla.calcular(SesionesTableModel.vistaOrdenada(lista, orden));
+            return new ResultadoConsulta(lista, orden, kpis);
+        }
+
+        /** Con los KPIs ya calculados (desde el resumen diario). */
+        static ResultadoConsulta de(List<SesionJuego> lista, Comparator<SesionJuego> comp, KpisTabla kpis) {
+            return new ResultadoConsulta(lista, SesionesTableModel.calcularOrden(lista, comp), kpis);
+        }
+    }
+
+    /** KPIs de la tabla (partidas, promedio, mejor puntaje y aula con más sesiones). */
+    private static final class KpisTabla {
+        int total;
+        int promedio;
+        String mejorTxt = "-";
+        Integer idMejor;
+        String nombreMejor;
+        String aulaActiva;
+        String aulaActivaTxt = "-";
+
+        static KpisTabla calcular(List<SesionJuego> lista) {
+            KpisTabla k = new KpisTabla();
+            k.total = lista.size();
+            int suma = 0;
+            SesionJuego mejor = null;
+
+            Map<String, Integer> conteoAula = new HashMap<>();
+
+            for (SesionJuego r : lista) {
+                suma += r.getPuntaje();
+
+                if (mejor == null || r.getPuntaje() > mejor.getPuntaje()) {
+                    mejor = r;
+                }
+
+                String aula = (r.getAula() == null || r.getAula().isBlank()) ? "Sin aula" : r.getAula();
+                conteoAula.put(aula, conteoAula.getOrDefault(aula, 0) + 1);
+            }
+
+            if (mejor != null) {
+                k.idMejor = mejor.getIdEstudiante();
+                k.nombreMejor = mejor.getNombreEstudiante();
+                k.mejorTxt = mejor.getPuntaje() + " • " + (mejor.getNombreEstudiante() == null ? "" : mejor.getNombreEstudiante());
+            }
+
+            k.promedio = (k.total == 0) ? 0 : (suma / k.total);
+            k.elegirAulaActiva(conteoAula);
+            return k;
+        }
+
+        /** Los mismos KPIs a partir de totales pre-agregados (sin recorrer las sesiones). */
+        static KpisTabla desdeResumen(ResumenDiario.Totales t) {
+            KpisTabla k = new KpisTabla();
+            k.total = t.sesiones;
+            k.promedio = (t.sesiones == 0) ? 0 : (int) (t.sumaPuntaje / t.sesiones);
+            if (t.sesiones > 0) {
+                k.idMejor = t.idMejor;
+                k.nombreMejor = t.nombreMejor;
+                k.mejorTxt = t.puntajeMax + " • " + (t.nombreMejor == null ? "" : t.nombreMejor);
+            }
+            k.elegirAulaActiva(t.porAula);
+            return k;
+        }
+
+        private void elegirAulaActiva(Map<String, Integer> conteoAula) {
+            int max = -1;
+            for (Map.Entry<String, Integer> e : conteoAula.entrySet()) {
+                if (e.getValue() > max) {
+                    max = e.getValue();
+                    aulaActiva = e.getKey();
+                    aulaActivaTxt = e.getKey() + " (" + e.getValue() + ")";
+                }
+            }
+        }
+    }
+
+    /**
+     * Modelo de la tabla de resultados respaldado directamente por la lista filtrada.
+     *
+     * - Las celdas de una fila se arman la primera vez que se pintan y quedan en caché.
+     * - Ordenar solo reordena el arreglo de índices (la caché se conserva).
+     * - El texto de objetivo se resuelve una vez por (idPia, idObjetivo).
+     */
+    private static final class SesionesTableModel extends AbstractTableModel {
+
+        private static final String[] COLUMNAS = {
+                "ID", "Estudiante", "Aula", "Juego", "Dificultad", "Puntaje", "Intentos", "Errores", "Pistas",
+                "Duración(s)", "Precisión", "PIA", "Objetivo", "Fecha", "Hora"
+        };
+        private static final DateTimeFormatter FMT_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        private static final DateTimeFormatter FMT_HORA = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+        private final java.util.function.Function<SesionJuego, String> textoObjetivo;
+        private final Map<String, String> cacheObjetivos = new HashMap<>();
+
+        private List<SesionJuego> datos = Collections.emptyList();
+        private int[] orden = new int[0];       // fila visible -> índice en datos
+        private Object[][] celdas = new Object[0][];  // por índice en datos (no por fila visible)
+
+        SesionesTableModel(java.util.function.Function<SesionJuego, String> textoObjetivo) {
+            this.textoObjetivo = textoObjetivo;
+        }
+
+        /** Reemplaza el contenido (la lista no se copia: no modificarla después). */
+        void setDatos(List<SesionJuego> sesiones, int[] ordenCalculado) {
+            List<SesionJuego> nuevos = (sesiones == null) ? Collections.emptyList() : sesiones;
+            // Si solo cambió el orden, se conserva la caché de celdas
+            if (nuevos != datos) {
+                celdas = new Object[nuevos.size()][];
+                cacheObjetivos.clear();
+            }
+            datos = nuevos;
+            orden = ordenCalculado;
+            fireTableDataChanged();
+        }
+
+        List<SesionJuego> getDatos() {
+            return datos;
+        }
+
+        /** Vista (sin copiar) de las sesiones en el orden indicado. */
+        static List<SesionJuego> vistaOrdenada(List<SesionJuego> d, int[] o) {
+            return new AbstractList<>() {
+                @Override
+                public SesionJuego get(int i) {
+                    return d.get(o[i]);
+                }
+
+                @Override
+                public int size() {
+                    return o.length;
+                }
+            };
+        }
+
+        SesionJuego getSesion(int row) {
+            if (row < 0 || row >= orden.length) return null;
+            return datos.get(orden[row]);
+        }
+
+        @Override
+        public int getRowCount() {
+            return orden.length;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNAS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNAS[column];
+        }
+
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            int idx = orden[row];
+            Object[] fila = celdas[idx];
+            if (fila == null) {
+                fila = construirFila(datos.get(idx));
+                celdas[idx] = fila;
+            }
+            return fila[column];
+        }
+
+        static int[] calcularOrden(List<SesionJuego> d, Comparator<SesionJuego> comp) {
+            int n = d.size();
+            Integer[] idx = new Integer[n];
+            for (int i = 0; i < n; i++) idx[i] = i;
+            if (comp != null) {
+                Arrays.sort(idx, (a, b) -> comp.compare(d.get(a), d.get(b)));  // estable, como List.sort
+            }
+            int[] out = new int[n];
+            for (int i = 0; i < n; i++) out[i] = idx[i];
+            return out;
+        }
+
+        private Object[] construirFila(SesionJuego r) {
+            String nombreJuego = (r.getJuego() == null) ? "" : r.getJuego().getNombre();
+
+            LocalDateTime fh = r.getFechaHora();
+            String fecha = "";
+            String hora = "";
+            if (fh != null) {
+                fecha = fh.toLocalDate().format(FMT_FECHA);
+                hora = fh.toLocalTime().truncatedTo(ChronoUnit.SECONDS).format(FMT_HORA);
+            }
+
+            // métricas
+            int intentos = r.getIntentosTotales();
+            int errores = r.getErroresTotales();
+            int pistas = r.getPistasUsadas();
+            double durS = r.getDuracionMs() <= 0 ? 0.0 : (r.getDuracionMs() / 1000.0);
+            String durTxt = (durS <= 0) ? "—" : String.format(java.util.Locale.US, "%.1f", durS);
+
+            String precTxt = "—";
+            if (intentos > 0) {
+                double prec = (double) r.getAciertosTotales() / (double) intentos;
+                precTxt = String.format(java.util.Locale.US, "%.0f%%", prec * 100.0);
+            }
+
+            boolean conPia = r.getIdPia() != null && !r.getIdPia().isBlank();
+            String piaTxt = conPia ? "Sí" : "—";
+            String objTxt = "—";
+            if (conPia && r.getIdObjetivoPia() != null && !r.getIdObjetivoPia().isBlank()) {
+                objTxt = cacheObjetivos.computeIfAbsent(r.getIdPia() + "|" + r.getIdObjetivoPia(),
+                        k -> textoObjetivo.apply(r));
+            }
+
+            return new Object[]{
+                    r.getIdEstudiante(),
+                    r.getNombreEstudiante(),
+                    r.getAula(),
+                    nombreJuego,
+                    r.getDificultad(),
+                    r.getPuntaje(),
+                    intentos,
+                    errores,
+                    pistas,
+                    durTxt,
+                    precTxt,
+                    piaTxt,
+                    objTxt,
+                    fecha,
+                    hora
+            };
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.jasgames.model.UiSettings;
 import com.jasgames.service.AppContext;
 import com.jasgames.service.JuegoService;
 import com.jasgames.model.Actividad;
+import com.jasgames.model.EstimadorCuantiles;
 import com.jasgames.model.Nino;
 import com.jasgames.model.SesionJuego;
 import com.jasgames.service.PerfilService;
@@ -749,44 +750,8 @@ public class EstudianteWindow extends JFrame implements JuegoListener {
                 String nombre = (ninoActual != null) ? ninoActual.getNombre() : "Desconocido";
                 String aula = (ninoActual != null) ? ninoActual.getAula() : null;
 
-                LocalDateTime fechaFin = LocalDateTime.now();
-                long durMs = actividad.getDuracionMs();
-                if (durMs < 0) durMs = 0;
-
-                // Inicio real estimado usando la duración (para reportes correctos)
-                LocalDateTime fechaInicio = (durMs > 0)
-                        ? fechaFin.minusNanos(durMs * 1_000_000L)
-                        : fechaFin;
-
-                SesionJuego sesion = new SesionJuego(
-                        id,
-                        nombre,
-                        aula,
-                        actividad.getJuego(),
-                        actividad.getNivel(),
-                        0,
-                        fechaInicio
-                );
-
-                // Copiar métricas desde Actividad
-                sesion.setFechaFin(fechaFin);
-                sesion.setDuracionMs(durMs);
-                sesion.setRondasTotales(actividad.getRondasMeta());
-                sesion.setRondasCompletadas(actividad.getRondasJugadas());
-
-                sesion.setAciertosTotales(actividad.getRondasCorrectas());
-                sesion.setErroresTotales(actividad.getErroresTotales());
-                sesion.setIntentosTotales(actividad.getIntentosTotales());
-                sesion.setPistasUsadas(actividad.getPistasUsadas());
-                sesion.setAciertosPrimerIntento(actividad.getAciertosPrimerIntento());
-
-                sesion.setIntentosMaxPorRonda(actividad.getIntentosMaxPorRonda());
-                sesion.setPistasDesdeIntento(actividad.getPistasDesdeIntento());
-
-                // Dificultad inicial/final (adaptación automática puede modificar la final)
-                sesion.setDificultadInicial(actividad.getNivel());
-                sesion.setDificultadFinal(actividad.getNivel());
-                sesion.setDificultadAdaptada(false);
+                // Métricas copiadas desde Actividad; inicio real estimado usando la duración
+                SesionJuego sesion = SesionJuego.desdeActividad(actividad, id, nombre, aula, LocalDateTime.now());
 
                 // Historial (antes de registrar la sesión actual)
                 java.util.List<SesionJuego> historial = java.util.Collections.emptyList();
@@ -794,11 +759,26 @@ public class EstudianteWindow extends JFrame implements JuegoListener {
                     historial = sesionService.obtenerUltimasPorNinoYJuego(id, actividad.getJuego().getId(), 3);
                 }
 
+                // Estimador de duración (niño, juego); la primera vez se siembra con su historial
+                int idJuego = actividad.getJuego().getId();
+                EstimadorCuantiles duraciones = null;
+                if (ninoActual != null) {
+                    duraciones = ninoActual.getDuracionJuego(idJuego);
+                    if (duraciones == null && id != null) {
+                        java.util.List<SesionJuego> previas = sesionService.obtenerUltimasPorNinoYJuego(id, idJuego, Integer.MAX_VALUE);
+                        for (int i = previas.size() - 1; i >= 0; i--) {
+                            ninoActual.registrarDuracionJuego(idJuego, previas.get(i).getDuracionMs());
+                        }
+                        duraciones = ninoActual.getDuracionJuego(idJuego);
+                    }
+                }
+
                 // Score 0..100 (precisión + consistencia + tiempo)
-                int score = ScoreService.calcularScore(sesion, historial);
+                int score = ScoreService.calcularScore(sesion, historial, duraciones);
                 scoreHolder[0] = score;
 
                 sesion.setPuntaje(score);
+                sesion.setVersionPuntaje(ScoreService.VERSION);
                 actividad.setPuntos(score);
 
                 // Adaptación automática (usa últimas 3 sesiones, incluyendo la actual)
@@ -828,6 +808,7 @@ public class EstudianteWindow extends JFrame implements JuegoListener {
 
                 if (ninoActual != null) {
                     ninoActual.agregarPuntos(score);
+                    ninoActual.registrarDuracionJuego(idJuego, sesion.getDuracionMs());
                     perfilService.actualizarNino(ninoActual);
                 }
 
@@ -1,6 +1,8 @@
 package com.jasgames.ui;
 
+import com.jasgames.model.HabilidadJuego;
 import com.jasgames.model.Juego;
+import com.jasgames.model.MotorAdaptacion;
 import com.jasgames.model.Nino;
 import com.jasgames.service.JuegoService;
 import com.jasgames.service.PerfilService;
@@ -107,6 +109,8 @@ public class JuegosPanel extends JPanel {
     private JSpinner spDifPersonal;
     private JButton btnAplicarEditor;
     private JButton btnResetGlobalSel;
+    private JComboBox<MotorAdaptacion> cboMotorAdaptacion;
+    private boolean ignoreMotorEvents = false;
 
     // Tablas
     private JTable tblCatalogo;
@@ -525,6 +529,11 @@ public class JuegosPanel extends JPanel {
         btnResetGlobalSel = new JButton("Reset a GLOBAL (selección)");
         btnResetGlobalSel.setToolTipText("Quita el override y vuelve a usar la dificultad global del catálogo");
 
+        cboMotorAdaptacion = new JComboBox<>(MotorAdaptacion.values());
+        cboMotorAdaptacion.setToolTipText("<html>Cómo se ajusta la dificultad automática de este estudiante:<br>" +
+                "Reglas = según las últimas sesiones (con espera entre cambios).<br>" +
+                "Habilidad estimada = apunta al nivel estimado por juego a partir de todas sus sesiones.</html>");
+
         // Layout
         c.gridx = 0; c.gridy = 0; c.gridwidth = 3; c.weightx = 1;
         p.add(ttl, c);
@@ -554,6 +563,13 @@ public class JuegosPanel extends JPanel {
         c.gridx = 1;
         p.add(btnResetGlobalSel, c);
 
+        c.gridx = 0; c.gridy = 5; c.gridwidth = 3; c.weightx = 1;
+        JPanel motorBox = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 0));
+        motorBox.setOpaque(false);
+        motorBox.add(new JLabel("Adaptación automática:"));
+        motorBox.add(cboMotorAdaptacion);
+        p.add(motorBox, c);
+
         // Enable/disable spinner según modo
         rbUsarGlobal.addActionListener(e -> spDifPersonal.setEnabled(false));
         rbPersonalizar.addActionListener(e -> spDifPersonal.setEnabled(true));
@@ -727,6 +743,12 @@ public class JuegosPanel extends JPanel {
         btnAplicarEditor.addActionListener(e -> onAplicarEditorDificultad());
         btnResetGlobalSel.addActionListener(e -> resetGlobalEnSeleccionAsignacion());
 
+        // Editor: motor de adaptación (se guarda al elegirlo)
+        cboMotorAdaptacion.addActionListener(e -> {
+            if (ignoreMotorEvents) return;
+            onCambiarMotorAdaptacion();
+        });
+
         // Editor: cuando cambia selección en la tabla, actualiza hint
         tblAsignacion.getSelectionModel().addListSelectionListener(new ListSelectionListener() {
             @Override public void valueChanged(ListSelectionEvent e) {
@@ -1173,6 +1195,15 @@ public class JuegosPanel extends JPanel {
 
     private void actualizarAsignacionesParaSeleccionado() {
         Nino seleccionado = (Nino) cboNinos.getSelectedItem();
+
+        ignoreMotorEvents = true;
+        try {
+            cboMotorAdaptacion.setSelectedItem(seleccionado == null ? MotorAdaptacion.REGLAS : seleccionado.getMotorAdaptacion());
+            cboMotorAdaptacion.setEnabled(seleccionado != null);
+        } finally {
+            ignoreMotorEvents = false;
+        }
+
         if (seleccionado == null) {
             asignacionModel.setRows(Collections.emptyList());
             updateEditorFromSelection();
@@ -1234,7 +1265,7 @@ public class JuegosPanel extends JPanel {
             int mr = tblAsignacion.convertRowIndexToModel(viewRows[0]);
             AsignacionRow r = asignacionModel.getRowAt(mr);
 
-            lblEditorJuego.setText("Seleccionado: " + r.nombre + "  (#" + r.idJuego + ")");
+            lblEditorJuego.setText("Seleccionado: " + r.nombre + "  (#" + r.idJuego + ")" + textoHabilidad(r.idJuego));
 
             if (r.personalOverride) {
                 rbPersonalizar.setSelected(true);
@@ -1255,6 +1286,23 @@ public class JuegosPanel extends JPanel {
         spDifPersonal.setValue(1);
     }
 
+    /** " · habilidad estimada 2.4 ± 0.3" para el estudiante seleccionado, o vacío si aún no jugó. */
+    private String textoHabilidad(int idJuego) {
+        Nino seleccionado = (Nino) cboNinos.getSelectedItem();
+        HabilidadJuego h = (seleccionado == null) ? null : seleccionado.getHabilidadJuego(idJuego);
+        if (h == null) return "";
+        return String.format("  ·  habilidad estimada %.1f ± %.1f", h.getNivel(), h.getIncertidumbre());
+    }
+
+    private void onCambiarMotorAdaptacion() {
+        Nino seleccionado = (Nino) cboNinos.getSelectedItem();
+        MotorAdaptacion motor = (MotorAdaptacion) cboMotorAdaptacion.getSelectedItem();
+        if (seleccionado == null || motor == null || motor == seleccionado.getMotorAdaptacion()) return;
+
+        seleccionado.setMotorAdaptacion(motor);
+        perfilService.actualizarNino(seleccionado);
+    }
+
     private void setAsignadoSeleccion(boolean v) {
         stopEditingSafely(tblAsignacion);
         int[] viewRows = tblAsignacion.getSelectedRows();
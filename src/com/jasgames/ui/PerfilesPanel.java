@@ -1157,10 +1157,7 @@ public class PerfilesPanel extends JPanel {
                 int nuevoJuego = (Integer) spJuegoId.getValue();
                 if (nuevoJuego != o.getJuegoId()) {
                     o.setJuegoId(nuevoJuego);
-                    o.setProgresoRondasCorrectas(0);
-                    o.setProgresoSesionesCompletadas(0);
-                    o.setCompletado(false);
-                    o.setFechaCompletado(null);
+                    o.reiniciarProgreso();
                 }
 
                 o.setDescripcion(txtDesc.getText().trim());
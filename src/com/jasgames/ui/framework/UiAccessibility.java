@@ -1,5 +1,7 @@
 package com.jasgames.ui.framework;
 
+import com.jasgames.util.GlyphCache;
+
 import javax.swing.*;
 import java.awt.*;
 
@@ -19,6 +21,7 @@ public final class UiAccessibility {
     public static void applyLargeText(Component root, boolean enabled) {
         if (root == null) return;
         float scale = enabled ? 1.18f : 1.0f;
+        GlyphCache.setTextScale(scale);
         applyFontScale(root, scale);
     }
 
@@ -1,6 +1,8 @@
 package com.jasgames.ui.juegos;
 
 import com.jasgames.model.Actividad;
+import com.jasgames.ui.juegos.framework.RelojAnimacion;
+
 import javax.swing.*;
 import java.awt.*;
 
@@ -68,6 +70,13 @@ public abstract class BaseJuegoPanel extends JPanel {
         }
     }
 
+    /** Al salir del juego se cortan sus animaciones del reloj compartido (fades, pulsos, esperas). */
+    @Override
+    public void removeNotify() {
+        RelojAnimacion.cancelar(this);
+        super.removeNotify();
+    }
+
     public Actividad getActividadActual() {
         return actividadActual;
     }
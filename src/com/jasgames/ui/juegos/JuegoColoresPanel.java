@@ -2,8 +2,10 @@ package com.jasgames.ui.juegos;
 
 import com.jasgames.model.Actividad;
 import com.jasgames.ui.juegos.framework.JuegoRondasPanel;
+import com.jasgames.ui.juegos.framework.RelojAnimacion;
 import com.jasgames.ui.juegos.framework.AccesibleUI;
 import com.jasgames.ui.juegos.framework.Paletas;
+import com.jasgames.util.GlyphCache;
 
 import javax.swing.*;
 import java.awt.*;
@@ -11,7 +13,6 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.*;
 import java.util.List;
-import javax.swing.Timer;
 
 /**
  * Minijuego 1: Discriminación de Colores (clickeable en lienzo)
@@ -71,7 +72,7 @@ public class JuegoColoresPanel extends JuegoRondasPanel {
     protected void onAntesDeSalir() {
         if (opciones != null) {
             for (OpcionColor op : opciones) {
-                if (op != null && op.fadeTimer != null && op.fadeTimer.isRunning()) op.fadeTimer.stop();
+                if (op != null) op.detenerFade();
             }
         }
     }
@@ -120,7 +121,7 @@ public class JuegoColoresPanel extends JuegoRondasPanel {
         List<Paletas.ColorNombre> seleccion = base.subList(0, Math.min(cantidadOpciones, base.size()));
 
         for (OpcionColor op : opciones) {
-            if (op.fadeTimer != null && op.fadeTimer.isRunning()) op.fadeTimer.stop();
+            op.detenerFade();
         }
 
         opciones.clear();
@@ -204,8 +205,8 @@ public class JuegoColoresPanel extends JuegoRondasPanel {
         // Layout
         int cx, cy, r;
 
-        // Fade timer
-        Timer fadeTimer;
+        // Fade (reloj compartido)
+        RelojAnimacion.Tween fade;
 
         OpcionColor(Paletas.ColorNombre item) {
             this.item = item;
@@ -221,18 +222,19 @@ public class JuegoColoresPanel extends JuegoRondasPanel {
             if (!enabled) return;
             enabled = false;
 
-            if (fadeTimer != null && fadeTimer.isRunning()) fadeTimer.stop();
+            detenerFade();
             alpha = 1f;
 
-            fadeTimer = new Timer(35, e -> {
-                alpha -= 0.08f;
-                if (alpha <= 0.25f) {
-                    alpha = 0.25f;
-                    ((Timer) e.getSource()).stop();
-                }
-                if (repaintTarget != null) repaintTarget.repaint();
-            });
-            fadeTimer.start();
+            // 1 -> 0.25 en ~350 ms; solo se repinta el círculo
+            fade = RelojAnimacion.animar(repaintTarget, 350, RelojAnimacion.Easing.LINEAL, t -> {
+                alpha = (float) (1.0 - 0.75 * t);
+                RelojAnimacion.repintar(repaintTarget, new Rectangle(cx - r - 2, cy - r - 2, 2 * r + 4, 2 * r + 4));
+            }, null);
+        }
+
+        void detenerFade() {
+            if (fade != null) fade.cancel();
+            fade = null;
         }
     }
 
@@ -311,11 +313,8 @@ public class JuegoColoresPanel extends JuegoRondasPanel {
                 int bottomY = topH;
 
                 // Texto corto (no depender de lectura)
-                g2.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 16));
                 g2.setColor(new Color(90, 90, 90));
-                String t = "Busca este color:";
-                int tw = g2.getFontMetrics().stringWidth(t);
-                g2.drawString(t, (w - tw) / 2, 26);
+                GlyphCache.drawCentered(g2, GlyphCache.font(Font.SANS_SERIF, Font.PLAIN, 16), "Busca este color:", w / 2, 26);
 
                 // Dibujo del objetivo: círculo grande centrado
                 int targetR = Math.min(w, topH) / 4;
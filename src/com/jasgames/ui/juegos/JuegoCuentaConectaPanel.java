@@ -1,14 +1,18 @@
 package com.jasgames.ui.juegos;
 
 import com.jasgames.model.Actividad;
+import com.jasgames.ui.juegos.framework.CachedLayerPanel;
 import com.jasgames.ui.juegos.framework.JuegoRondasPanel;
+import com.jasgames.ui.juegos.framework.RelojAnimacion;
 import com.jasgames.ui.juegos.framework.AccesibleUI;
 import com.jasgames.ui.juegos.framework.Paletas;
+import com.jasgames.util.GlyphCache;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
@@ -188,59 +192,75 @@ public class JuegoCuentaConectaPanel extends JuegoRondasPanel {
     }
 
     // -------------------- Lienzo --------------------
-    private class LienzoCuentaConecta extends JPanel {
+    private class LienzoCuentaConecta extends CachedLayerPanel {
 
+        // Las figuras quietas van a la capa; se regenera con otra ronda (centros/forma/color)
         @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
+        protected Object claveCapa() {
+            if (numeroObjetivo <= 0) return null;
+            int w = getWidth();
+            int h = getHeight();
+            int nivel = getNivelSeguro();
+            int size = calcularTamFigura(w, h, numeroObjetivo, nivel);
+            return Arrays.asList(obtenerCentros(numeroObjetivo, nivel, w, h, size), formaActual, colorActual);
+        }
+
+        // Durante el pulso late todo el tablero: se dibuja directo
+        @Override
+        protected boolean usarCapa() {
+            return getPulsoScale() == 1.0;
+        }
+
+        @Override
+        protected void pintarCapa(Graphics2D g2, int w, int h) {
+            dibujarFiguras(g2, w, h, 1.0);
+        }
+
+        @Override
+        protected void pintarEncima(Graphics2D g2, int w, int h) {
+            if (!usarCapa()) dibujarFiguras(g2, w, h, getPulsoScale());
+        }
+
+        private void dibujarFiguras(Graphics2D g2, int w, int h, double escala) {
             if (numeroObjetivo <= 0) return;
 
-            Graphics2D g2 = (Graphics2D) g.create();
-            try {
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            int nivel = getNivelSeguro();
 
-                int w = getWidth();
-                int h = getHeight();
-                int nivel = getNivelSeguro();
+            int size = calcularTamFigura(w, h, numeroObjetivo, nivel);
+            List<Point> centros = obtenerCentros(numeroObjetivo, nivel, w, h, size);
 
-                int size = calcularTamFigura(w, h, numeroObjetivo, nivel);
-                List<Point> centros = obtenerCentros(numeroObjetivo, nivel, w, h, size);
+            Color borde = AccesibleUI.BORDE_ACTIVO;
+            g2.setStroke(new BasicStroke(AccesibleUI.STROKE_GRUESO));
 
-                Color borde = AccesibleUI.BORDE_ACTIVO;
-                g2.setStroke(new BasicStroke(AccesibleUI.STROKE_GRUESO));
+            for (Point c : centros) {
+                int cx = c.x;
+                int cy = c.y;
+
+                int s = (int) Math.round(size * escala);
+                int x = cx - (s / 2);
+                int y = cy - (s / 2);
+
+                g2.setColor(colorActual);
 
-                for (Point c : centros) {
-                    int cx = c.x;
-                    int cy = c.y;
-
-                    int s = (int) Math.round(size * getPulsoScale());
-                    int x = cx - (s / 2);
-                    int y = cy - (s / 2);
-
-                    g2.setColor(colorActual);
-
-                    switch (formaActual) {
-                        case CIRCULO -> {
-                            g2.fillOval(x, y, s, s);
-                            g2.setColor(borde);
-                            g2.drawOval(x, y, s, s);
-                        }
-                        case CUADRADO -> {
-                            int arc = Math.max(10, s / 6);
-                            g2.fillRoundRect(x, y, s, s, arc, arc);
-                            g2.setColor(borde);
-                            g2.drawRoundRect(x, y, s, s, arc, arc);
-                        }
-                        case ESTRELLA -> {
-                            Polygon star = crearEstrella(cx, cy, s / 2, Math.max(8, s / 4), 5);
-                            g2.fillPolygon(star);
-                            g2.setColor(borde);
-                            g2.drawPolygon(star);
-                        }
+                switch (formaActual) {
+                    case CIRCULO -> {
+                        g2.fillOval(x, y, s, s);
+                        g2.setColor(borde);
+                        g2.drawOval(x, y, s, s);
+                    }
+                    case CUADRADO -> {
+                        int arc = Math.max(10, s / 6);
+                        g2.fillRoundRect(x, y, s, s, arc, arc);
+                        g2.setColor(borde);
+                        g2.drawRoundRect(x, y, s, s, arc, arc);
+                    }
+                    case ESTRELLA -> {
+                        Polygon star = crearEstrella(cx, cy, s / 2, Math.max(8, s / 4), 5);
+                        g2.fillPolygon(star);
+                        g2.setColor(borde);
+                        g2.drawPolygon(star);
                     }
                 }
-            } finally {
-                g2.dispose();
             }
         }
 
@@ -372,7 +392,7 @@ public class JuegoCuentaConectaPanel extends JuegoRondasPanel {
     private static class OpcionNumeroButton extends JButton {
         private int valor;
         private float alpha = 1f;
-        private Timer fadeTimer;
+        private RelojAnimacion.Tween fade;
 
         OpcionNumeroButton() {
             setOpaque(false);
@@ -389,31 +409,27 @@ public class JuegoCuentaConectaPanel extends JuegoRondasPanel {
             valor = nuevoValor;
             alpha = 1f;
             setEnabled(true);
-            if (fadeTimer != null && fadeTimer.isRunning()) fadeTimer.stop();
+            if (fade != null) fade.cancel();
             repaint();
         }
 
         void stopAnimations() {
-            if (fadeTimer != null && fadeTimer.isRunning()) fadeTimer.stop();
-            fadeTimer = null;
+            if (fade != null) fade.cancel();
+            fade = null;
         }
 
         void fadeOutAndDisable() {
             if (!isEnabled()) return;
             setEnabled(false);
 
-            if (fadeTimer != null && fadeTimer.isRunning()) fadeTimer.stop();
+            if (fade != null) fade.cancel();
             alpha = 1f;
 
-            fadeTimer = new Timer(35, e -> {
-                alpha -= 0.08f;
-                if (alpha <= 0.25f) {
-                    alpha = 0.25f;
-                    ((Timer) e.getSource()).stop();
-                }
-                repaint();
-            });
-            fadeTimer.start();
+            // 1 -> 0.25 en ~350 ms (reloj compartido)
+            fade = RelojAnimacion.animar(this, 350, RelojAnimacion.Easing.LINEAL, t -> {
+                alpha = (float) (1.0 - 0.75 * t);
+                RelojAnimacion.repintar(this);
+            }, null);
         }
 
         @Override
@@ -449,15 +465,14 @@ public class JuegoCuentaConectaPanel extends JuegoRondasPanel {
                 g2.setColor(border);
                 g2.drawOval(x + 2, y + 2, d - 4, d - 4);
 
-                String t = String.valueOf(valor);
-                g2.setFont(getFont());
-                FontMetrics fm = g2.getFontMetrics();
+                // Dígito maquetado una vez (se repinta en cada cuadro del fade)
+                GlyphCache.Glyph t = GlyphCache.glyph(getFont(), String.valueOf(valor));
 
-                int tx = (getWidth() - fm.stringWidth(t)) / 2;
-                int ty = (getHeight() + fm.getAscent()) / 2 - 8;
+                int tx = (getWidth() - t.width()) / 2;
+                int ty = (getHeight() + t.ascent()) / 2 - 8;
 
                 g2.setColor(text);
-                g2.drawString(t, tx, ty);
+                t.draw(g2, tx, ty);
 
             } finally {
                 g2.dispose();
@@ -3,10 +3,12 @@ package com.jasgames.ui.juegos;
 import com.jasgames.util.AppLog;
 import com.jasgames.audio.AudioPlayer;
 import com.jasgames.model.Actividad;
+import com.jasgames.ui.juegos.framework.CachedLayerPanel;
+import com.jasgames.ui.juegos.framework.RelojAnimacion;
+import com.jasgames.util.AssetVariants;
+import com.jasgames.util.ImageCache;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
-import javax.swing.Timer; // Mantener para el fade
 import javax.swing.border.CompoundBorder;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
@@ -14,7 +16,6 @@ import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
-import java.net.URL;
 import java.util.*;
 import java.util.List;
 
@@ -48,7 +49,7 @@ public class JuegoExplorandoVocalesPanel extends BaseJuegoPanel {
     private String audioPreguntaActual = null;
 
     private boolean bloqueado = false;
-    private Timer timerSiguiente = null;
+    private RelojAnimacion.Tween timerSiguiente = null;
 
     private boolean audioFeedbackEnCurso = false; // error / acierto+palabra
     private boolean audioPreguntaEnCurso = false; // repetir pregunta
@@ -62,8 +63,8 @@ public class JuegoExplorandoVocalesPanel extends BaseJuegoPanel {
     private ProgressDots dots;
 
     private volatile boolean disposed = false;
-    private Timer timerHold = null;   // el “espera 1200ms”
-    private Timer timerFade = null;   // el fadeBody
+    private RelojAnimacion.Tween timerHold = null;   // el “espera 1200ms”
+    private RelojAnimacion.Tween timerFade = null;   // el fadeBody
 
     // ====== Modelo interno ======
     private static class VocalItem {
@@ -86,6 +87,8 @@ public class JuegoExplorandoVocalesPanel extends BaseJuegoPanel {
 
         construirUI();
         construirBanco();
+        precargarAudios();
+        precargarImagenes();
 
         // NO llamar iniciarJuego() aquí (EstudianteWindow lo llama con invokeLater)
     }
@@ -294,6 +297,30 @@ public class JuegoExplorandoVocalesPanel extends BaseJuegoPanel {
         addItem('U', "UNO", "/assets/vocales/uno.png", AUDIO_VOCALES + "uno.wav");
     }
 
+    /** Feedback, preguntas y palabras: decodificados en segundo plano antes de la primera ronda. */
+    private void precargarAudios() {
+        List<String> rutas = new ArrayList<>();
+        rutas.add(AUDIO_JUEGO5 + "acierto.wav");
+        rutas.add(AUDIO_JUEGO5 + "error.wav");
+        rutas.add(AUDIO_JUEGO5 + "fin.wav");
+        for (char v : banco.keySet()) {
+            rutas.add(AUDIO_JUEGO5 + "pregunta_" + Character.toLowerCase(v) + ".wav");
+        }
+        for (List<VocalItem> items : banco.values()) {
+            for (VocalItem it : items) rutas.add(it.audioPath);
+        }
+        AudioPlayer.preload(rutas.toArray(new String[0]));
+    }
+
+    /** Primer arranque: genera las variantes reducidas en segundo plano. */
+    private void precargarImagenes() {
+        List<String> rutas = new ArrayList<>();
+        for (List<VocalItem> items : banco.values()) {
+            for (VocalItem it : items) rutas.add(it.imgPath);
+        }
+        AssetVariants.prepare(rutas);
+    }
+
     private void addItem(char vocal, String palabra, String imgPath, String audioPath) {
         banco.computeIfAbsent(vocal, k -> new ArrayList<>())
                 .add(new VocalItem(vocal, palabra, imgPath, audioPath));
@@ -301,13 +328,13 @@ public class JuegoExplorandoVocalesPanel extends BaseJuegoPanel {
 
     // 2) Agrega un helper para parar timers (debajo de tus métodos privados)
     private void stopAllTimers() {
-        if (timerSiguiente != null && timerSiguiente.isRunning()) timerSiguiente.stop();
+        if (timerSiguiente != null) timerSiguiente.cancel();
         timerSiguiente = null;
 
-        if (timerHold != null && timerHold.isRunning()) timerHold.stop();
+        if (timerHold != null) timerHold.cancel();
         timerHold = null;
 
-        if (timerFade != null && timerFade.isRunning()) timerFade.stop();
+        if (timerFade != null) timerFade.cancel();
         timerFade = null;
     }
 
@@ -382,9 +409,8 @@ public class JuegoExplorandoVocalesPanel extends BaseJuegoPanel {
         for (int i = 0; i < 3; i++) {
             VocalItem it = opciones.get(i);
             btnOpciones[i].putClientProperty("item", it);
-            Icon ic = loadIcon(it.imgPath, ICON_SIZE, ICON_SIZE);
-            btnOpciones[i].setIcon(ic);
-            btnOpciones[i].setDisabledIcon(makeTransparent(ic, 0.22f)); // suave
+            btnOpciones[i].setIcon(loadIcon(it.imgPath, ICON_SIZE, ICON_SIZE, 1f));
+            btnOpciones[i].setDisabledIcon(loadIcon(it.imgPath, ICON_SIZE, ICON_SIZE, 0.22f)); // suave
         }
 
         AudioPlayer.play(audioPreguntaActual, null);
@@ -445,11 +471,10 @@ public class JuegoExplorandoVocalesPanel extends BaseJuegoPanel {
                     AUDIO_JUEGO5 + "acierto.wav",
                     correctaActual.audioPath,
                     () -> {
-                        // 5) Cambia el Timer hold local por el field timerHold
-                        if (timerHold != null && timerHold.isRunning()) timerHold.stop();
+                        // 5) Espera en el reloj compartido (se cancela con el panel)
+                        if (timerHold != null) timerHold.cancel();
 
-                        timerHold = new Timer(1200, ev -> {
-                            ((Timer) ev.getSource()).stop();
+                        timerHold = RelojAnimacion.esperar(this, 1200, () -> {
                             timerHold = null;
 
                             if (disposed) return;
@@ -463,8 +488,6 @@ public class JuegoExplorandoVocalesPanel extends BaseJuegoPanel {
                                 fadeBody(0f, 1f, 220, null);
                             });
                         });
-                        timerHold.setRepeats(false);
-                        timerHold.start();
                     }
             );
 
@@ -550,74 +573,30 @@ public class JuegoExplorandoVocalesPanel extends BaseJuegoPanel {
         AudioPlayer.play(AUDIO_JUEGO5 + "fin.wav", () -> finalizarJuego(100));
     }
 
-    // 6) Cambia fadeBody(...) para usar timerFade (y cortarse si disposed)
+    // 6) fadeBody como tween del reloj compartido (se corta si disposed)
     private void fadeBody(float from, float to, int durationMs, Runnable onDone) {
         if (disposed) return;
 
-        if (timerFade != null && timerFade.isRunning()) timerFade.stop();
-
-        final int fps = 25;
-        final int delay = 1000 / fps;
-        final int steps = Math.max(1, durationMs / delay);
-        final int[] i = {0};
+        if (timerFade != null) timerFade.cancel();
 
         bodyAlpha = from;
         bodyPanel.repaint();
 
-        timerFade = new Timer(delay, null);
-        timerFade.addActionListener(e -> {
-            if (disposed) {
-                timerFade.stop();
-                timerFade = null;
-                return;
-            }
-
-            i[0]++;
-            float p = i[0] / (float) steps;
-            bodyAlpha = from + (to - from) * p;
+        timerFade = RelojAnimacion.animar(this, durationMs, RelojAnimacion.Easing.LINEAL, p -> {
+            bodyAlpha = from + (to - from) * (float) p;
+            RelojAnimacion.repintar(bodyPanel);
+        }, () -> {
+            timerFade = null;
+            bodyAlpha = to;
             bodyPanel.repaint();
-
-            if (i[0] >= steps) {
-                timerFade.stop();
-                timerFade = null;
-                bodyAlpha = to;
-                bodyPanel.repaint();
-                if (onDone != null && !disposed) onDone.run();
-            }
+            if (onDone != null && !disposed) onDone.run();
         });
-        timerFade.start();
-    }
-
-    private Icon loadIcon(String path, int w, int h) {
-        try {
-            URL url = getClass().getResource(path);
-            if (url == null) {
-                AppLog.warn("Imagen no encontrada: " + path);
-                return null;
-            }
-            BufferedImage img = ImageIO.read(url);
-            Image scaled = img.getScaledInstance(w, h, Image.SCALE_SMOOTH);
-            return new ImageIcon(scaled);
-        } catch (Exception e) {
-            AppLog.error("Error cargando imagen: " + path, e);
-            return null;
-        }
     }
 
-    private Icon makeTransparent(Icon icon, float alpha) {
-        if (!(icon instanceof ImageIcon)) return icon;
-
-        Image img = ((ImageIcon) icon).getImage();
-        int w = icon.getIconWidth();
-        int h = icon.getIconHeight();
-
-        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2 = out.createGraphics();
-        g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
-        g2.drawImage(img, 0, 0, null);
-        g2.dispose();
-
-        return new ImageIcon(out);
+    /** Icono desde la caché compartida (variante reducida a w×h, con la opacidad pedida). */
+    private Icon loadIcon(String path, int w, int h, float alpha) {
+        BufferedImage img = ImageCache.get(path, w, h, alpha);
+        return (img != null) ? new ImageIcon(img) : null;
     }
 
     private void setOpcionesEnabledRespetandoEliminadas(boolean enabled) {
@@ -674,6 +653,8 @@ public class JuegoExplorandoVocalesPanel extends BaseJuegoPanel {
         private boolean hover = false;
         private boolean correct = false;
         private boolean hint = false;
+        // Sombra + fondo + borde: solo cambian con el estado o el tamaño
+        private final CachedLayerPanel.Capa marco = new CachedLayerPanel.Capa();
 
         CardButton() {
             setOpaque(false);
@@ -716,11 +697,37 @@ public class JuegoExplorandoVocalesPanel extends BaseJuegoPanel {
 
         @Override
         protected void paintComponent(Graphics g) {
+            int w = getWidth();
+            int h = getHeight();
+            int pad = 10;
+            int arc = 30;
+
+            marco.pintar(g, this, List.of(isEnabled(), correct, hint, hover), this::pintarMarco);
+
             Graphics2D g2 = (Graphics2D) g.create();
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-            int w = getWidth();
-            int h = getHeight();
+            // ✅ CLIP: todo lo que pinte Swing (icono) queda dentro del card
+            Shape clip = new java.awt.geom.RoundRectangle2D.Float(
+                    pad + 6, pad + 6,
+                    w - 2 * (pad + 6), h - 2 * (pad + 6),
+                    arc - 4, arc - 4
+            );
+            g2.setClip(clip);
+
+            // pinta el icono usando el Graphics2D con clip
+            super.paintComponent(g2);
+
+            g2.dispose();
+        }
+
+        @Override
+        public void removeNotify() {
+            marco.liberar();
+            super.removeNotify();
+        }
+
+        private void pintarMarco(Graphics2D g2, int w, int h) {
             int pad = 10;
             int arc = 30;
 
@@ -748,19 +755,6 @@ public class JuegoExplorandoVocalesPanel extends BaseJuegoPanel {
             g2.setStroke(new BasicStroke(correct ? 5f : (hint ? 5f : 4f)));
             g2.setColor(border);
             g2.drawRoundRect(pad, pad, w - 2 * pad, h - 2 * pad, arc, arc);
-
-            // ✅ CLIP: todo lo que pinte Swing (icono) queda dentro del card
-            Shape clip = new java.awt.geom.RoundRectangle2D.Float(
-                    pad + 6, pad + 6,
-                    w - 2 * (pad + 6), h - 2 * (pad + 6),
-                    arc - 4, arc - 4
-            );
-            g2.setClip(clip);
-
-            // pinta el icono usando el Graphics2D con clip
-            super.paintComponent(g2);
-
-            g2.dispose();
         }
     }
 
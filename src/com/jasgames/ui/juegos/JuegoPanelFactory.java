@@ -1,29 +1,76 @@
 package com.jasgames.ui.juegos;
 
+import com.jasgames.audio.AudioPlayer;
 import com.jasgames.model.Actividad;
+import com.jasgames.service.JuegoModulo;
+import com.jasgames.service.ModulosJuego;
+import com.jasgames.util.AppLog;
+import com.jasgames.util.AssetVariants;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Crea el panel de un juego a partir de su módulo ({@link ModulosJuego}).
+ * La clase del panel se carga la primera vez que se abre ese juego; ahí también se
+ * preparan en segundo plano los recursos que declara el módulo.
+ */
 public final class JuegoPanelFactory {
 
+    // id de juego -> constructor (Actividad, JuegoListener) ya resuelto
+    private static final Map<Integer, Constructor<? extends BaseJuegoPanel>> CONSTRUCTORES = new ConcurrentHashMap<>();
+
     private JuegoPanelFactory() {}
 
     public static BaseJuegoPanel crearPanel(Actividad actividad, JuegoListener listener) {
         if (actividad == null || actividad.getJuego() == null) return null;
 
         int idJuego = actividad.getJuego().getId();
+        JuegoModulo modulo = ModulosJuego.buscar(idJuego);
+        if (modulo == null) {
+            AppLog.warn("No hay módulo instalado para el juego " + idJuego);
+            return null;
+        }
+
+        try {
+            Constructor<? extends BaseJuegoPanel> ctor = CONSTRUCTORES.get(idJuego);
+            if (ctor == null) {
+                ctor = resolver(modulo);
+                CONSTRUCTORES.put(idJuego, ctor);
+                prepararAssets(modulo);
+            }
+            return ctor.newInstance(actividad, listener);
+        } catch (InvocationTargetException e) {
+            AppLog.error("Error creando el juego " + idJuego, e.getCause());
+            return null;
+        } catch (Exception e) {
+            AppLog.error("Módulo de juego inválido: " + modulo.getClass().getName(), e);
+            return null;
+        }
+    }
+
+    private static Constructor<? extends BaseJuegoPanel> resolver(JuegoModulo modulo) throws ReflectiveOperationException {
+        Class<?> c = Class.forName(modulo.getClasePanel(), true, modulo.getClass().getClassLoader());
+        if (!BaseJuegoPanel.class.isAssignableFrom(c)) {
+            throw new ClassCastException(c.getName() + " no extiende BaseJuegoPanel");
+        }
+        return c.asSubclass(BaseJuegoPanel.class).getConstructor(Actividad.class, JuegoListener.class);
+    }
 
-        switch (idJuego) {
-            case 1:
-                return new JuegoColoresPanel(actividad, listener);
-            case 2:
-                return new JuegoCuentaConectaPanel(actividad, listener);
-            case 3:
-                return new JuegoSigueSeriePanel(actividad, listener);
-            case 4:
-                return new JuegoVocalesDivertidasPanel(actividad, listener);
-            case 5:
-                return new JuegoExplorandoVocalesPanel(actividad, listener);
-            default:
-                return null;
+    private static void prepararAssets(JuegoModulo modulo) {
+        List<String> imagenes = new ArrayList<>();
+        List<String> audios = new ArrayList<>();
+        for (String ruta : modulo.getAssets()) {
+            if (ruta == null) continue;
+            String r = ruta.toLowerCase();
+            if (r.endsWith(".wav")) audios.add(ruta);
+            else if (r.endsWith(".png") || r.endsWith(".jpg")) imagenes.add(ruta);
         }
+        if (!imagenes.isEmpty()) AssetVariants.prepare(imagenes);
+        if (!audios.isEmpty()) AudioPlayer.preload(audios.toArray(new String[0]));
     }
 }
@@ -2,13 +2,17 @@ package com.jasgames.ui.juegos;
 
 import com.jasgames.model.Actividad;
 import com.jasgames.ui.juegos.framework.AccesibleUI;
+import com.jasgames.ui.juegos.framework.CachedLayerPanel;
 import com.jasgames.ui.juegos.framework.JuegoRondasPanel;
+import com.jasgames.ui.juegos.framework.RelojAnimacion;
 import com.jasgames.ui.juegos.framework.Paletas;
+import com.jasgames.util.GlyphCache;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -52,7 +56,8 @@ public class JuegoSigueSeriePanel extends JuegoRondasPanel {
     private int slotSize;
 
     // Animación de viaje
-    private Timer animTimer;
+    private RelojAnimacion.Tween animTween;
+    private int animRadio; // px; lo fija paint para repintar solo el trayecto
     private boolean animando;
     private boolean mostrarRespuesta;
     private Ficha animFicha;
@@ -328,22 +333,19 @@ public class JuegoSigueSeriePanel extends JuegoRondasPanel {
         animT = 0;
 
         detenerAnimacion();
-        animTimer = new Timer(16, ev -> {
-            animT += 0.045; // ~350-400ms
-            if (animT >= 1.0) {
-                animT = 1.0;
-                ((Timer) ev.getSource()).stop();
-
-                animando = false;
-                mostrarRespuesta = true;
-                lienzo.repaint();
-
-                marcarAciertoConPulso(lienzo, this::resetPostAcierto);
-                return;
-            }
+        // ~370 ms con ease-out; entre cuadros solo se repinta el trayecto de la ficha
+        animTween = RelojAnimacion.animar(lienzo, 370, RelojAnimacion.Easing.EASE_OUT_CUBIC, t -> {
+            Point antes = posicionAnim();
+            animT = t;
+            repintarTrayecto(antes, posicionAnim());
+        }, () -> {
+            animTween = null;
+            animando = false;
+            mostrarRespuesta = true;
             lienzo.repaint();
+
+            marcarAciertoConPulso(lienzo, this::resetPostAcierto);
         });
-        animTimer.start();
     }
 
     private void resetPostAcierto() {
@@ -355,9 +357,21 @@ public class JuegoSigueSeriePanel extends JuegoRondasPanel {
         detenerAnimacion();
     }
 
+    private Point posicionAnim() {
+        return new Point(
+                (int) Math.round(animStart.x + (animEnd.x - animStart.x) * animT),
+                (int) Math.round(animStart.y + (animEnd.y - animStart.y) * animT)
+        );
+    }
+
+    private void repintarTrayecto(Point antes, Point ahora) {
+        if (animRadio <= 0) RelojAnimacion.repintar(lienzo);
+        else RelojAnimacion.repintar(lienzo, RelojAnimacion.trayecto(antes, ahora, animRadio));
+    }
+
     private void detenerAnimacion() {
-        if (animTimer != null && animTimer.isRunning()) animTimer.stop();
-        animTimer = null;
+        if (animTween != null) animTween.cancel();
+        animTween = null;
     }
 
     // -------------------- Layout --------------------
@@ -403,77 +417,81 @@ public class JuegoSigueSeriePanel extends JuegoRondasPanel {
 
     // -------------------- Lienzo --------------------
 
-    private class LienzoSerie extends JPanel {
+    private class LienzoSerie extends CachedLayerPanel {
+
+        // Nueva serie (otro arreglo) o respuesta mostrada: cambia la capa
         @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
+        protected Object claveCapa() {
+            return Arrays.asList(secuenciaVisible, mostrarRespuesta);
+        }
+
+        /** Conectores, casillas y fichas quietas. */
+        @Override
+        protected void pintarCapa(Graphics2D g2, int w, int h) {
             if (secuenciaVisible == null || secuenciaVisible.length == 0) return;
 
             asegurarLayoutSlots();
             if (centrosSlots == null) return;
 
-            Graphics2D g2 = (Graphics2D) g.create();
-            try {
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setStroke(new BasicStroke(6f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+            g2.setColor(new Color(210, 210, 210));
+
+            for (int i = 0; i < centrosSlots.length - 1; i++) {
+                Point a = centrosSlots[i];
+                Point b = centrosSlots[i + 1];
+                g2.drawLine(a.x, a.y, b.x, b.y);
+                dibujarFlecha(g2, a, b);
+            }
 
-                g2.setStroke(new BasicStroke(6f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-                g2.setColor(new Color(210, 210, 210));
+            for (int i = 0; i < centrosSlots.length; i++) {
+                Point c = centrosSlots[i];
+                int x = c.x - slotSize / 2;
+                int y = c.y - slotSize / 2;
 
-                for (int i = 0; i < centrosSlots.length - 1; i++) {
-                    Point a = centrosSlots[i];
-                    Point b = centrosSlots[i + 1];
-                    g2.drawLine(a.x, a.y, b.x, b.y);
-                    dibujarFlecha(g2, a, b);
-                }
+                int arc = Math.max(16, slotSize / 5);
+                g2.setColor(Color.WHITE);
+                g2.fillRoundRect(x, y, slotSize, slotSize, arc, arc);
 
-                for (int i = 0; i < centrosSlots.length; i++) {
-                    Point c = centrosSlots[i];
-                    int x = c.x - slotSize / 2;
-                    int y = c.y - slotSize / 2;
-
-                    int arc = Math.max(16, slotSize / 5);
-                    g2.setColor(Color.WHITE);
-                    g2.fillRoundRect(x, y, slotSize, slotSize, arc, arc);
-
-                    g2.setColor(AccesibleUI.TABLERO_BORDE);
-                    g2.setStroke(new BasicStroke(2f));
-                    g2.drawRoundRect(x, y, slotSize, slotSize, arc, arc);
-
-                    if (i == idxFaltante) {
-                        if (mostrarRespuesta) {
-                            double s = getPulsoScale();
-                            dibujarFicha(g2, respuestaCorrecta, c.x, c.y, (int) Math.round(slotSize * 0.72 * s));
-                        } else {
-                            g2.setColor(AccesibleUI.TEXTO_NEUTRO);
-                            g2.setFont(new Font(Font.SANS_SERIF, Font.BOLD, Math.max(34, slotSize / 3)));
-                            FontMetrics fm = g2.getFontMetrics();
-                            String t = "?";
-                            int tx = c.x - fm.stringWidth(t) / 2;
-                            int ty = c.y + fm.getAscent() / 2 - 6;
-                            g2.drawString(t, tx, ty);
-                        }
-                    } else {
-                        Ficha f = secuenciaVisible[i];
-                        if (f != null) dibujarFicha(g2, f, c.x, c.y, (int) Math.round(slotSize * 0.72));
+                g2.setColor(AccesibleUI.TABLERO_BORDE);
+                g2.setStroke(new BasicStroke(2f));
+                g2.drawRoundRect(x, y, slotSize, slotSize, arc, arc);
+
+                if (i == idxFaltante) {
+                    if (!mostrarRespuesta) {
+                        g2.setColor(AccesibleUI.TEXTO_NEUTRO);
+                        Font f = GlyphCache.font(Font.SANS_SERIF, Font.BOLD, Math.max(34, slotSize / 3));
+                        GlyphCache.Glyph t = GlyphCache.glyph(f, "?");
+                        t.draw(g2, c.x - t.width() / 2f, c.y + t.ascent() / 2 - 6);
                     }
+                } else {
+                    Ficha f = secuenciaVisible[i];
+                    if (f != null) dibujarFicha(g2, f, c.x, c.y, (int) Math.round(slotSize * 0.72));
                 }
+            }
+        }
 
-                if (animando && animFicha != null && animStart != null && animEnd != null) {
-                    double t = easeOut(animT);
-                    int cx = (int) Math.round(animStart.x + (animEnd.x - animStart.x) * t);
-                    int cy = (int) Math.round(animStart.y + (animEnd.y - animStart.y) * t);
-                    int s = (int) Math.round(slotSize * 0.64);
-                    dibujarFicha(g2, animFicha, cx, cy, s);
-                }
+        /** Respuesta con pulso y ficha volando. */
+        @Override
+        protected void pintarEncima(Graphics2D g2, int w, int h) {
+            if (secuenciaVisible == null || secuenciaVisible.length == 0) return;
 
-            } finally {
-                g2.dispose();
+            asegurarLayoutSlots();
+            if (centrosSlots == null) return;
+
+            if (mostrarRespuesta) {
+                Point c = centrosSlots[idxFaltante];
+                double s = getPulsoScale();
+                dibujarFicha(g2, respuestaCorrecta, c.x, c.y, (int) Math.round(slotSize * 0.72 * s));
             }
-        }
 
-        private double easeOut(double t) {
-            double u = 1 - t;
-            return 1 - u * u * u;
+            if (animando && animFicha != null && animStart != null && animEnd != null) {
+                double t = animT; // ya viene con ease-out del reloj
+                int cx = (int) Math.round(animStart.x + (animEnd.x - animStart.x) * t);
+                int cy = (int) Math.round(animStart.y + (animEnd.y - animStart.y) * t);
+                int s = (int) Math.round(slotSize * 0.64);
+                animRadio = s / 2 + 6; // + borde/sombra
+                dibujarFicha(g2, animFicha, cx, cy, s);
+            }
         }
 
         private void dibujarFlecha(Graphics2D g2, Point a, Point b) {
@@ -557,7 +575,7 @@ public class JuegoSigueSeriePanel extends JuegoRondasPanel {
     private static class OpcionFichaButton extends JButton {
         private Ficha ficha;
         private float alpha = 1f;
-        private Timer fadeTimer;
+        private RelojAnimacion.Tween fade;
 
         OpcionFichaButton() {
             setFocusPainted(false);
@@ -583,8 +601,8 @@ public class JuegoSigueSeriePanel extends JuegoRondasPanel {
         }
 
         void stopAnimations() {
-            if (fadeTimer != null && fadeTimer.isRunning()) fadeTimer.stop();
-            fadeTimer = null;
+            if (fade != null) fade.cancel();
+            fade = null;
         }
 
         void fadeOutAndDisable() {
@@ -594,15 +612,11 @@ public class JuegoSigueSeriePanel extends JuegoRondasPanel {
             stopAnimations();
             alpha = 1f;
 
-            fadeTimer = new Timer(35, e -> {
-                alpha -= 0.08f;
-                if (alpha <= 0.25f) {
-                    alpha = 0.25f;
-                    ((Timer) e.getSource()).stop();
-                }
-                repaint();
-            });
-            fadeTimer.start();
+            // 1 -> 0.25 en ~350 ms (reloj compartido)
+            fade = RelojAnimacion.animar(this, 350, RelojAnimacion.Easing.LINEAL, t -> {
+                alpha = (float) (1.0 - 0.75 * t);
+                RelojAnimacion.repintar(this);
+            }, null);
         }
 
         @Override
@@ -1,21 +1,26 @@
 package com.jasgames.ui.juegos;
 
+import com.jasgames.audio.AudioPlayer;
 import com.jasgames.model.Actividad;
 import com.jasgames.ui.juegos.framework.AccesibleUI;
 import com.jasgames.ui.juegos.framework.JuegoRondasPanel;
+import com.jasgames.ui.juegos.framework.RelojAnimacion;
+import com.jasgames.util.AssetVariants;
+import com.jasgames.util.GlyphCache;
+import com.jasgames.util.ImageCache;
 
-import javax.sound.sampled.*;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.geom.RoundRectangle2D;
-import java.net.URL;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.function.Supplier;
 
 /**
  * Juego 4: "Vocales Divertidas"
@@ -34,9 +39,6 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
     private static final String[] VOCALES = new String[]{"A", "E", "I", "O", "U"};
 
     private final Random random = new Random();
-    private final Map<String, ImageIcon> imageCache = new HashMap<>();
-    private final Map<String, Clip> audioCache = new HashMap<>();
-    private Clip clipActual = null;
 
     // UI
     private LienzoVocales lienzo;
@@ -52,7 +54,8 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
     private String vocalCorrecta;
 
     // Animación (letra volando)
-    private Timer animTimer;
+    private RelojAnimacion.Tween animTween;
+    private int animRadio; // px; lo fija paint para repintar solo el trayecto
     private boolean animando;
     private boolean mostrarCompleta;
     private String animLetra;
@@ -60,6 +63,20 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
     private Point animEnd;
     private double animT; // 0..1
 
+    // Lado (px) con el que se pintó la imagen por última vez: la precarga pide esa variante
+    private volatile int ladoImagen;
+
+    /** Ronda preparada en segundo plano: ítem, opciones ya barajadas (imagen y audio quedan en caché). */
+    private static final class RondaPrecargada {
+        final ItemVocal item;
+        final List<String> opciones;
+
+        RondaPrecargada(ItemVocal item, List<String> opciones) {
+            this.item = item;
+            this.opciones = opciones;
+        }
+    }
+
     private static final class ItemVocal {
         final String vocalCorrecta;   // lógica: "A" | "E" | "I" | "O" | "U"
         final String palabraCompleta; // presentación: puede tener tildes (ej. "ÁRBOL")
@@ -80,6 +97,9 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
         setInstruccion("¿Con qué vocal empieza?");
 
         banco = construirBancoInicial();
+        List<String> imagenes = new ArrayList<>();
+        for (ItemVocal it : banco) imagenes.add(it.recursoImagen);
+        AssetVariants.prepare(imagenes);
 
         lienzo = new LienzoVocales();
         lienzo.setOpaque(false);
@@ -90,33 +110,10 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
         // NO llamar iniciarJuego() aquí (se inicia desde EstudianteWindow)
     }
     
-    private ImageIcon cargarIconoClasspath(String resourcePath) {
+    /** Variante reducida más cercana (por encima) a {@code lado} px, desde la caché compartida. */
+    private BufferedImage cargarImagenClasspath(String resourcePath, int lado) {
         if (resourcePath == null || resourcePath.isEmpty()) return null;
-
-        return imageCache.computeIfAbsent(resourcePath, p -> {
-            java.net.URL url = getClass().getResource(p); // p debe empezar con "/"
-            return (url != null) ? new ImageIcon(url) : null;
-        });
-    }
-
-    private void reproducirAudioAsync(String resourcePath) {
-        if (resourcePath == null || resourcePath.isEmpty()) return;
-
-        new Thread(() -> {
-            try {
-                Clip clip = cargarClip(resourcePath);
-                if (clip == null) return;
-
-                synchronized (audioCache) {
-                    if (clipActual != null && clipActual.isRunning()) clipActual.stop();
-                    clipActual = clip;
-                }
-
-                clip.stop();
-                clip.setFramePosition(0);
-                clip.start();
-            } catch (Exception ignored) {}
-        }, "Audio-JAS").start();
+        return ImageCache.getFit(resourcePath, lado); // resourcePath debe empezar con "/"
     }
 
     private void reproducirAudioYDespues(String resourcePath, Runnable onFinish) {
@@ -128,76 +125,22 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
             return;
         }
 
-        new Thread(() -> {
-            try {
-                Clip clip = cargarClip(resourcePath);
-                if (clip == null) {
-                    SwingUtilities.invokeLater(onFinish);
-                    return;
-                }
-
-                // Detener cualquier audio anterior para que no se encimen
-                synchronized (audioCache) {
-                    if (clipActual != null && clipActual.isRunning()) {
-                        clipActual.stop();
-                    }
-                    clipActual = clip;
-                }
-
-                // Reiniciar el clip
-                clip.stop();
-                clip.setFramePosition(0);
-
-                // Listener de FIN: cuando el clip termine, recién avanzamos
-                final LineListener[] holder = new LineListener[1];
-                holder[0] = event -> {
-                    if (event.getType() == LineEvent.Type.STOP) {
-                        clip.removeLineListener(holder[0]);
-
-                        // Si el panel ya no existe (saliste del juego), no hagas nada
-                        if (!JuegoVocalesDivertidasPanel.this.isDisplayable()) return;
-
-                        SwingUtilities.invokeLater(onFinish);
-                    }
-                };
-
-                clip.addLineListener(holder[0]);
-                clip.start();
-
-            } catch (Exception ex) {
-                // Si falla el audio, no bloqueamos el juego
-                SwingUtilities.invokeLater(onFinish);
-            }
-        }, "Audio-JAS").start();
-    }
-
-    private Clip cargarClip(String resourcePath) throws Exception {
-        synchronized (audioCache) {
-            if (audioCache.containsKey(resourcePath)) return audioCache.get(resourcePath);
-        }
-
-        URL url = getClass().getResource(resourcePath);
-        if (url == null) return null;
-
-        try (AudioInputStream ais = AudioSystem.getAudioInputStream(url)) {
-            Clip clip = AudioSystem.getClip();
-            clip.open(ais);
-
-            synchronized (audioCache) {
-                audioCache.put(resourcePath, clip);
-            }
-            return clip;
-        }
+        // AudioPlayer corta el audio anterior y llama onFinish aunque falle (no bloquea el juego)
+        AudioPlayer.play(resourcePath, () -> {
+            // Si el panel ya no existe (saliste del juego), no hagas nada
+            if (!isDisplayable()) return;
+            onFinish.run();
+        });
     }
 
-    private void cerrarAudios() {
-        synchronized (audioCache) {
-            for (Clip c : audioCache.values()) {
-                try { c.close(); } catch (Exception ignored) {}
-            }
-            audioCache.clear();
-            clipActual = null;
+    /** Decodifica de antemano los audios de las rondas de esta partida. */
+    private void precargarAudios() {
+        if (planRondas == null) return;
+        List<String> rutas = new ArrayList<>();
+        for (ItemVocal it : planRondas) {
+            if (it != null && it.recursoAudio != null) rutas.add(it.recursoAudio);
         }
+        AudioPlayer.preload(rutas.toArray(new String[0]));
     }
 
     private JPanel construirPanelRespuestas() {
@@ -229,6 +172,7 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
         animT = 0;
 
         planRondas = generarPlanRondasBalanceado();
+        precargarAudios();
         itemActual = null;
         vocalCorrecta = null;
     }
@@ -236,7 +180,7 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
     @Override
     protected void onAntesDeSalir() {
         detenerAnimacion();
-        cerrarAudios();
+        AudioPlayer.stop();
         if (botones != null) {
             for (VocalButton b : botones) {
                 if (b != null) b.stopAnimations();
@@ -302,10 +246,31 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
 
         lienzo.setItem(itemActual);
 
-        asignarOpciones();
+        // Si la precarga ya eligió las opciones de este ítem, solo se colocan
+        RondaPrecargada lista = tomarRondaPrecargada(RondaPrecargada.class);
+        List<String> opciones = (lista != null && lista.item == itemActual)
+                ? lista.opciones
+                : elegirOpciones(vocalCorrecta);
+        for (int i = 0; i < NUM_OPCIONES; i++) {
+            botones[i].reset(opciones.get(i));
+        }
         lienzo.repaint();
     }
 
+    @Override
+    protected Supplier<RondaPrecargada> precargarRonda(int indiceRonda) {
+        // En el EDT: se capturan el ítem y el tamaño; la tarea no vuelve a leer campos del panel
+        if (planRondas == null || indiceRonda < 0 || indiceRonda >= planRondas.size()) return null;
+        ItemVocal item = planRondas.get(indiceRonda);
+        int lado = ladoImagen;
+
+        return () -> {
+            AudioPlayer.preload(item.recursoAudio);
+            if (lado > 0 && item.recursoImagen != null) ImageCache.getFit(item.recursoImagen, lado);
+            return new RondaPrecargada(item, elegirOpciones(item.vocalCorrecta));
+        };
+    }
+
     private void onOpcionClick(ActionEvent e) {
         if (isBloqueado() || animando) return;
 
@@ -328,23 +293,21 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
         }
     }
 
-    private void asignarOpciones() {
+    /** Correcta + 2 distractores, barajadas (puede correr fuera del EDT: Random es thread-safe). */
+    private List<String> elegirOpciones(String correcta) {
         List<String> opciones = new ArrayList<>();
-        opciones.add(vocalCorrecta);
+        opciones.add(correcta);
 
         List<String> pool = new ArrayList<>();
         for (String v : VOCALES) {
-            if (!v.equals(vocalCorrecta)) pool.add(v);
+            if (!v.equals(correcta)) pool.add(v);
         }
         Collections.shuffle(pool, random);
         opciones.add(pool.get(0));
         opciones.add(pool.get(1));
 
         Collections.shuffle(opciones, random);
-
-        for (int i = 0; i < NUM_OPCIONES; i++) {
-            botones[i].reset(opciones.get(i));
-        }
+        return opciones;
     }
 
     // -------------------- Animación --------------------
@@ -372,24 +335,21 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
         animT = 0;
 
         detenerAnimacion();
-        animTimer = new Timer(16, ev -> {
-            animT += 0.045; // ~350-400ms
-            if (animT >= 1.0) {
-                animT = 1.0;
-                ((Timer) ev.getSource()).stop();
-
-                animando = false;
-                mostrarCompleta = true;
-                lienzo.repaint();
-
-                reproducirAudioYDespues(itemActual.recursoAudio, () ->
-                        marcarAciertoConPulso(lienzo, this::resetPostAcierto)
-                );
-                return;
-            }
+        // ~370 ms con ease-out; entre cuadros solo se repinta el trayecto de la letra
+        animTween = RelojAnimacion.animar(lienzo, 370, RelojAnimacion.Easing.EASE_OUT_CUBIC, t -> {
+            Point antes = posicionAnim();
+            animT = t;
+            repintarTrayecto(antes, posicionAnim());
+        }, () -> {
+            animTween = null;
+            animando = false;
+            mostrarCompleta = true;
             lienzo.repaint();
+
+            reproducirAudioYDespues(itemActual.recursoAudio, () ->
+                    marcarAciertoConPulso(lienzo, this::resetPostAcierto)
+            );
         });
-        animTimer.start();
     }
 
     private void resetPostAcierto() {
@@ -401,9 +361,21 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
         detenerAnimacion();
     }
 
+    private Point posicionAnim() {
+        return new Point(
+                (int) Math.round(animStart.x + (animEnd.x - animStart.x) * animT),
+                (int) Math.round(animStart.y + (animEnd.y - animStart.y) * animT)
+        );
+    }
+
+    private void repintarTrayecto(Point antes, Point ahora) {
+        if (animRadio <= 0) RelojAnimacion.repintar(lienzo);
+        else RelojAnimacion.repintar(lienzo, RelojAnimacion.trayecto(antes, ahora, animRadio));
+    }
+
     private void detenerAnimacion() {
-        if (animTimer != null && animTimer.isRunning()) animTimer.stop();
-        animTimer = null;
+        if (animTween != null) animTween.cancel();
+        animTween = null;
     }
 
     // -------------------- Banco / rondas --------------------
@@ -525,9 +497,8 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
 
                 int baseSize = (int) Math.round(Math.min(w, h) * 0.12);
                 baseSize = clamp(baseSize, 34, 54);
-                Font font = new Font(Font.SANS_SERIF, Font.BOLD, baseSize);
-                g2.setFont(font);
-                FontMetrics fm = g2.getFontMetrics();
+                Font font = GlyphCache.font(Font.SANS_SERIF, Font.BOLD, baseSize);
+                GlyphCache.Glyph hueco = GlyphCache.glyph(font, "_");
 
                 // Tokens: [hueco] + letras del resto
                 List<String> tokens = new ArrayList<>();
@@ -538,7 +509,7 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
 
                 int gap = Math.max(12, baseSize / 3);
                 int totalW = 0;
-                for (String t : tokens) totalW += fm.stringWidth(t);
+                for (String t : tokens) totalW += GlyphCache.glyph(font, t).width();
                 totalW += gap * (tokens.size() - 1);
 
                 int startX = (w - totalW) / 2;
@@ -553,7 +524,7 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
 
                     if (i == 0) {
                         // Hueco más visible: línea gruesa
-                        int uw = Math.max(fm.stringWidth("_") + 10, baseSize);
+                        int uw = Math.max(hueco.width() + 10, baseSize);
                         int uy = baseline + 8;
                         int ux1 = x;
                         int ux2 = x + uw;
@@ -563,26 +534,16 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
                         g2.drawLine(ux1, uy, ux2, uy);
 
                         // Centro del hueco = destino de animación
-                        centroHueco = new Point((ux1 + ux2) / 2, baseline - fm.getAscent() / 2);
+                        centroHueco = new Point((ux1 + ux2) / 2, baseline - hueco.ascent() / 2);
 
                         // Si ya se acertó, mostrar la vocal con pulso
                         if (mostrarCompleta) {
                             double s = getPulsoScale();
                             int fs = (int) Math.round(baseSize * s);
-                            Font f2 = new Font(Font.SANS_SERIF, Font.BOLD, fs);
-                            g2.setFont(f2);
-                            FontMetrics fm2 = g2.getFontMetrics();
-
-                            String letra = item.vocalCorrecta;
-                            int lx = centroHueco.x - fm2.stringWidth(letra) / 2;
-                            int ly = baseline;
+                            Font f2 = GlyphCache.font(Font.SANS_SERIF, Font.BOLD, fs);
 
                             g2.setColor(AccesibleUI.TEXTO_OSCURO);
-                            g2.drawString(letra, lx, ly);
-
-                            // volver a font base
-                            g2.setFont(font);
-                            fm = g2.getFontMetrics();
+                            GlyphCache.drawCentered(g2, f2, item.vocalCorrecta, centroHueco.x, baseline);
                         }
 
                         x += uw + gap;
@@ -590,35 +551,30 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
                     }
 
                     g2.setColor(AccesibleUI.TEXTO_OSCURO);
-                    g2.drawString(t, x, baseline);
-                    x += fm.stringWidth(t) + gap;
+                    GlyphCache.Glyph gt = GlyphCache.glyph(font, t);
+                    gt.draw(g2, x, baseline);
+                    x += gt.width() + gap;
                 }
 
                 // Animación: letra volando hacia el hueco
                 if (animando && animLetra != null && animStart != null && animEnd != null) {
-                    double t = easeOut(animT);
+                    double t = animT; // ya viene con ease-out del reloj
                     int cx = (int) Math.round(animStart.x + (animEnd.x - animStart.x) * t);
                     int cy = (int) Math.round(animStart.y + (animEnd.y - animStart.y) * t);
 
                     int fs = clamp((int) Math.round(baseSize * 1.05), 32, 64);
-                    Font f3 = new Font(Font.SANS_SERIF, Font.BOLD, fs);
-                    g2.setFont(f3);
-                    FontMetrics fma = g2.getFontMetrics();
+                    animRadio = fs;
+                    GlyphCache.Glyph ga = GlyphCache.glyph(GlyphCache.font(Font.SANS_SERIF, Font.BOLD, fs), animLetra);
 
                     g2.setColor(AccesibleUI.TEXTO_OSCURO);
-                    int tx = cx - fma.stringWidth(animLetra) / 2;
-                    int ty = cy + fma.getAscent() / 2;
-                    g2.drawString(animLetra, tx, ty);
+                    ga.draw(g2, cx - ga.width() / 2f, cy + ga.ascent() / 2);
                 }
 
                 // Texto suave con la palabra completa (opcional, ayuda visual)
                 if (mostrarCompleta) {
-                    g2.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 16));
                     g2.setColor(AccesibleUI.TEXTO_NEUTRO);
-                    String completa = item.palabraCompleta;
-                    int tw2 = g2.getFontMetrics().stringWidth(completa);
                     int y2 = Math.min(h - 18, baseline + 34);
-                    g2.drawString(completa, (w - tw2) / 2, y2);
+                    GlyphCache.drawCentered(g2, GlyphCache.font(Font.SANS_SERIF, Font.PLAIN, 16), item.palabraCompleta, w / 2, y2);
                 }
 
             } finally {
@@ -651,11 +607,12 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
 
             // Cargar imagen desde src/assets/...
             if (item == null || item.recursoImagen == null) return;
-            ImageIcon icon = cargarIconoClasspath(item.recursoImagen);
-            if (icon == null) return;
+            ladoImagen = Math.max(innerW, innerH);
+            BufferedImage img = cargarImagenClasspath(item.recursoImagen, ladoImagen);
+            if (img == null) return;
 
-            int iw = icon.getIconWidth();
-            int ih = icon.getIconHeight();
+            int iw = img.getWidth();
+            int ih = img.getHeight();
             if (iw <= 0 || ih <= 0) return;
 
             // Escala sin deformar
@@ -667,12 +624,7 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
             int dy = innerY + (innerH - dh) / 2;
 
             g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-            g2.drawImage(icon.getImage(), dx, dy, dw, dh, null);
-        }
-
-        private double easeOut(double t) {
-            double u = 1 - t;
-            return 1 - u * u * u;
+            g2.drawImage(img, dx, dy, dw, dh, null);
         }
     }
 
@@ -681,7 +633,7 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
     private static class VocalButton extends JButton {
         private String letra;
         private float alpha = 1f;
-        private Timer fadeTimer;
+        private RelojAnimacion.Tween fade;
         private boolean correcto;
 
         VocalButton() {
@@ -715,8 +667,8 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
         }
 
         void stopAnimations() {
-            if (fadeTimer != null && fadeTimer.isRunning()) fadeTimer.stop();
-            fadeTimer = null;
+            if (fade != null) fade.cancel();
+            fade = null;
         }
 
         void fadeOutAndDisable() {
@@ -726,15 +678,11 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
             stopAnimations();
             alpha = 1f;
 
-            fadeTimer = new Timer(35, e -> {
-                alpha -= 0.08f;
-                if (alpha <= 0.25f) {
-                    alpha = 0.25f;
-                    ((Timer) e.getSource()).stop();
-                }
-                repaint();
-            });
-            fadeTimer.start();
+            // 1 -> 0.25 en ~350 ms (reloj compartido)
+            fade = RelojAnimacion.animar(this, 350, RelojAnimacion.Easing.LINEAL, t -> {
+                alpha = (float) (1.0 - 0.75 * t);
+                RelojAnimacion.repintar(this);
+            }, null);
         }
 
         @Override
@@ -766,12 +714,9 @@ public class JuegoVocalesDivertidasPanel extends JuegoRondasPanel {
 
                 if (letra != null) {
                     int fs = clamp(d / 2, 36, 60);
-                    g2.setFont(new Font(Font.SANS_SERIF, Font.BOLD, fs));
-                    FontMetrics fm = g2.getFontMetrics();
-                    int tx = cx - fm.stringWidth(letra) / 2;
-                    int ty = cy + fm.getAscent() / 2 - 6;
+                    GlyphCache.Glyph gl = GlyphCache.glyph(GlyphCache.font(Font.SANS_SERIF, Font.BOLD, fs), letra);
                     g2.setColor(AccesibleUI.TEXTO_OSCURO);
-                    g2.drawString(letra, tx, ty);
+                    gl.draw(g2, cx - gl.width() / 2f, cy + gl.ascent() / 2 - 6);
                 }
 
             } finally {
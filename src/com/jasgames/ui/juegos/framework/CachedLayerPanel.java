@@ -0,0 +1,188 @@
+package com.jasgames.ui.juegos.framework;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.Objects;
+
+/**
+ * Panel de tablero con una capa estática cacheada.
+ *
+ * - {@link #pintarCapa(Graphics2D, int, int)}: lo que no cambia entre cuadros (fondo, casillas, fichas quietas).
+ *   Se dibuja una sola vez en una imagen compatible (VolatileImage si la pantalla la da; si no, BufferedImage)
+ *   y se vuelve a generar solo si cambia el tamaño, la escala HiDPI o se llama {@link #invalidarCapa()}.
+ * - {@link #pintarEncima(Graphics2D, int, int)}: lo animado (pulso, pieza volando), encima de la capa en cada repintado.
+ *
+ * Para componentes que no pueden heredar de este panel (p. ej. un JButton) está {@link Capa}.
+ */
+public abstract class CachedLayerPanel extends JPanel {
+
+    private final Capa capa = new Capa();
+
+    /** Pinta la parte estática del tablero (coordenadas lógicas, antialias activado). */
+    protected abstract void pintarCapa(Graphics2D g2, int w, int h);
+
+    /** Pinta lo animado sobre la capa. Por defecto nada. */
+    protected void pintarEncima(Graphics2D g2, int w, int h) {}
+
+    /**
+     * Si devuelve false, la capa no se dibuja en este repintado (p. ej. mientras todo el tablero late);
+     * el panel pinta solo {@link #pintarEncima}.
+     */
+    protected boolean usarCapa() {
+        return true;
+    }
+
+    /**
+     * Estado del que depende la capa (se compara con equals): si cambia, se regenera sola.
+     * Por defecto null (solo tamaño e {@link #invalidarCapa()}).
+     */
+    protected Object claveCapa() {
+        return null;
+    }
+
+    /** El contenido estático cambió: se regenera en el próximo repintado. */
+    protected final void invalidarCapa() {
+        capa.invalidar();
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+
+        int w = getWidth();
+        int h = getHeight();
+        if (w <= 0 || h <= 0) return;
+
+        if (usarCapa()) capa.pintar(g, this, claveCapa(), this::pintarCapa);
+
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            pintarEncima(g2, w, h);
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        capa.liberar();
+        super.removeNotify();
+    }
+
+    // =========================================================
+    // Capa reutilizable
+    // =========================================================
+
+    /** Pinta la parte estática de un componente. */
+    @FunctionalInterface
+    public interface Pintor {
+        void pintar(Graphics2D g2, int w, int h);
+    }
+
+    /**
+     * Imagen cacheada del tamaño de un componente. Se regenera si cambia el tamaño, la escala,
+     * la {@code clave} de estado (p. ej. "habilitado+correcto") o si se invalida.
+     * Solo desde el EDT.
+     */
+    public static final class Capa {
+        private VolatileImage volatil;
+        private BufferedImage buffer;
+        private int w, h;
+        private double escala;
+        private Object clave;
+        private boolean sucia = true;
+
+        public void invalidar() {
+            sucia = true;
+        }
+
+        public void liberar() {
+            if (volatil != null) volatil.flush();
+            volatil = null;
+            buffer = null;
+            sucia = true;
+        }
+
+        public void pintar(Graphics g, JComponent c, Object claveEstado, Pintor pintor) {
+            int cw = c.getWidth();
+            int ch = c.getHeight();
+            if (cw <= 0 || ch <= 0) return;
+
+            AffineTransform tx = ((Graphics2D) g).getTransform();
+            double sc = Math.max(1.0, Math.max(Math.abs(tx.getScaleX()), Math.abs(tx.getScaleY())));
+            if (cw != w || ch != h || sc != escala || !Objects.equals(claveEstado, clave)) {
+                liberar();
+                w = cw;
+                h = ch;
+                escala = sc;
+                clave = claveEstado;
+            }
+            int pw = (int) Math.ceil(cw * sc);
+            int ph = (int) Math.ceil(ch * sc);
+
+            GraphicsConfiguration gc = c.getGraphicsConfiguration();
+            if (gc != null && buffer == null) {
+                // VolatileImage: puede perder el contenido (cambio de modo, etc.), se valida en cada uso
+                for (int intento = 0; intento < 2; intento++) {
+                    if (volatil == null) {
+                        try {
+                            volatil = gc.createCompatibleVolatileImage(pw, ph, Transparency.TRANSLUCENT);
+                        } catch (Exception e) {
+                            volatil = null;
+                        }
+                        if (volatil == null) break;
+                        sucia = true;
+                    }
+                    int estado = volatil.validate(gc);
+                    if (estado == VolatileImage.IMAGE_INCOMPATIBLE) {
+                        volatil.flush();
+                        volatil = null;
+                        continue;
+                    }
+                    if (estado == VolatileImage.IMAGE_RESTORED) sucia = true;
+                    if (sucia) {
+                        renderizar(volatil.createGraphics(), pw, ph, sc, pintor);
+                        sucia = false;
+                    }
+                    g.drawImage(volatil, 0, 0, cw, ch, null);
+                    if (!volatil.contentsLost()) return;
+                    sucia = true;
+                }
+                if (volatil != null) {
+                    volatil.flush();
+                    volatil = null;
+                }
+            }
+
+            // Sin aceleración (o headless): imagen en memoria
+            if (buffer == null) {
+                buffer = new BufferedImage(pw, ph, BufferedImage.TYPE_INT_ARGB_PRE);
+                sucia = true;
+            }
+            if (sucia) {
+                renderizar(buffer.createGraphics(), pw, ph, sc, pintor);
+                sucia = false;
+            }
+            g.drawImage(buffer, 0, 0, cw, ch, null);
+        }
+
+        private void renderizar(Graphics2D g2, int pw, int ph, double sc, Pintor pintor) {
+            try {
+                g2.setComposite(AlphaComposite.Clear);
+                g2.fillRect(0, 0, pw, ph);
+                g2.setComposite(AlphaComposite.SrcOver);
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                g2.scale(sc, sc);
+                pintor.pintar(g2, w, h);
+            } finally {
+                g2.dispose();
+            }
+        }
+    }
+}
@@ -1,22 +1,28 @@
 package com.jasgames.ui.juegos.framework;
 
+import com.jasgames.engine.RondaEngine;
 import com.jasgames.model.Actividad;
 import com.jasgames.ui.juegos.BaseJuegoPanel;
 import com.jasgames.ui.juegos.JuegoListener;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 /**
  * Plantilla base "pro" para minijuegos por rondas.
  *
  * Qué resuelve:
  * - UI consistente (instrucción, progreso, feedback)
- * - Control de rondas (meta, jugadas, aciertos, errores)
+ * - Control de rondas (meta, jugadas, aciertos, errores) delegado en {@link RondaEngine} (sin Swing)
  * - 3 intentos por ronda (configurable)
  * - Pista suave desde el 2do intento (configurable)
  * - Bloqueo de entrada (cuando hay animación)
  * - Animación estándar de pulso (latido) reutilizable
+ * - Precarga en segundo plano de la siguiente ronda (ver {@link #precargarRonda(int)})
  */
 public abstract class JuegoRondasPanel extends BaseJuegoPanel {
 
@@ -27,27 +33,25 @@ public abstract class JuegoRondasPanel extends BaseJuegoPanel {
     private JPanel hostTablero;
     private JPanel hostRespuestas;
 
-    // Métricas principales
-    protected int rondasCorrectas;
-    protected int erroresTotales;
     protected boolean bloqueado;
 
-    // Nuevo: rondas jugadas (se incrementa tanto por acierto como por agotar intentos)
-    protected int rondasJugadas;
-
-    // Control por ronda
-    private int intentosEnRonda;
-    private boolean pistaAplicadaEnRonda;
-
-    // Métricas reales (para SesionJuego)
-    private int intentosTotalesReal;
-    private int pistasUsadasReal;
-    private int aciertosPrimerIntentoReal;
+    // Rondas, intentos, pistas y métricas reales (para SesionJuego); se crea en iniciarJuego()
+    private RondaEngine motor;
 
     /** Factor de escala para animación de pulso (úsalo en paint). */
     private double pulsoScale = 1.0;
-    private Timer timerPulso;
-    private Timer timerAvanceRonda;
+    private RelojAnimacion.Tween tweenPulso;
+    private RelojAnimacion.Tween esperaAvanceRonda;
+
+    // Precarga: un hilo compartido por todos los juegos (solo corre una ronda por delante)
+    private static final ExecutorService PRECARGA = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "JuegoRondas-precarga");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private Future<Object> rondaPrecargada;
+    private int indiceRondaPrecargada = -1;
 
     protected JuegoRondasPanel(Actividad actividad, JuegoListener listener) {
         super(actividad, listener);
@@ -145,7 +149,7 @@ public abstract class JuegoRondasPanel extends BaseJuegoPanel {
 
     /** Índice 0-based de la ronda actual (cuántas rondas ya se completaron/jugaron). */
     protected final int getIndiceRondaActual() {
-        return Math.max(0, rondasJugadas);
+        return (motor != null) ? motor.getIndiceRonda() : 0;
     }
 
     protected final double getPulsoScale() {
@@ -160,17 +164,10 @@ public abstract class JuegoRondasPanel extends BaseJuegoPanel {
         detenerAvanceRonda();
         pulsoScale = 1.0;
 
-        rondasCorrectas = 0;
-        rondasJugadas = 0;
-        erroresTotales = 0;
         bloqueado = false;
 
-        intentosEnRonda = 0;
-        pistaAplicadaEnRonda = false;
-
-        intentosTotalesReal = 0;
-        pistasUsadasReal = 0;
-        aciertosPrimerIntentoReal = 0;
+        motor = new RondaEngine(getRondasMeta(), getIntentosMaxPorRonda(), getPistasDesdeIntento());
+        motor.start();
 
         // Defaults en Actividad (por si luego quieres verlos en UI/reportes)
         if (actividadActual != null) {
@@ -181,8 +178,9 @@ public abstract class JuegoRondasPanel extends BaseJuegoPanel {
         setFeedback(" ");
         actualizarProgreso();
 
+        cancelarPrecarga();
         onAntesDeIniciar();
-        prepararNuevaRonda();
+        iniciarRonda();
     }
 
     /** Hook opcional para resetear estados internos en el hijo. */
@@ -191,6 +189,46 @@ public abstract class JuegoRondasPanel extends BaseJuegoPanel {
     /** El hijo define cómo se prepara cada ronda. */
     protected abstract void prepararNuevaRonda();
 
+    /**
+     * Hook opcional para preparar la ronda {@code indiceRonda} mientras el niño juega la anterior.
+     * Se llama en el EDT: aquí se leen los campos del juego que hagan falta (p. ej. el ítem del plan)
+     * y se devuelve una tarea que solo usa esos valores capturados. La tarea corre en un hilo de fondo
+     * (NO tocar Swing ni campos del juego) y calcula/carga el contenido (elección aleatoria, imágenes, audio).
+     * Lo recoge {@link #prepararNuevaRonda()} con {@link #tomarRondaPrecargada(Class)}.
+     * Default: null (el juego prepara todo en el EDT, como siempre).
+     */
+    protected Supplier<?> precargarRonda(int indiceRonda) {
+        return null;
+    }
+
+    /**
+     * Contenido que dejó listo {@link #precargarRonda(int)} para la ronda actual, o null si no aplica
+     * o todavía no terminó (no se espera: el juego lo calcula en el momento).
+     */
+    protected final <T> T tomarRondaPrecargada(Class<T> tipo) {
+        Future<Object> f = rondaPrecargada;
+        int indice = indiceRondaPrecargada;
+        rondaPrecargada = null;
+        indiceRondaPrecargada = -1;
+
+        if (f == null || indice != getIndiceRondaActual()) {
+            if (f != null) f.cancel(false);
+            return null;
+        }
+        if (!f.isDone()) {
+            // No se bloquea el EDT esperando: se prepara en el momento
+            f.cancel(false);
+            return null;
+        }
+        try {
+            Object v = f.get();
+            return tipo.isInstance(v) ? tipo.cast(v) : null;
+        } catch (Exception e) {
+            f.cancel(false);
+            return null;
+        }
+    }
+
     /** Hook opcional: se llama cuando el niño llega al intento donde corresponde una pista. */
     protected void aplicarPistaSuave() {
         // por defecto no hace nada; cada juego puede apagar 1 distractor o dar una pista visual
@@ -201,79 +239,92 @@ public abstract class JuegoRondasPanel extends BaseJuegoPanel {
         // por defecto no hace nada
     }
 
-    /** Default: rondasCorrectas (si quieres fijo, sobrescribe). */
+    /** Default: rondas correctas (si quieres fijo, sobrescribe). */
     protected int calcularPuntosFinales() {
-        return rondasCorrectas;
+        return (motor != null) ? motor.getRondasCorrectas() : 0;
     }
 
     // -------------------- Helpers (acierto/error) --------------------
 
-    private void registrarIntento(boolean correcto) {
-        // Registra intento real
-        boolean primerIntentoEnRonda = (intentosEnRonda == 0);
-        intentosEnRonda++;
-        intentosTotalesReal++;
-
-        if (!correcto) {
-            erroresTotales++;
-        } else {
-            if (primerIntentoEnRonda) {
-                aciertosPrimerIntentoReal++;
-            }
+    private void aplicarPista() {
+        try {
+            aplicarPistaSuave();
+        } catch (Exception ignored) {
+            // Evitar que una pista mal implementada rompa el juego
         }
+    }
 
-        // Pista desde el 2do intento (o lo que defina el juego)
-        if (!correcto && !pistaAplicadaEnRonda && intentosEnRonda >= getPistasDesdeIntento()) {
-            pistaAplicadaEnRonda = true;
-            pistasUsadasReal++;
+    /** Prepara la ronda actual y deja en marcha la precarga de la siguiente. */
+    private void iniciarRonda() {
+        prepararNuevaRonda();
+
+        cancelarPrecarga();
+        int siguiente = getIndiceRondaActual() + 1;
+        if (siguiente >= getRondasMeta()) return;
+
+        Supplier<?> tarea = crearPrecarga(siguiente);
+        if (tarea == null) return;
+
+        indiceRondaPrecargada = siguiente;
+        rondaPrecargada = PRECARGA.submit(() -> {
             try {
-                aplicarPistaSuave();
-            } catch (Exception ignored) {
-                // Evitar que una pista mal implementada rompa el juego
+                return tarea.get();
+            } catch (Exception e) {
+                return null; // una precarga fallida no rompe el juego: se prepara en el EDT
             }
+        });
+    }
+
+    private Supplier<?> crearPrecarga(int indiceRonda) {
+        try {
+            return precargarRonda(indiceRonda);
+        } catch (Exception e) {
+            return null;
         }
     }
 
-    private void resetEstadoRonda() {
-        intentosEnRonda = 0;
-        pistaAplicadaEnRonda = false;
+    private void cancelarPrecarga() {
+        if (rondaPrecargada != null) rondaPrecargada.cancel(false);
+        rondaPrecargada = null;
+        indiceRondaPrecargada = -1;
     }
 
     protected final void marcarAciertoConPulso(JComponent repaintTarget, Runnable antesDeSiguienteRonda) {
-        if (bloqueado) return;
+        if (bloqueado || motor == null) return;
+        if (motor.answer(true) != RondaEngine.Evento.ACIERTO) return;
         bloqueado = true;
 
-        registrarIntento(true);
-
         setFeedback("¡Muy bien!");
 
         reproducirPulso(repaintTarget, () -> {
-            rondasCorrectas++;
-            rondasJugadas++;
+            boolean fin = motor.cerrarRonda();
             actualizarProgreso();
 
-            if (rondasJugadas >= getRondasMeta()) {
+            if (fin) {
                 volcarMetricasFinDeSesion();
                 finalizarJuego(calcularPuntosFinales());
                 return;
             }
 
-            resetEstadoRonda();
             if (antesDeSiguienteRonda != null) antesDeSiguienteRonda.run();
             bloqueado = false;
-            prepararNuevaRonda();
+            iniciarRonda();
         });
     }
 
     protected final void marcarErrorNeutro(String feedback) {
-        if (bloqueado) return;
+        if (bloqueado || motor == null) return;
 
-        registrarIntento(false);
+        int pistasAntes = motor.getPistasUsadas();
+        RondaEngine.Evento ev = motor.answer(false);
+        if (ev == RondaEngine.Evento.IGNORADO) return;
+        // La pista puede tocar también en el intento que agota la ronda
+        if (motor.getPistasUsadas() > pistasAntes) aplicarPista();
 
         setFeedback((feedback == null || feedback.isBlank()) ? "Intenta de nuevo" : feedback);
 
         // Si se agotaron los intentos, avanzamos a la siguiente ronda con una pausa suave
-        if (intentosEnRonda >= getIntentosMaxPorRonda()) {
+        if (ev == RondaEngine.Evento.AGOTADA) {
             bloqueado = true;
             try {
                 onIntentosAgotados();
@@ -282,25 +333,21 @@ public abstract class JuegoRondasPanel extends BaseJuegoPanel {
             setFeedback("Vamos con la siguiente");
 
             detenerAvanceRonda();
-            timerAvanceRonda = new Timer(700, ev -> {
-                ((Timer) ev.getSource()).stop();
-                timerAvanceRonda = null;
+            esperaAvanceRonda = RelojAnimacion.esperar(this, 700, () -> {
+                esperaAvanceRonda = null;
 
-                rondasJugadas++;
+                boolean fin = motor.cerrarRonda();
                 actualizarProgreso();
 
-                if (rondasJugadas >= getRondasMeta()) {
+                if (fin) {
                     volcarMetricasFinDeSesion();
                     finalizarJuego(calcularPuntosFinales());
                     return;
                 }
 
-                resetEstadoRonda();
                 bloqueado = false;
-                prepararNuevaRonda();
+                iniciarRonda();
             });
-            timerAvanceRonda.setRepeats(false);
-            timerAvanceRonda.start();
         }
     }
 
@@ -309,31 +356,14 @@ public abstract class JuegoRondasPanel extends BaseJuegoPanel {
      * pueda persistirlas en {@link com.jasgames.model.SesionJuego}.
      */
     protected void volcarMetricasFinDeSesion() {
-        if (actividadActual == null) return;
-
-        int meta = getRondasMeta();
-
-        actividadActual.setRondasMeta(meta);
-        actividadActual.setRondasJugadas(rondasJugadas);
-        actividadActual.setRondasCorrectas(rondasCorrectas);
-
-        actividadActual.setErroresTotales(erroresTotales);
-        actividadActual.setIntentosTotales(intentosTotalesReal);
-
-        actividadActual.setIntentosMaxPorRonda(getIntentosMaxPorRonda());
-        actividadActual.setPistasDesdeIntento(getPistasDesdeIntento());
-
-        actividadActual.setPistasUsadas(pistasUsadasReal);
-        actividadActual.setAciertosPrimerIntento(aciertosPrimerIntentoReal);
-
-        // Compatibilidad con campo antiguo
-        actividadActual.setIntentosFallidos(erroresTotales);
+        if (actividadActual == null || motor == null) return;
+        motor.volcarEn(actividadActual);
     }
 
     protected final void actualizarProgreso() {
         int meta = getRondasMeta();
-        int mostrada = Math.min(rondasJugadas + 1, meta);
-        if (rondasJugadas >= meta) mostrada = meta;
+        int jugadas = getIndiceRondaActual();
+        int mostrada = Math.min(jugadas + 1, meta);
         lblProgreso.setText("Ronda " + mostrada + "/" + meta);
     }
 
@@ -342,40 +372,33 @@ public abstract class JuegoRondasPanel extends BaseJuegoPanel {
     protected final void reproducirPulso(JComponent repaintTarget, Runnable onFinish) {
         detenerPulso();
 
+        // Dos latidos; se interpola entre los puntos en el reloj compartido
         final double[] seq = new double[]{
                 1.00, 1.06, 1.10, 1.06, 1.00,
                 1.06, 1.10, 1.06, 1.00
         };
 
-        final int[] step = {0};
-        timerPulso = new Timer(45, e -> {
-            pulsoScale = seq[step[0]];
-            if (repaintTarget != null) repaintTarget.repaint();
-            step[0]++;
-
-            if (step[0] >= seq.length) {
-                detenerPulso();
-                pulsoScale = 1.0;
-                if (repaintTarget != null) repaintTarget.repaint();
-                if (onFinish != null) onFinish.run();
-            }
+        tweenPulso = RelojAnimacion.animar(this, 45 * seq.length, RelojAnimacion.Easing.LINEAL, t -> {
+            double pos = t * (seq.length - 1);
+            int i = Math.min((int) pos, seq.length - 2);
+            pulsoScale = seq[i] + (seq[i + 1] - seq[i]) * (pos - i);
+            RelojAnimacion.repintar(repaintTarget);
+        }, () -> {
+            tweenPulso = null;
+            pulsoScale = 1.0;
+            RelojAnimacion.repintar(repaintTarget);
+            if (onFinish != null) onFinish.run();
         });
-
-        timerPulso.start();
     }
 
     protected final void detenerPulso() {
-        if (timerPulso != null && timerPulso.isRunning()) {
-            timerPulso.stop();
-        }
-        timerPulso = null;
+        if (tweenPulso != null) tweenPulso.cancel();
+        tweenPulso = null;
     }
 
     private void detenerAvanceRonda() {
-        if (timerAvanceRonda != null && timerAvanceRonda.isRunning()) {
-            timerAvanceRonda.stop();
-        }
-        timerAvanceRonda = null;
+        if (esperaAvanceRonda != null) esperaAvanceRonda.cancel();
+        esperaAvanceRonda = null;
     }
 
     /**
@@ -386,6 +409,7 @@ public abstract class JuegoRondasPanel extends BaseJuegoPanel {
     public void removeNotify() {
         detenerPulso();
         detenerAvanceRonda();
+        cancelarPrecarga();
         onAntesDeSalir();
         super.removeNotify();
     }
@@ -0,0 +1,206 @@
+package com.jasgames.ui.juegos.framework;
+
+import com.jasgames.util.AppLog;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Reloj de animación compartido por todos los juegos.
+ *
+ * - Un único {@link javax.swing.Timer} (~60 fps) en el EDT; solo corre mientras haya animaciones activas.
+ * - Cada animación (tween) tiene dueño, duración, easing, callback por cuadro y callback de fin.
+ * - Las esperas simples ("pasar a la siguiente en 700 ms") son tweens sin cuadros.
+ * - Los repintados pedidos con {@link #repintar(JComponent, Rectangle)} se juntan por componente
+ *   y se emiten una vez por cuadro, solo sobre la región sucia.
+ * - {@link #cancelar(Component)} corta todo lo que pertenece a un panel (lo llama BaseJuegoPanel.removeNotify).
+ *
+ * Todo se usa desde el EDT.
+ */
+public final class RelojAnimacion {
+
+    public static final int FRAME_MS = 16;
+
+    /** Curva de tiempo: recibe t en [0,1] y devuelve el progreso. */
+    @FunctionalInterface
+    public interface Easing {
+        double aplicar(double t);
+
+        Easing LINEAL = t -> t;
+        Easing EASE_OUT_CUBIC = t -> {
+            double u = 1 - t;
+            return 1 - u * u * u;
+        };
+        Easing EASE_IN_OUT = t -> t < 0.5 ? 2 * t * t : 1 - Math.pow(-2 * t + 2, 2) / 2;
+    }
+
+    /** Animación registrada en el reloj. */
+    public static final class Tween {
+        private final Component dueno;
+        private final long duracionNs;
+        private final Easing easing;
+        private final DoubleConsumer onFrame;
+        private final Runnable onFin;
+        private final long inicioNs;
+        private boolean activo = true;
+
+        private Tween(Component dueno, int duracionMs, Easing easing, DoubleConsumer onFrame, Runnable onFin) {
+            this.dueno = dueno;
+            this.duracionNs = Math.max(1, duracionMs) * 1_000_000L;
+            this.easing = (easing != null) ? easing : Easing.LINEAL;
+            this.onFrame = onFrame;
+            this.onFin = onFin;
+            this.inicioNs = System.nanoTime();
+        }
+
+        /** Corta la animación sin llamar al callback de fin. */
+        public void cancel() {
+            activo = false;
+        }
+
+        public boolean isRunning() {
+            return activo;
+        }
+
+        /** @return true si terminó en este cuadro */
+        private boolean tick(long ahoraNs) {
+            double t = Math.min(1.0, (ahoraNs - inicioNs) / (double) duracionNs);
+            if (onFrame != null) onFrame.accept(easing.aplicar(t));
+            return t >= 1.0;
+        }
+    }
+
+    private static final List<Tween> TWEENS = new ArrayList<>();
+    private static final Map<JComponent, Rectangle> SUCIAS = new IdentityHashMap<>();
+    private static final Rectangle TODO = new Rectangle(0, 0, -1, -1); // marcador: repintar completo
+    private static Timer timer;
+    private static boolean enCuadro;
+
+    private RelojAnimacion() {}
+
+    // =========================================================
+    // API
+    // =========================================================
+
+    /**
+     * Anima de 0 a 1 en {@code duracionMs}: {@code onFrame} recibe el progreso ya con easing
+     * (el último valor siempre es easing(1)) y al terminar se llama {@code onFin}.
+     */
+    public static Tween animar(Component dueno, int duracionMs, Easing easing, DoubleConsumer onFrame, Runnable onFin) {
+        Tween tw = new Tween(dueno, duracionMs, easing, onFrame, onFin);
+        TWEENS.add(tw);
+        asegurarTimer();
+        return tw;
+    }
+
+    /** Llama {@code onFin} pasados {@code ms} (cancelable igual que un tween). */
+    public static Tween esperar(Component dueno, int ms, Runnable onFin) {
+        return animar(dueno, ms, Easing.LINEAL, null, onFin);
+    }
+
+    /** Cancela las animaciones cuyo dueño es {@code raiz} o está dentro de ella. */
+    public static void cancelar(Component raiz) {
+        if (raiz == null) return;
+        for (Tween tw : TWEENS) {
+            if (tw.dueno == raiz || (tw.dueno != null && SwingUtilities.isDescendingFrom(tw.dueno, raiz))) {
+                tw.activo = false;
+            }
+        }
+    }
+
+    /** Marca como sucia una región de {@code c}; dentro de un cuadro se repinta una vez al final. */
+    public static void repintar(JComponent c, Rectangle region) {
+        if (c == null) return;
+        marcar(c, (region != null) ? region : TODO);
+        if (!enCuadro) volcarSucias(); // llamado fuera del reloj: repintar ya
+    }
+
+    /** Marca todo el componente como sucio (se repinta una vez al final del cuadro). */
+    public static void repintar(JComponent c) {
+        repintar(c, null);
+    }
+
+    /** Región que cubre un objeto de "radio" {@code r} que pasa de {@code a} a {@code b}. */
+    public static Rectangle trayecto(Point a, Point b, int r) {
+        Rectangle rect = new Rectangle(a.x - r, a.y - r, 2 * r, 2 * r);
+        rect.add(new Rectangle(b.x - r, b.y - r, 2 * r, 2 * r));
+        return rect;
+    }
+
+    // =========================================================
+    // Cuadro
+    // =========================================================
+
+    private static void asegurarTimer() {
+        if (timer == null) {
+            timer = new Timer(FRAME_MS, e -> cuadro());
+            timer.setCoalesce(true);
+        }
+        if (!timer.isRunning()) timer.start();
+    }
+
+    private static void cuadro() {
+        enCuadro = true;
+        try {
+            avanzarTweens(System.nanoTime());
+        } finally {
+            enCuadro = false;
+        }
+        volcarSucias();
+
+        if (TWEENS.isEmpty()) timer.stop();
+    }
+
+    private static void avanzarTweens(long ahora) {
+        // Copia: los callbacks pueden registrar o cancelar animaciones
+        List<Tween> activos = new ArrayList<>(TWEENS);
+        List<Tween> terminados = new ArrayList<>();
+        for (Tween tw : activos) {
+            if (!tw.activo) continue;
+            try {
+                if (tw.tick(ahora)) terminados.add(tw);
+            } catch (Exception ex) {
+                tw.activo = false; // una animación rota no frena a las demás
+                AppLog.error("Error en animación.", ex);
+            }
+        }
+
+        for (Tween tw : terminados) {
+            if (!tw.activo) continue; // cancelada por otro callback de este cuadro
+            tw.activo = false;
+            if (tw.onFin != null) {
+                try {
+                    tw.onFin.run();
+                } catch (Exception ex) {
+                    AppLog.error("Error al terminar animación.", ex);
+                }
+            }
+        }
+
+        TWEENS.removeIf(tw -> !tw.activo);
+    }
+
+    private static void marcar(JComponent c, Rectangle region) {
+        Rectangle previa = SUCIAS.get(c);
+        if (previa == TODO) return;
+        if (region == TODO || previa == null) {
+            SUCIAS.put(c, (region == TODO) ? TODO : new Rectangle(region));
+        } else {
+            previa.add(region);
+        }
+    }
+
+    private static void volcarSucias() {
+        if (SUCIAS.isEmpty()) return;
+        for (Map.Entry<JComponent, Rectangle> e : SUCIAS.entrySet()) {
+            if (e.getValue() == TODO) e.getKey().repaint();
+            else e.getKey().repaint(e.getValue());
+        }
+        SUCIAS.clear();
+    }
+}
@@ -0,0 +1,22 @@
+package com.jasgames.ui.juegos.modulos;
+
+import com.jasgames.model.TipoJuego;
+import com.jasgames.service.JuegoModulo;
+
+/** Descriptor del juego 1 (el panel se carga recién al abrirlo). */
+public final class ModuloColores implements JuegoModulo {
+
+    @Override public int getId() { return 1; }
+    @Override public String getNombre() { return "Discriminación de Colores"; }
+    @Override public TipoJuego getTipo() { return TipoJuego.COLORES; }
+
+    @Override
+    public String getDescripcion() {
+        return "Toca el círculo del color indicado. Refuerzo positivo y sin castigo por error.";
+    }
+
+    @Override
+    public String getClasePanel() {
+        return "com.jasgames.ui.juegos.JuegoColoresPanel";
+    }
+}
@@ -0,0 +1,22 @@
+package com.jasgames.ui.juegos.modulos;
+
+import com.jasgames.model.TipoJuego;
+import com.jasgames.service.JuegoModulo;
+
+/** Descriptor del juego 2 (el panel se carga recién al abrirlo). */
+public final class ModuloCuentaConecta implements JuegoModulo {
+
+    @Override public int getId() { return 2; }
+    @Override public String getNombre() { return "Cuenta y Conecta"; }
+    @Override public TipoJuego getTipo() { return TipoJuego.NUMEROS; }
+
+    @Override
+    public String getDescripcion() {
+        return "Cuenta las figuras y toca el número correcto. 5 rondas completadas = 100 puntos.";
+    }
+
+    @Override
+    public String getClasePanel() {
+        return "com.jasgames.ui.juegos.JuegoCuentaConectaPanel";
+    }
+}
@@ -0,0 +1,34 @@
+package com.jasgames.ui.juegos.modulos;
+
+import com.jasgames.model.TipoJuego;
+import com.jasgames.service.JuegoModulo;
+
+import java.util.List;
+
+/** Descriptor del juego 5 (el panel se carga recién al abrirlo). */
+public final class ModuloExplorandoVocales implements JuegoModulo {
+
+    @Override public int getId() { return 5; }
+    @Override public String getNombre() { return "Explorando las Vocales"; }
+    @Override public TipoJuego getTipo() { return TipoJuego.FONEMAS; }
+
+    @Override
+    public String getDescripcion() {
+        return "Escucha la pregunta y toca la imagen cuyo nombre empieza con la vocal mostrada. 5 rondas = 100 puntos.";
+    }
+
+    @Override
+    public String getClasePanel() {
+        return "com.jasgames.ui.juegos.JuegoExplorandoVocalesPanel";
+    }
+
+    // Sonidos de feedback comunes a todas las rondas
+    @Override
+    public List<String> getAssets() {
+        return List.of(
+                "/assets/audio/juego5/acierto.wav",
+                "/assets/audio/juego5/error.wav",
+                "/assets/audio/juego5/fin.wav"
+        );
+    }
+}
@@ -0,0 +1,22 @@
+package com.jasgames.ui.juegos.modulos;
+
+import com.jasgames.model.TipoJuego;
+import com.jasgames.service.JuegoModulo;
+
+/** Descriptor del juego 3 (el panel se carga recién al abrirlo). */
+public final class ModuloSigueSerie implements JuegoModulo {
+
+    @Override public int getId() { return 3; }
+    @Override public String getNombre() { return "Sigue la Serie"; }
+    @Override public TipoJuego getTipo() { return TipoJuego.SERIES; }
+
+    @Override
+    public String getDescripcion() {
+        return "Completa el patrón (serie) eligiendo la figura que falta. 5 rondas completadas = 100 puntos.";
+    }
+
+    @Override
+    public String getClasePanel() {
+        return "com.jasgames.ui.juegos.JuegoSigueSeriePanel";
+    }
+}
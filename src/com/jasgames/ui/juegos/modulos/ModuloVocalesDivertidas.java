@@ -0,0 +1,22 @@
+package com.jasgames.ui.juegos.modulos;
+
+import com.jasgames.model.TipoJuego;
+import com.jasgames.service.JuegoModulo;
+
+/** Descriptor del juego 4 (el panel se carga recién al abrirlo). */
+public final class ModuloVocalesDivertidas implements JuegoModulo {
+
+    @Override public int getId() { return 4; }
+    @Override public String getNombre() { return "Vocales Divertidas"; }
+    @Override public TipoJuego getTipo() { return TipoJuego.FONEMAS; }
+
+    @Override
+    public String getDescripcion() {
+        return "Mira el dibujo y completa la palabra: toca la vocal inicial correcta. Intentos ilimitados.";
+    }
+
+    @Override
+    public String getClasePanel() {
+        return "com.jasgames.ui.juegos.JuegoVocalesDivertidasPanel";
+    }
+}
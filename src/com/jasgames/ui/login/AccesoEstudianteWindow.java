@@ -307,6 +307,13 @@ public class AccesoEstudianteWindow extends JFrame {
         String avatar = safeAvatar(n != null ? n.getAvatar() : null);
         JLabel lblAvatar = new JLabel(avatar, SwingConstants.CENTER);
         EmojiFonts.apply(lblAvatar, 40f * uiScale);
+        // Todas las fichas con el mismo avatar comparten la imagen renderizada (caché de imágenes)
+        Icon icAvatar = EmojiFonts.icon(avatar, 40f * uiScale);
+        if (icAvatar != null) {
+            lblAvatar.setText(null);
+            lblAvatar.setIcon(icAvatar);
+            lblAvatar.getAccessibleContext().setAccessibleName(avatar);
+        }
         lblAvatar.setOpaque(false);
 
         String nombre = (n != null && n.getNombre() != null) ? n.getNombre().trim() : "";
@@ -0,0 +1,117 @@
+package com.jasgames.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Journal de solo-agregado: un registro por línea (UTF-8), con fsync en cada escritura.
+ *
+ * - Agregar un registro cuesta O(tamaño del registro), no O(historial).
+ * - Una línea final incompleta (corte de luz a mitad de escritura) se descarta al leer y se recorta
+ *   del archivo, para que el siguiente registro no quede pegado a ella.
+ * - La compactación (volcar a un snapshot y truncar) la decide el servicio dueño del archivo.
+ */
+public final class AppendOnlyJournal {
+
+    private final Path path;
+
+    public AppendOnlyJournal(Path path) {
+        if (path == null) throw new IllegalArgumentException("path null");
+        this.path = path;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /** Agrega una línea y fuerza el contenido a disco antes de volver. */
+    public void append(String record) throws IOException {
+        if (record == null) return;
+        if (record.indexOf('\n') >= 0 || record.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("El registro no puede contener saltos de línea.");
+        }
+
+        Path dir = path.getParent();
+        if (dir != null) Files.createDirectories(dir);
+
+        byte[] bytes = (record + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel ch = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buf = ByteBuffer.wrap(bytes);
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(false);
+        }
+    }
+
+    /**
+     * Lee todas las líneas completas del journal (en orden de escritura).
+     * Si la última quedó a medias, se recorta del archivo antes de leer.
+     * Si el archivo no existe devuelve una lista vacía.
+     */
+    public List<String> readRecords() throws IOException {
+        List<String> out = new ArrayList<>();
+        if (!Files.exists(path)) return out;
+
+        recortarLineaIncompleta();
+
+        try (BufferedReader br = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (!line.isBlank()) out.add(line);
+            }
+        }
+
+        return out;
+    }
+
+    /** Vacía el journal (después de compactar en el snapshot). */
+    public void truncate() throws IOException {
+        if (!Files.exists(path)) return;
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            ch.truncate(0);
+            ch.force(true);
+        }
+    }
+
+    /** Si el último byte no es '\n', trunca el archivo justo después del último '\n' (o a 0). */
+    private void recortarLineaIncompleta() throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = ch.size();
+            if (size == 0) return;
+
+            ByteBuffer buf = ByteBuffer.allocate(8 * 1024);
+            long fin = size;
+            long corte = 0;
+            boolean primero = true;
+            buscar:
+            while (fin > 0) {
+                long inicio = Math.max(0, fin - buf.capacity());
+                buf.clear().limit((int) (fin - inicio));
+                while (buf.hasRemaining()) {
+                    if (ch.read(buf, inicio + buf.position()) < 0) break;
+                }
+                for (int i = buf.position() - 1; i >= 0; i--) {
+                    if (buf.get(i) == '\n') {
+                        if (primero && inicio + i == size - 1) return; // termina bien
+                        corte = inicio + i + 1;
+                        break buscar;
+                    }
+                    primero = false;
+                }
+                fin = inicio;
+            }
+
+            AppLog.warn(path + ": se descarta una línea incompleta al final (" + (size - corte) + " bytes).");
+            ch.truncate(corte);
+            ch.force(true);
+        }
+    }
+}
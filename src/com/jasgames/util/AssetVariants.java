@@ -0,0 +1,265 @@
+package com.jasgames.util;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Variantes reducidas de las imágenes del classpath (p. ej. /assets/vocales/*.png, 1024 px, ~1.2 MB c/u).
+ *
+ * - La primera vez que se pide una imagen se decodifica el original UNA vez y se generan
+ *   versiones de {@link #SIZES} px (lado mayor), reduciendo a la mitad en pasos (calidad parecida a SCALE_SMOOTH).
+ * - Se guardan en data/cache/img/ con nombre {@code <archivo>-<hash>-<lado>.png}; el hash es del contenido
+ *   del original, así un asset modificado genera variantes nuevas (las viejas se borran).
+ * - Los juegos piden el tamaño que van a pintar y reciben la variante más cercana por encima
+ *   (o el original si piden más grande que todas).
+ * - {@link #prepare(Collection)} genera en segundo plano (primer arranque) para no trabar la ronda.
+ *
+ * - No interrumpe el flujo si algo falla: sin disco se usa la variante generada en memoria.
+ */
+public final class AssetVariants {
+
+    /** Lados disponibles (px), de menor a mayor. */
+    static final int[] SIZES = {128, 256, 512};
+
+    private static final Path CACHE_DIR = Paths.get("data", "cache", "img");
+
+    // hash del contenido por recurso (se calcula una vez por ejecución)
+    private static final Map<String, String> HASHES = new ConcurrentHashMap<>();
+    // un lock por recurso: si prepare() y un juego piden la misma imagen, se genera una sola vez
+    private static final Map<String, Object> LOCKS = new ConcurrentHashMap<>();
+
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "AssetVariants");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private AssetVariants() {}
+
+    // =========================================================
+    // API
+    // =========================================================
+
+    /** Genera (si faltan) las variantes de estas imágenes en segundo plano. */
+    public static void prepare(Collection<String> resourcePaths) {
+        if (resourcePaths == null || resourcePaths.isEmpty()) return;
+        List<String> copia = new ArrayList<>(resourcePaths);
+        WORKER.execute(() -> {
+            for (String p : copia) {
+                try {
+                    variante(p, SIZES[0]);
+                } catch (Exception e) {
+                    AppLog.warn("AssetVariants: no se pudo preparar " + p + " (" + e.getMessage() + ")");
+                }
+            }
+        });
+    }
+
+    /**
+     * Devuelve la variante cuyo lado mayor es el más cercano por encima de {@code maxSide}
+     * (sin reescalar), o null si el recurso no existe.
+     */
+    public static BufferedImage load(String resourcePath, int maxSide) {
+        try {
+            return variante(resourcePath, maxSide);
+        } catch (Exception e) {
+            AppLog.error("Error cargando imagen: " + resourcePath, e);
+            return null;
+        }
+    }
+
+    /**
+     * Igual que {@link #load}, pero ajustada a w×h exactos (una sola reducción pequeña desde la variante).
+     * Devuelve null si el recurso no existe.
+     */
+    public static BufferedImage loadScaled(String resourcePath, int w, int h) {
+        BufferedImage src = load(resourcePath, Math.max(w, h));
+        if (src == null) return null;
+        if (src.getWidth() == w && src.getHeight() == h) return src;
+        return escalar(src, w, h);
+    }
+
+    /** Lado de variante que se usaría para pintar a {@code maxSide} px (0 = original). */
+    public static int variantSide(int maxSide) {
+        for (int s : SIZES) {
+            if (s >= maxSide) return s;
+        }
+        return 0;
+    }
+
+    // =========================================================
+    // Generación / disco
+    // =========================================================
+
+    private static BufferedImage variante(String resourcePath, int maxSide) throws IOException {
+        if (resourcePath == null) return null;
+        int lado = variantSide(maxSide);
+
+        Object lock = LOCKS.computeIfAbsent(resourcePath, k -> new Object());
+        synchronized (lock) {
+            byte[] original = null;
+            String hash = HASHES.get(resourcePath);
+            if (hash == null) {
+                original = leerRecurso(resourcePath);
+                if (original == null) {
+                    AppLog.warn("Imagen no encontrada: " + resourcePath);
+                    return null;
+                }
+                hash = sha256(original).substring(0, 16);
+                HASHES.put(resourcePath, hash);
+            }
+
+            if (lado > 0) {
+                Path cache = archivoVariante(resourcePath, hash, lado);
+                if (Files.isRegularFile(cache)) {
+                    BufferedImage img = leerPng(cache);
+                    if (img != null) return img;
+                }
+            }
+
+            // Falta alguna variante (o se pidió el original): decodificar el original una vez
+            if (original == null) original = leerRecurso(resourcePath);
+            if (original == null) return null;
+
+            BufferedImage full = ImageIO.read(new ByteArrayInputStream(original));
+            if (full == null) throw new IOException("Formato de imagen no soportado: " + resourcePath);
+            if (lado == 0) return full;
+
+            return generarVariantes(resourcePath, hash, full, lado);
+        }
+    }
+
+    /** Genera todas las variantes (de mayor a menor, cada una desde la anterior) y devuelve la de {@code lado}. */
+    private static BufferedImage generarVariantes(String resourcePath, String hash, BufferedImage full, int lado) {
+        borrarVariantesViejas(resourcePath, hash);
+
+        BufferedImage pedida = null;
+        BufferedImage actual = full;
+        for (int i = SIZES.length - 1; i >= 0; i--) {
+            int s = SIZES[i];
+            actual = reducir(actual, s);
+
+            Path destino = archivoVariante(resourcePath, hash, s);
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ImageIO.write(actual, "png", out);
+                AtomicFiles.writeBytesAtomic(destino, out.toByteArray());
+            } catch (Exception e) {
+                AppLog.warn("AssetVariants: no se pudo guardar " + destino + " (" + e.getMessage() + ")");
+            }
+
+            if (s == lado) pedida = actual;
+        }
+        return pedida;
+    }
+
+    /** Reduce hasta que el lado mayor sea {@code maxSide}, en pasos de 1/2 (bilineal). */
+    private static BufferedImage reducir(BufferedImage src, int maxSide) {
+        int w = src.getWidth();
+        int h = src.getHeight();
+        int mayor = Math.max(w, h);
+        if (mayor <= maxSide) return src;
+
+        double f = maxSide / (double) mayor;
+        int tw = Math.max(1, (int) Math.round(w * f));
+        int th = Math.max(1, (int) Math.round(h * f));
+
+        BufferedImage img = src;
+        while (img.getWidth() / 2 >= tw && img.getHeight() / 2 >= th) {
+            img = escalar(img, img.getWidth() / 2, img.getHeight() / 2);
+        }
+        if (img.getWidth() != tw || img.getHeight() != th) {
+            img = escalar(img, tw, th);
+        }
+        return img;
+    }
+
+    private static BufferedImage escalar(BufferedImage src, int w, int h) {
+        int type = src.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage out = new BufferedImage(w, h, type);
+        Graphics2D g2 = out.createGraphics();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2.drawImage(src, 0, 0, w, h, null);
+        } finally {
+            g2.dispose();
+        }
+        return out;
+    }
+
+    private static Path archivoVariante(String resourcePath, String hash, int lado) {
+        return CACHE_DIR.resolve(nombreBase(resourcePath) + "-" + hash + "-" + lado + ".png");
+    }
+
+    /** "/assets/vocales/oso.png" -> "assets_vocales_oso" (único por recurso, válido como nombre de archivo). */
+    private static String nombreBase(String resourcePath) {
+        String s = resourcePath.startsWith("/") ? resourcePath.substring(1) : resourcePath;
+        int dot = s.lastIndexOf('.');
+        if (dot > s.lastIndexOf('/')) s = s.substring(0, dot);
+        return s.replaceAll("[^A-Za-z0-9_]", "_");
+    }
+
+    /** Si el asset cambió, sus variantes con otro hash ya no sirven. */
+    private static void borrarVariantesViejas(String resourcePath, String hash) {
+        if (!Files.isDirectory(CACHE_DIR)) return;
+        String base = nombreBase(resourcePath);
+        String glob = base + "-*.png";
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(CACHE_DIR, glob)) {
+            for (Path p : ds) {
+                String resto = p.getFileName().toString().substring(base.length() + 1);
+                // resto = "<hash>-<lado>.png"; evita borrar recursos cuyo nombre empieza igual
+                if (!resto.matches("[0-9a-f]{16}-\\d+\\.png")) continue;
+                if (!resto.startsWith(hash + "-")) {
+                    try { Files.deleteIfExists(p); } catch (Exception ignored) {}
+                }
+            }
+        } catch (Exception ignored) {}
+    }
+
+    private static BufferedImage leerPng(Path p) {
+        try {
+            return ImageIO.read(p.toFile());
+        } catch (Exception e) {
+            // Variante dañada: se regenera
+            try { Files.deleteIfExists(p); } catch (Exception ignored) {}
+            return null;
+        }
+    }
+
+    private static byte[] leerRecurso(String resourcePath) throws IOException {
+        try (InputStream in = AssetVariants.class.getResourceAsStream(resourcePath)) {
+            return (in == null) ? null : in.readAllBytes();
+        }
+    }
+
+    private static String sha256(byte[] data) throws IOException {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 no disponible", e);
+        }
+
+        StringBuilder sb = new StringBuilder(64);
+        for (byte b : md.digest(data)) sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+}
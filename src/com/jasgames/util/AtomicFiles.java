@@ -1,6 +1,8 @@
 package com.jasgames.util;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.file.*;
 import java.util.UUID;
@@ -9,6 +11,12 @@ public final class AtomicFiles {
 
     private AtomicFiles() {}
 
+    /** Contenido que se escribe en streaming (sin armar antes un String completo). */
+    @FunctionalInterface
+    public interface WriterCallback {
+        void writeTo(Writer writer) throws IOException;
+    }
+
     public static void writeStringAtomic(Path target, String content, Charset charset) throws IOException {
         if (target == null) throw new IllegalArgumentException("target null");
 
@@ -34,4 +42,81 @@ public final class AtomicFiles {
             try { Files.deleteIfExists(tmp); } catch (Exception ignored) {}
         }
     }
+
+    /** Igual que {@link #writeStringAtomic}, pero el contenido se escribe directamente al temporal. */
+    public static void writeAtomic(Path target, Charset charset, WriterCallback content) throws IOException {
+        if (target == null) throw new IllegalArgumentException("target null");
+
+        Path dir = target.getParent();
+        if (dir != null) Files.createDirectories(dir);
+
+        String base = target.getFileName().toString();
+        String prefix = (base.length() >= 3 ? base : "tmp") + ".tmp-";
+        Path tmp = Files.createTempFile(dir != null ? dir : Paths.get("."), prefix, "-" + UUID.randomUUID());
+
+        try {
+            try (BufferedWriter w = Files.newBufferedWriter(tmp, charset, StandardOpenOption.TRUNCATE_EXISTING)) {
+                content.writeTo(w);
+            }
+
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+        } finally {
+            try { Files.deleteIfExists(tmp); } catch (Exception ignored) {}
+        }
+    }
+
+    /** Igual que {@link #writeStringAtomic} pero para contenido binario. */
+    public static void writeBytesAtomic(Path target, byte[] content) throws IOException {
+        if (target == null) throw new IllegalArgumentException("target null");
+
+        Path dir = target.getParent();
+        if (dir != null) Files.createDirectories(dir);
+
+        String base = target.getFileName().toString();
+        String prefix = (base.length() >= 3 ? base : "tmp") + ".tmp-";
+        Path tmp = Files.createTempFile(dir != null ? dir : Paths.get("."), prefix, "-" + UUID.randomUUID());
+
+        try {
+            Files.write(tmp, content, StandardOpenOption.TRUNCATE_EXISTING);
+
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+        } finally {
+            try { Files.deleteIfExists(tmp); } catch (Exception ignored) {}
+        }
+    }
+
+    /** Copia {@code source} sobre {@code target} usando un temporal + move (nunca deja el destino a medias). */
+    public static void copyAtomic(Path source, Path target) throws IOException {
+        if (source == null || target == null) throw new IllegalArgumentException("source/target null");
+
+        Path dir = target.getParent();
+        if (dir != null) Files.createDirectories(dir);
+
+        String base = target.getFileName().toString();
+        String prefix = (base.length() >= 3 ? base : "tmp") + ".tmp-";
+        Path tmp = Files.createTempFile(dir != null ? dir : Paths.get("."), prefix, "-" + UUID.randomUUID());
+
+        try {
+            Files.copy(source, tmp, StandardCopyOption.REPLACE_EXISTING);
+
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+        } finally {
+            try { Files.deleteIfExists(tmp); } catch (Exception ignored) {}
+        }
+    }
 }
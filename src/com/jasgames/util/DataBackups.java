@@ -1,30 +1,87 @@
 package com.jasgames.util;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Backups simples para archivos en la carpeta data/.
+ * Backups incrementales (content-addressed) para archivos en la carpeta data/.
+ *
+ * Estructura:
+ * - data/backups/staging/    copias "congeladas" pendientes de procesar (hard link al archivo viejo)
+ * - data/backups/blobs/ab/   contenido deduplicado, nombrado por su SHA-256
+ * - data/backups/snapshots/  un manifiesto JSON por snapshot (archivo, hash, tamaño, fecha)
  *
- * Crea copias en: data/backups/YYYY-MM-DD_HH-mm-ss-SSS/<archivo>
+ * Flujo:
+ * - {@link #backupIfExists(Path)} solo "congela" el contenido actual (hard link; copia si el FS no lo soporta).
+ *   Como los servicios reemplazan el archivo con un move atómico, el link conserva el contenido viejo.
+ * - Un hilo en segundo plano calcula el hash, guarda el blob si es nuevo, escribe el manifiesto
+ *   y aplica la retención por tiempo (horaria / diaria / semanal). Guardar nunca espera al backup.
+ * - Las carpetas con el formato anterior (data/backups/YYYY-MM-DD_HH-mm-ss-SSS/) se importan al store.
  *
  * - No interrumpe el flujo si algo falla.
- * - Mantiene un máximo de carpetas de backup (global) para no crecer infinito.
  */
 public final class DataBackups {
 
     private static final DateTimeFormatter TS = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss-SSS");
-    private static final int MAX_BACKUP_DIRS = 30;
+
+    // Retención: todo lo de la última hora (con tope), luego 1 por hora (24h), 1 por día (7 días), 1 por semana (8 semanas)
+    private static final Duration VENTANA_TODO = Duration.ofHours(1);
+    private static final Duration VENTANA_HORARIA = Duration.ofHours(24);
+    private static final Duration VENTANA_DIARIA = Duration.ofDays(7);
+    private static final Duration VENTANA_SEMANAL = Duration.ofDays(7L * 8);
+    private static final int MAX_RECIENTES_POR_ARCHIVO = 50;
+
+    private static final String DIR_STAGING = "staging";
+    private static final String DIR_BLOBS = "blobs";
+    private static final String DIR_SNAPSHOTS = "snapshots";
+    private static final String SEP_STAGING = "__";
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private static final AtomicLong SEQ = new AtomicLong();
+    private static final AtomicBoolean PROGRAMADO = new AtomicBoolean(false);
+    private static final Object STORE_LOCK = new Object();
+
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "DataBackups");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Último hash conocido por archivo (evita snapshots sin cambios). Se carga perezosamente.
+    private static Map<String, String> ultimoHashPorArchivo;
 
     private DataBackups() {}
 
+    // =========================================================
+    // API
+    // =========================================================
+
     /**
-     * Crea un backup del archivo (si existe) antes de sobrescribirlo.
+     * Congela el contenido actual del archivo (si existe) antes de sobrescribirlo.
+     * El procesamiento (hash, dedupe, retención) ocurre en segundo plano.
      *
      * @param file archivo dentro de data/ (ej: data/ninos.json)
      */
@@ -33,69 +90,472 @@ public final class DataBackups {
 
         try {
             Path normalized = file.toAbsolutePath().normalize();
-            String n = normalized.toString();
 
+            Path dataDir = dataDir();
+            // Si no está dentro de data/, no hacemos backup
+            if (!normalized.startsWith(dataDir)) return;
+
+            Path backupsRoot = backupsRoot();
             // Evitar bucles y basura
-            if (n.contains(FileSystems.getDefault().getSeparator() + "backups" + FileSystems.getDefault().getSeparator())) return;
+            if (normalized.startsWith(backupsRoot)) return;
             if (!Files.exists(normalized)) return;
             if (Files.isDirectory(normalized)) return;
 
-            Path dataDir = Paths.get("data").toAbsolutePath().normalize();
-            // Si no está dentro de data/, no hacemos backup
-            if (!normalized.startsWith(dataDir)) return;
-
-            Path backupsRoot = dataDir.resolve("backups");
-            Files.createDirectories(backupsRoot);
+            Path staging = backupsRoot.resolve(DIR_STAGING);
+            Files.createDirectories(staging);
 
-            String ts = LocalDateTime.now().format(TS);
-            Path backupDir = backupsRoot.resolve(ts);
-            Files.createDirectories(backupDir);
+            Path staged = staging.resolve(nombreStaging(normalized));
 
-            Path target = backupDir.resolve(file.getFileName());
-            Files.copy(normalized, target, StandardCopyOption.REPLACE_EXISTING);
+            try {
+                Files.createLink(staged, normalized);
+            } catch (UnsupportedOperationException | IOException e) {
+                Files.copy(normalized, staged, StandardCopyOption.REPLACE_EXISTING);
+            }
 
-            cleanupOldBackups(backupsRoot);
+            programarProcesamiento();
 
         } catch (Exception ignored) {
             // No romper el programa por un backup
         }
     }
 
-    private static void cleanupOldBackups(Path backupsRoot) {
+    /**
+     * Mueve el archivo al store de backups (queda como un snapshot más de ese archivo) y lo retira de data/.
+     * A diferencia de {@link #backupIfExists(Path)} no usa un hard link: sirve para archivos que su dueño
+     * modifica en el lugar (p. ej. un journal que se trunca), donde el link vería el cambio.
+     *
+     * @return true si había archivo y se movió; si falla lanza la excepción y el archivo queda donde estaba
+     */
+    public static boolean archivar(Path file) throws IOException {
+        if (file == null) return false;
+
+        Path normalized = file.toAbsolutePath().normalize();
+        if (!Files.isRegularFile(normalized)) return false;
+        if (!normalized.startsWith(dataDir()) || normalized.startsWith(backupsRoot())) {
+            throw new IllegalArgumentException("Solo se archivan archivos de data/: " + file);
+        }
+
+        Path staging = backupsRoot().resolve(DIR_STAGING);
+        Files.createDirectories(staging);
+        Path staged = staging.resolve(nombreStaging(normalized));
+        try {
+            Files.move(normalized, staged, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(normalized, staged);
+        }
+
+        programarProcesamiento();
+        return true;
+    }
+
+    /**
+     * Espera a que el hilo de backups termine lo pendiente.
+     *
+     * @return true si quedó todo procesado dentro del tiempo indicado
+     */
+    public static boolean esperarPendientes(long timeoutMs) {
         try {
-            if (backupsRoot == null || !Files.isDirectory(backupsRoot)) return;
+            return WORKER.submit(() -> { }).get(timeoutMs, TimeUnit.MILLISECONDS) == null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /** Lista los snapshots disponibles (más reciente primero). */
+    public static List<Snapshot> listarSnapshots() {
+        esperarPendientes(5_000);
+        synchronized (STORE_LOCK) {
+            List<Snapshot> out = leerManifiestos();
+            out.sort(Comparator.comparing(Snapshot::getFecha).reversed());
+            return out;
+        }
+    }
+
+    /**
+     * Restaura el contenido de un snapshot en la carpeta indicada.
+     * Antes de sobrescribir, el archivo actual también queda respaldado.
+     */
+    public static void restaurar(Snapshot snapshot, Path destinoDir) throws IOException {
+        if (snapshot == null || destinoDir == null) throw new IllegalArgumentException("snapshot/destino null");
+
+        Path blob = blobPath(backupsRoot(), snapshot.getHash());
+        if (!Files.isRegularFile(blob)) {
+            throw new NoSuchFileException("No se encontró el contenido del backup: " + snapshot.getHash());
+        }
+
+        Files.createDirectories(destinoDir);
+        Path dest = destinoDir.resolve(snapshot.getNombreArchivo());
+
+        // Una escritura diferida pendiente pisaría lo restaurado: se vuelca antes
+        PersistenceScheduler.flushNow(dest);
+
+        // backup de seguridad antes de sobreescribir
+        backupIfExists(dest);
+
+        AtomicFiles.copyAtomic(blob, dest);
+    }
+
+    /** Snapshot de un archivo de data/ en un instante dado (contenido referenciado por hash). */
+    public static final class Snapshot {
+        private final String id;
+        private final LocalDateTime fecha;
+        private final String nombreArchivo;
+        private final String hash;
+        private final long bytes;
+
+        private Snapshot(String id, LocalDateTime fecha, String nombreArchivo, String hash, long bytes) {
+            this.id = id;
+            this.fecha = fecha;
+            this.nombreArchivo = nombreArchivo;
+            this.hash = hash;
+            this.bytes = bytes;
+        }
+
+        public String getId() { return id; }
+        public LocalDateTime getFecha() { return fecha; }
+        public String getNombreArchivo() { return nombreArchivo; }
+        public String getHash() { return hash; }
+        public long getBytes() { return bytes; }
+
+        @Override
+        public String toString() {
+            return fecha.format(TS) + "  " + nombreArchivo;
+        }
+    }
+
+    // =========================================================
+    // Worker
+    // =========================================================
+
+    private static void programarProcesamiento() {
+        if (!PROGRAMADO.compareAndSet(false, true)) return;
+        try {
+            WORKER.execute(() -> {
+                PROGRAMADO.set(false);
+                procesar();
+            });
+        } catch (Exception e) {
+            PROGRAMADO.set(false);
+        }
+    }
+
+    private static void procesar() {
+        synchronized (STORE_LOCK) {
+            try {
+                Path root = backupsRoot();
+                if (!Files.isDirectory(root)) return;
+
+                importarCarpetasAntiguas(root);
+
+                boolean nuevos = procesarStaging(root);
+                if (nuevos) {
+                    aplicarRetencion(root);
+                }
+            } catch (Exception e) {
+                AppLog.error("Error procesando backups.", e);
+            }
+        }
+    }
+
+    private static boolean procesarStaging(Path root) throws IOException {
+        Path staging = root.resolve(DIR_STAGING);
+        if (!Files.isDirectory(staging)) return false;
+
+        List<Path> pendientes = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(staging)) {
+            for (Path p : ds) {
+                if (Files.isRegularFile(p)) pendientes.add(p);
+            }
+        }
+        if (pendientes.isEmpty()) return false;
+
+        // Orden de llegada (millis-secuencia)
+        pendientes.sort(Comparator.comparing((Path p) -> millisDeStaging(p)).thenComparing(p -> p.getFileName().toString()));
+
+        boolean nuevos = false;
+        for (Path p : pendientes) {
+            String name = p.getFileName().toString();
+            int idx = name.indexOf(SEP_STAGING);
+            if (idx <= 0) {
+                Files.deleteIfExists(p);
+                continue;
+            }
+            String nombreArchivo = name.substring(idx + SEP_STAGING.length());
+            LocalDateTime fecha = LocalDateTime.ofInstant(Instant.ofEpochMilli(millisDeStaging(p)), ZoneId.systemDefault());
+
+            if (ingerir(root, p, nombreArchivo, fecha, true)) nuevos = true;
+        }
+        return nuevos;
+    }
+
+    /**
+     * Agrega un archivo al store. Si {@code mover} es true, el origen se mueve (o borra si ya existía el blob).
+     *
+     * @return true si se creó un snapshot nuevo
+     */
+    private static boolean ingerir(Path root, Path origen, String nombreArchivo, LocalDateTime fecha, boolean mover) throws IOException {
+        String hash = sha256(origen);
+        long bytes = Files.size(origen);
 
-            List<Path> dirs = new ArrayList<>();
-            try (DirectoryStream<Path> ds = Files.newDirectoryStream(backupsRoot)) {
-                for (Path p : ds) {
-                    if (Files.isDirectory(p)) dirs.add(p);
+        Map<String, String> ultimos = ultimosHashes();
+        if (hash.equals(ultimos.get(nombreArchivo))) {
+            // Sin cambios respecto al último snapshot de este archivo
+            if (mover) Files.deleteIfExists(origen);
+            return false;
+        }
+
+        Path blob = blobPath(root, hash);
+        if (Files.exists(blob)) {
+            if (mover) Files.deleteIfExists(origen);
+        } else {
+            Files.createDirectories(blob.getParent());
+            if (mover) {
+                try {
+                    Files.move(origen, blob, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(origen, blob);
                 }
+            } else {
+                AtomicFiles.copyAtomic(origen, blob);
             }
+        }
 
-            // Orden por nombre (timestamp) ascendente
-            dirs.sort(Comparator.comparing(p -> p.getFileName().toString()));
-            int excess = dirs.size() - MAX_BACKUP_DIRS;
-            if (excess <= 0) return;
+        String id = fecha.format(TS) + "-" + SEQ.incrementAndGet();
+        Manifiesto m = new Manifiesto();
+        m.id = id;
+        m.fecha = fecha.toString();
+        m.archivo = nombreArchivo;
+        m.hash = hash;
+        m.bytes = bytes;
 
-            for (int i = 0; i < excess; i++) {
-                deleteRecursive(dirs.get(i));
+        Path manifiesto = root.resolve(DIR_SNAPSHOTS).resolve(id + ".json");
+        AtomicFiles.writeStringAtomic(manifiesto, GSON.toJson(m), StandardCharsets.UTF_8);
+
+        ultimos.put(nombreArchivo, hash);
+        return true;
+    }
+
+    /** Importa carpetas de backups con el formato anterior (una copia completa por carpeta). */
+    private static void importarCarpetasAntiguas(Path root) {
+        List<Path> antiguas = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(root)) {
+            for (Path p : ds) {
+                if (!Files.isDirectory(p)) continue;
+                if (parseTs(p.getFileName().toString()) != null) antiguas.add(p);
+            }
+        } catch (IOException e) {
+            return;
+        }
+        if (antiguas.isEmpty()) return;
+
+        antiguas.sort(Comparator.comparing(p -> p.getFileName().toString()));
+        for (Path dir : antiguas) {
+            LocalDateTime fecha = parseTs(dir.getFileName().toString());
+            try {
+                List<Path> archivos = new ArrayList<>();
+                try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir)) {
+                    for (Path f : ds) {
+                        if (Files.isRegularFile(f)) archivos.add(f);
+                    }
+                }
+                for (Path f : archivos) {
+                    ingerir(root, f, f.getFileName().toString(), fecha, true);
+                }
+                for (Path f : archivos) Files.deleteIfExists(f);
+                Files.deleteIfExists(dir);
+            } catch (Exception e) {
+                AppLog.warn("No se pudo importar backup antiguo " + dir.getFileName() + ": " + e.getMessage());
+            }
+        }
+        aplicarRetencion(root);
+    }
+
+    // =========================================================
+    // Retención + GC
+    // =========================================================
+
+    private static void aplicarRetencion(Path root) {
+        List<Snapshot> todos = leerManifiestos();
+        LocalDateTime ahora = LocalDateTime.now();
+
+        Map<String, List<Snapshot>> porArchivo = new HashMap<>();
+        for (Snapshot s : todos) {
+            porArchivo.computeIfAbsent(s.getNombreArchivo(), k -> new ArrayList<>()).add(s);
+        }
+
+        List<Snapshot> borrar = new ArrayList<>();
+        for (List<Snapshot> lista : porArchivo.values()) {
+            lista.sort(Comparator.comparing(Snapshot::getFecha).reversed());
+
+            Set<String> buckets = new HashSet<>();
+            int recientes = 0;
+            for (int i = 0; i < lista.size(); i++) {
+                Snapshot s = lista.get(i);
+                if (i == 0) continue; // siempre se conserva el último
+
+                Duration edad = Duration.between(s.getFecha(), ahora);
+                String bucket;
+                if (edad.compareTo(VENTANA_TODO) < 0) {
+                    if (++recientes < MAX_RECIENTES_POR_ARCHIVO) continue;
+                    borrar.add(s);
+                    continue;
+                } else if (edad.compareTo(VENTANA_HORARIA) < 0) {
+                    bucket = "H" + s.getFecha().truncatedTo(ChronoUnit.HOURS);
+                } else if (edad.compareTo(VENTANA_DIARIA) < 0) {
+                    bucket = "D" + s.getFecha().toLocalDate();
+                } else if (edad.compareTo(VENTANA_SEMANAL) < 0) {
+                    bucket = "W" + s.getFecha().get(IsoFields.WEEK_BASED_YEAR) + "-" + s.getFecha().get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+                } else {
+                    borrar.add(s);
+                    continue;
+                }
+
+                // Se conserva el más reciente de cada bucket
+                if (!buckets.add(bucket)) borrar.add(s);
+            }
+        }
+
+        Path snapshotsDir = root.resolve(DIR_SNAPSHOTS);
+        for (Snapshot s : borrar) {
+            try {
+                Files.deleteIfExists(snapshotsDir.resolve(s.getId() + ".json"));
+            } catch (Exception ignored) {}
+        }
+
+        if (!borrar.isEmpty()) {
+            // Un mismo hash puede seguir referenciado por otro snapshot conservado
+            Set<Snapshot> borrados = new HashSet<>(borrar);
+            Set<String> vivos = new HashSet<>();
+            for (Snapshot s : todos) {
+                if (!borrados.contains(s)) vivos.add(s.getHash());
+            }
+            recolectarBlobs(root, vivos);
+        }
+    }
+
+    private static void recolectarBlobs(Path root, Set<String> vivos) {
+        Path blobs = root.resolve(DIR_BLOBS);
+        if (!Files.isDirectory(blobs)) return;
+
+        try (DirectoryStream<Path> prefijos = Files.newDirectoryStream(blobs)) {
+            for (Path pref : prefijos) {
+                if (!Files.isDirectory(pref)) continue;
+                boolean vacio = true;
+                try (DirectoryStream<Path> ds = Files.newDirectoryStream(pref)) {
+                    for (Path b : ds) {
+                        if (vivos.contains(b.getFileName().toString())) {
+                            vacio = false;
+                        } else {
+                            try { Files.deleteIfExists(b); } catch (Exception ignored) { vacio = false; }
+                        }
+                    }
+                }
+                if (vacio) {
+                    try { Files.deleteIfExists(pref); } catch (Exception ignored) {}
+                }
             }
         } catch (Exception ignored) {
         }
     }
 
-    private static void deleteRecursive(Path dir) throws IOException {
-        if (dir == null || !Files.exists(dir)) return;
-        // Eliminar hijos primero
+    // =========================================================
+    // Helpers
+    // =========================================================
+
+    private static class Manifiesto {
+        String id;
+        String fecha;
+        String archivo;
+        String hash;
+        long bytes;
+    }
+
+    private static List<Snapshot> leerManifiestos() {
+        List<Snapshot> out = new ArrayList<>();
+        Path dir = backupsRoot().resolve(DIR_SNAPSHOTS);
+        if (!Files.isDirectory(dir)) return out;
+
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*.json")) {
+            for (Path p : ds) {
+                try {
+                    Manifiesto m = GSON.fromJson(Files.readString(p, StandardCharsets.UTF_8), Manifiesto.class);
+                    if (m == null || m.id == null || m.fecha == null || m.archivo == null || m.hash == null) continue;
+                    out.add(new Snapshot(m.id, LocalDateTime.parse(m.fecha), m.archivo, m.hash, m.bytes));
+                } catch (JsonParseException | DateTimeParseException | IOException ignored) {
+                    // Manifiesto corrupto: se ignora
+                }
+            }
+        } catch (IOException ignored) {
+        }
+        return out;
+    }
+
+    private static Map<String, String> ultimosHashes() {
+        if (ultimoHashPorArchivo != null) return ultimoHashPorArchivo;
+
+        Map<String, String> map = new HashMap<>();
+        Map<String, LocalDateTime> fechas = new HashMap<>();
+        for (Snapshot s : leerManifiestos()) {
+            LocalDateTime f = fechas.get(s.getNombreArchivo());
+            if (f == null || s.getFecha().isAfter(f)) {
+                fechas.put(s.getNombreArchivo(), s.getFecha());
+                map.put(s.getNombreArchivo(), s.getHash());
+            }
+        }
+        ultimoHashPorArchivo = map;
+        return map;
+    }
+
+    private static String nombreStaging(Path archivo) {
+        return System.currentTimeMillis() + "-" + SEQ.incrementAndGet() + SEP_STAGING + archivo.getFileName();
+    }
+
+    private static Path dataDir() {
+        return Paths.get("data").toAbsolutePath().normalize();
+    }
+
+    private static Path backupsRoot() {
+        return dataDir().resolve("backups");
+    }
+
+    private static Path blobPath(Path root, String hash) {
+        return root.resolve(DIR_BLOBS).resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static long millisDeStaging(Path p) {
+        String name = p.getFileName().toString();
+        int guion = name.indexOf('-');
+        try {
+            return Long.parseLong(guion > 0 ? name.substring(0, guion) : name);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private static LocalDateTime parseTs(String s) {
         try {
-            Files.walk(dir)
-                    .sorted(Comparator.reverseOrder())
-                    .forEach(p -> {
-                        try {
-                            Files.deleteIfExists(p);
-                        } catch (Exception ignored) {}
-                    });
-        } catch (NoSuchFileException ignored) {
+            return LocalDateTime.parse(s, TS);
+        } catch (DateTimeParseException e) {
+            return null;
         }
     }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 no disponible", e);
+        }
+
+        byte[] buf = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buf)) > 0) md.update(buf, 0, n);
+        }
+
+        StringBuilder sb = new StringBuilder(64);
+        for (byte b : md.digest()) sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
 }
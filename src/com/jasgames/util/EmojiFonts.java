@@ -2,6 +2,10 @@ package com.jasgames.util;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineMetrics;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -43,11 +47,76 @@ public final class EmojiFonts {
         return cachedFamily;
     }
 
+    /** Fuente emoji del tamaño pedido (una instancia por tamaño, ver {@link GlyphCache}). */
     public static Font emoji(float size) {
-        return new Font(pickFamily(), Font.PLAIN, Math.round(size));
+        return GlyphCache.font(pickFamily(), Font.PLAIN, Math.round(size));
     }
 
     public static void apply(JComponent c, float size) {
         if (c != null) c.setFont(emoji(size));
     }
+
+    /**
+     * Emoji renderizado una sola vez (caché compartida {@link ImageCache}) como icono del tamaño de la fuente.
+     * Se dibuja a la escala de la pantalla para que no se vea borroso en HiDPI. Devuelve null si no se pudo.
+     */
+    public static Icon icon(String text, float size) {
+        if (text == null || text.isEmpty() || size <= 0) return null;
+
+        double escala = escalaPantalla();
+        BufferedImage img = ImageCache.getOrCreate(
+                "emoji:" + pickFamily() + ":" + text + "@" + escala, Math.round(size), 0,
+                () -> render(text, (float) (size * escala))
+        );
+        if (img == null) return null;
+
+        int w = (int) Math.ceil(img.getWidth() / escala);
+        int h = (int) Math.ceil(img.getHeight() / escala);
+        return new Icon() {
+            @Override
+            public void paintIcon(Component c, Graphics g, int x, int y) {
+                Graphics2D g2 = (Graphics2D) g.create();
+                g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g2.drawImage(img, x, y, w, h, null);
+                g2.dispose();
+            }
+
+            @Override public int getIconWidth() { return w; }
+            @Override public int getIconHeight() { return h; }
+        };
+    }
+
+    private static BufferedImage render(String text, float size) {
+        Font f = emoji(size);
+        FontRenderContext frc = new FontRenderContext(null, true, true);
+        Rectangle2D r = f.getStringBounds(text, frc);
+        LineMetrics lm = f.getLineMetrics(text, frc);
+
+        int w = Math.max(1, (int) Math.ceil(r.getWidth()));
+        int h = Math.max(1, (int) Math.ceil(lm.getAscent() + lm.getDescent()));
+
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = img.createGraphics();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+            g2.setFont(f);
+            g2.setColor(UIManager.getColor("Label.foreground") != null ? UIManager.getColor("Label.foreground") : Color.BLACK);
+            g2.drawString(text, 0, lm.getAscent());
+        } finally {
+            g2.dispose();
+        }
+        return img;
+    }
+
+    private static double escalaPantalla() {
+        try {
+            if (GraphicsEnvironment.isHeadless()) return 1.0;
+            double s = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration().getDefaultTransform().getScaleX();
+            return (s > 0) ? s : 1.0;
+        } catch (Exception e) {
+            return 1.0;
+        }
+    }
 }
@@ -0,0 +1,148 @@
+package com.jasgames.util;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.Rectangle2D;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Fuentes y textos ya maquetados para los lienzos de los juegos.
+ *
+ * - {@link #font(String, int, int)}: una sola instancia de Font por (familia, estilo, tamaño).
+ * - {@link #glyph(Font, String)}: el {@link GlyphVector} del texto (emoji, dígitos, vocales, "?")
+ *   con su ancho y ascenso; así un cuadro de animación solo dibuja, no vuelve a maquetar.
+ * - Ambas cachés son LRU acotadas (el pulso pide muchos tamaños seguidos).
+ * - {@link #setTextScale(float)} (lo llama UiAccessibility.applyLargeText) vacía todo si cambia la escala.
+ */
+public final class GlyphCache {
+
+    private static final int MAX_FONTS = 128;
+    private static final int MAX_GLYPHS = 512;
+
+    // Igual que drawString con antialias de texto: sin transformación, métricas enteras
+    private static final FontRenderContext FRC = new FontRenderContext(null, true, false);
+
+    private static final Map<String, Font> FONTS = lru(MAX_FONTS);
+    private static final Map<GlyphKey, Glyph> GLYPHS = lru(MAX_GLYPHS);
+
+    private static float textScale = 1f;
+
+    private GlyphCache() {}
+
+    /** Texto maquetado: se dibuja con {@link #draw(Graphics2D, float, float)}. */
+    public static final class Glyph {
+        private final GlyphVector gv;
+        private final int width;
+        private final int ascent;
+
+        private Glyph(GlyphVector gv, int width, int ascent) {
+            this.gv = gv;
+            this.width = width;
+            this.ascent = ascent;
+        }
+
+        /** Ancho de avance (equivale a FontMetrics.stringWidth). */
+        public int width() {
+            return width;
+        }
+
+        /** Ascenso de la fuente (equivale a FontMetrics.getAscent). */
+        public int ascent() {
+            return ascent;
+        }
+
+        public void draw(Graphics2D g2, float x, float baseline) {
+            g2.drawGlyphVector(gv, x, baseline);
+        }
+    }
+
+    // =========================================================
+    // API
+    // =========================================================
+
+    public static synchronized Font font(String family, int style, int size) {
+        String k = family + "|" + style + "|" + size;
+        Font f = FONTS.get(k);
+        if (f == null) {
+            f = new Font(family, style, size);
+            FONTS.put(k, f);
+        }
+        return f;
+    }
+
+    public static synchronized Glyph glyph(Font font, String text) {
+        if (font == null || text == null) return null;
+        GlyphKey k = new GlyphKey(font, text);
+        Glyph g = GLYPHS.get(k);
+        if (g == null) {
+            GlyphVector gv = font.createGlyphVector(FRC, text);
+            Rectangle2D logico = gv.getLogicalBounds();
+            int ascent = (int) Math.ceil(font.getLineMetrics(text, FRC).getAscent());
+            g = new Glyph(gv, (int) Math.round(logico.getWidth()), ascent);
+            GLYPHS.put(k, g);
+        }
+        return g;
+    }
+
+    /** Atajo: dibuja {@code text} centrado horizontalmente en {@code cx} sobre la línea base dada. */
+    public static void drawCentered(Graphics2D g2, Font font, String text, int cx, int baseline) {
+        Glyph g = glyph(font, text);
+        if (g != null) g.draw(g2, cx - g.width() / 2f, baseline);
+    }
+
+    /** Escala de "letra grande" vigente; si cambia, lo maquetado ya no sirve. */
+    public static synchronized void setTextScale(float scale) {
+        if (Float.compare(scale, textScale) == 0) return;
+        textScale = scale;
+        clear();
+    }
+
+    public static synchronized float textScale() {
+        return textScale;
+    }
+
+    public static synchronized void clear() {
+        FONTS.clear();
+        GLYPHS.clear();
+    }
+
+    // =========================================================
+    // Internos
+    // =========================================================
+
+    private static <K, V> Map<K, V> lru(int max) {
+        return new LinkedHashMap<K, V>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > max;
+            }
+        };
+    }
+
+    private static final class GlyphKey {
+        final Font font;
+        final String text;
+
+        GlyphKey(Font font, String text) {
+            this.font = font;
+            this.text = text;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof GlyphKey)) return false;
+            GlyphKey k = (GlyphKey) o;
+            return font.equals(k.font) && text.equals(k.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(font, text);
+        }
+    }
+}
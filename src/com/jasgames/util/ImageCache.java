@@ -0,0 +1,218 @@
+package com.jasgames.util;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Caché de imágenes compartida por todos los juegos y pantallas (sobrevive a los paneles
+ * que crea JuegoPanelFactory).
+ *
+ * - Clave: (recurso, ancho, alto, alpha). Alto 0 = "lado mayor = ancho, conservando proporción".
+ * - Nivel fuerte: LRU acotado por bytes de píxeles decodificados ({@value #MAX_BYTES} B).
+ * - Lo que sale del LRU queda como {@link SoftReference}: si la memoria alcanza, vuelve sin recargar.
+ * - Contadores de aciertos/fallos para ver si el tope está bien puesto.
+ *
+ * Las imágenes devueltas se comparten: no se deben modificar.
+ */
+public final class ImageCache {
+
+    static final long MAX_BYTES = 48L * 1024 * 1024;
+
+    private static final LinkedHashMap<Clave, BufferedImage> FUERTES = new LinkedHashMap<>(64, 0.75f, true);
+    private static final Map<Clave, RefBlanda> BLANDAS = new HashMap<>();
+    private static final ReferenceQueue<BufferedImage> COLA = new ReferenceQueue<>();
+
+    private static long bytes;
+    private static long hits;
+    private static long softHits;
+    private static long misses;
+
+    private ImageCache() {}
+
+    // =========================================================
+    // API
+    // =========================================================
+
+    /** Imagen del classpath a w×h exactos (desde la variante reducida más cercana). */
+    public static BufferedImage get(String resourcePath, int w, int h) {
+        return get(resourcePath, w, h, 1f);
+    }
+
+    /** Igual que {@link #get(String, int, int)} pero con opacidad aplicada (p. ej. iconos deshabilitados). */
+    public static BufferedImage get(String resourcePath, int w, int h, float alpha) {
+        if (resourcePath == null || w <= 0 || h <= 0) return null;
+        float a = Math.max(0f, Math.min(1f, alpha));
+        return obtener(new Clave(resourcePath, w, h, a), () -> {
+            BufferedImage img = AssetVariants.loadScaled(resourcePath, w, h);
+            return (img == null || a >= 1f) ? img : conAlpha(img, a);
+        });
+    }
+
+    /** Variante del recurso cuyo lado mayor es el más cercano por encima de {@code maxSide} (sin deformar). */
+    public static BufferedImage getFit(String resourcePath, int maxSide) {
+        if (resourcePath == null || maxSide <= 0) return null;
+        int lado = AssetVariants.variantSide(maxSide);
+        return obtener(new Clave(resourcePath, lado, 0, 1f), () -> AssetVariants.load(resourcePath, maxSide));
+    }
+
+    /**
+     * Imagen generada por código (p. ej. un emoji renderizado). {@code key} debe identificar el contenido;
+     * w/h forman parte de la clave.
+     */
+    public static BufferedImage getOrCreate(String key, int w, int h, Supplier<BufferedImage> loader) {
+        if (key == null || loader == null) return null;
+        return obtener(new Clave(key, w, h, 1f), loader);
+    }
+
+    public static synchronized long hits() {
+        return hits + softHits;
+    }
+
+    public static synchronized long misses() {
+        return misses;
+    }
+
+    public static synchronized long sizeBytes() {
+        return bytes;
+    }
+
+    /** Resumen para el log: "img cache: 12 MB, 340 hits (5 soft), 22 miss". */
+    public static synchronized String stats() {
+        return "img cache: " + (bytes / (1024 * 1024)) + " MB, " + (hits + softHits) + " hits ("
+                + softHits + " soft), " + misses + " miss";
+    }
+
+    public static synchronized void clear() {
+        FUERTES.clear();
+        BLANDAS.clear();
+        bytes = 0;
+    }
+
+    // =========================================================
+    // Internos
+    // =========================================================
+
+    private static BufferedImage obtener(Clave k, Supplier<BufferedImage> loader) {
+        BufferedImage img = buscar(k);
+        if (img != null) return img;
+
+        // La carga va fuera del lock: un prefetch en segundo plano no traba al EDT
+        img = loader.get();
+        if (img == null) return null;
+
+        synchronized (ImageCache.class) {
+            BufferedImage ya = FUERTES.get(k);
+            if (ya != null) return ya; // otro hilo la cargó mientras tanto
+            guardar(k, img);
+        }
+        return img;
+    }
+
+    private static synchronized BufferedImage buscar(Clave k) {
+        purgarBlandas();
+
+        BufferedImage img = FUERTES.get(k);
+        if (img != null) {
+            hits++;
+            return img;
+        }
+
+        RefBlanda ref = BLANDAS.remove(k);
+        img = (ref != null) ? ref.get() : null;
+        if (img != null) {
+            softHits++;
+            guardar(k, img);
+            return img;
+        }
+
+        misses++;
+        return null;
+    }
+
+    /** Agrega al LRU y pasa a referencia blanda lo menos usado hasta entrar en el tope. */
+    private static void guardar(Clave k, BufferedImage img) {
+        BufferedImage previa = FUERTES.put(k, img);
+        if (previa != null) bytes -= pixelBytes(previa);
+        bytes += pixelBytes(img);
+
+        Iterator<Map.Entry<Clave, BufferedImage>> it = FUERTES.entrySet().iterator();
+        while (bytes > MAX_BYTES && it.hasNext()) {
+            Map.Entry<Clave, BufferedImage> e = it.next();
+            if (e.getKey().equals(k)) continue;
+            bytes -= pixelBytes(e.getValue());
+            BLANDAS.put(e.getKey(), new RefBlanda(e.getKey(), e.getValue()));
+            it.remove();
+        }
+    }
+
+    private static void purgarBlandas() {
+        Reference<? extends BufferedImage> r;
+        while ((r = COLA.poll()) != null) {
+            RefBlanda rb = (RefBlanda) r;
+            if (BLANDAS.get(rb.clave) == rb) BLANDAS.remove(rb.clave);
+        }
+    }
+
+    private static long pixelBytes(BufferedImage img) {
+        int bpp = Math.max(1, img.getColorModel().getPixelSize() / 8);
+        return (long) img.getWidth() * img.getHeight() * bpp;
+    }
+
+    private static BufferedImage conAlpha(BufferedImage src, float alpha) {
+        BufferedImage out = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = out.createGraphics();
+        try {
+            g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+            g2.drawImage(src, 0, 0, null);
+        } finally {
+            g2.dispose();
+        }
+        return out;
+    }
+
+    private static final class Clave {
+        final String recurso;
+        final int w;
+        final int h;
+        final float alpha;
+
+        Clave(String recurso, int w, int h, float alpha) {
+            this.recurso = recurso;
+            this.w = w;
+            this.h = h;
+            this.alpha = alpha;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Clave)) return false;
+            Clave c = (Clave) o;
+            return w == c.w && h == c.h && Float.compare(alpha, c.alpha) == 0 && recurso.equals(c.recurso);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(recurso, w, h, alpha);
+        }
+    }
+
+    private static final class RefBlanda extends SoftReference<BufferedImage> {
+        final Clave clave;
+
+        RefBlanda(Clave clave, BufferedImage img) {
+            super(img, COLA);
+            this.clave = clave;
+        }
+    }
+}
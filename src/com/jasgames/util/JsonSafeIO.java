@@ -1,14 +1,23 @@
 package com.jasgames.util;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 public final class JsonSafeIO {
 
@@ -72,6 +81,184 @@ public final class JsonSafeIO {
         }
     }
 
+    // ---------------- Streaming (listas) ----------------
+
+    /**
+     * Lee un arreglo JSON elemento por elemento (sin cargar el archivo entero en un String).
+     *
+     * Los elementos de primer nivel se separan por texto (respetando strings y anidamiento),
+     * así un registro dañado no arrastra a los siguientes:
+     * - un registro con sintaxis inválida o que no se puede convertir al tipo se omite y se sigue
+     *   con el próximo; el archivo se reescribe una vez sin los omitidos (el original queda en .bak
+     *   y en data/backups/);
+     * - si no se puede resincronizar (string o llaves sin cerrar, archivo cortado), se devuelven los
+     *   elementos leídos, se guarda una copia .bak y el archivo NO se reescribe.
+     *
+     * Si el archivo no existe se crea con "[]"; si está vacío (o solo espacios) se reinicia a "[]".
+     * Nunca lanza excepción.
+     */
+    public static <T> List<T> readListOrRecover(Path path, Gson gson, Type elementType) {
+        List<T> out = new ArrayList<>();
+        try {
+            if (!Files.exists(path)) {
+                AtomicFiles.writeStringAtomic(path, "[]", StandardCharsets.UTF_8);
+                return out;
+            }
+
+            if (estaVacio(path)) {
+                backupAndReset(path, "[]");
+                return out;
+            }
+
+            int omitidos = 0;
+            boolean cortado = false;
+
+            try (BufferedReader br = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                ElementosArreglo elementos = new ElementosArreglo(br);
+                if (!elementos.abrir()) {
+                    AppLog.warn(path + " no contiene un arreglo JSON; se reinicia.");
+                    backupAndReset(path, "[]");
+                    return out;
+                }
+
+                String texto;
+                while ((texto = elementos.siguiente()) != null) {
+                    try {
+                        JsonElement el = JsonParser.parseString(texto);
+                        if (el == null || el.isJsonNull()) continue;
+                        T item = gson.fromJson(el, elementType);
+                        if (item != null) out.add(item);
+                    } catch (JsonParseException | IllegalStateException | NumberFormatException ex) {
+                        omitidos++;
+                    }
+                }
+                cortado = elementos.cortado;
+            }
+
+            if (cortado) {
+                // No se puede saber dónde sigue el arreglo: no se pisa el archivo con una parte
+                AppLog.error(path + " está dañado y no se pudo leer completo; se recuperaron " + out.size()
+                        + " elemento(s). El archivo no se modifica (copia en .bak).");
+                copiarBak(path);
+            } else if (omitidos > 0) {
+                // Se reescribe sin los inválidos para no repetir el aviso (ni el .bak) en cada carga
+                AppLog.warn(path + ": " + omitidos + " elemento(s) inválido(s) omitido(s).");
+                backupAndReset(path, gson.toJson(out));
+            }
+            return out;
+
+        } catch (Exception ex) {
+            AppLog.error("Error leyendo " + path + ": " + ex.getMessage(), ex);
+            return out;
+        }
+    }
+
+    /**
+     * Recorre un arreglo JSON y devuelve el texto de cada elemento de primer nivel,
+     * cortando en las comas / ']' que están fuera de strings y a profundidad 0.
+     */
+    private static final class ElementosArreglo {
+        private final Reader in;
+        private final StringBuilder sb = new StringBuilder();
+        private boolean terminado;
+        /** Se llegó al final del archivo sin cerrar un elemento o el arreglo. */
+        boolean cortado;
+
+        ElementosArreglo(Reader in) {
+            this.in = in;
+        }
+
+        /** Consume hasta el '[' inicial; false si el primer carácter significativo es otro. */
+        boolean abrir() throws IOException {
+            int c;
+            while ((c = in.read()) != -1) {
+                if (Character.isWhitespace(c) || c == '\uFEFF') continue;
+                return c == '[';
+            }
+            return false;
+        }
+
+        /** Próximo elemento (texto crudo, sin espacios en los extremos) o null al terminar. */
+        String siguiente() throws IOException {
+            while (!terminado) {
+                sb.setLength(0);
+                int profundidad = 0;
+                boolean enString = false;
+                boolean escape = false;
+                int c;
+                while (true) {
+                    c = in.read();
+                    if (c == -1) {
+                        cortado = true;
+                        terminado = true;
+                        break;
+                    }
+                    if (enString) {
+                        if (escape) escape = false;
+                        else if (c == '\\') escape = true;
+                        else if (c == '"') enString = false;
+                    } else if (c == '"') {
+                        enString = true;
+                    } else if (c == '{' || c == '[') {
+                        profundidad++;
+                    } else if (c == '}' || c == ']') {
+                        if (profundidad == 0) {
+                            if (c == ']') terminado = true; // fin del arreglo
+                            else cortado = terminado = true;
+                            break;
+                        }
+                        profundidad--;
+                    } else if (c == ',' && profundidad == 0) {
+                        break;
+                    }
+                    sb.append((char) c);
+                }
+
+                String texto = sb.toString().trim();
+                // Un elemento a medio escribir al final del archivo no se intenta parsear
+                if (!texto.isEmpty() && !(cortado && c == -1)) return texto;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Escribe una colección como arreglo JSON en streaming y de forma atómica (temporal + move),
+     * respetando la configuración del Gson (por ejemplo pretty printing).
+     */
+    public static <T> void writeListAtomic(Path path, Gson gson, Collection<T> items, Type elementType) throws IOException {
+        AtomicFiles.writeAtomic(path, StandardCharsets.UTF_8, w -> {
+            JsonWriter writer = gson.newJsonWriter(w);
+            writer.beginArray();
+            if (items != null) {
+                for (T item : items) {
+                    gson.toJson(item, elementType, writer);
+                }
+            }
+            writer.endArray();
+            writer.flush();
+        });
+    }
+
+    private static void copiarBak(Path path) {
+        try {
+            String ts = LocalDateTime.now().format(TS);
+            Files.copy(path, path.resolveSibling(path.getFileName().toString() + ".bak-" + ts), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ignored) {}
+        try { DataBackups.backupIfExists(path); } catch (Exception ignored) {}
+    }
+
+    /** true si el archivo no tiene más que espacios (lee solo hasta el primer carácter significativo). */
+    private static boolean estaVacio(Path path) throws IOException {
+        try (BufferedReader br = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            int c;
+            while ((c = br.read()) != -1) {
+                if (!Character.isWhitespace(c) && c != '\uFEFF') return false;
+            }
+            return true;
+        }
+    }
+
     private static void backupAndReset(Path path, String cleanJson) {
         try {
             if (Files.exists(path)) {
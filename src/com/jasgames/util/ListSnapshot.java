@@ -0,0 +1,56 @@
+package com.jasgames.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Foto inmutable y versionada de una lista de un servicio.
+ *
+ * Los servicios la publican en un campo volatile después de cada cambio (copy-on-write),
+ * así los lectores no toman el lock ni copian la lista en cada llamada.
+ *
+ * Ojo: la lista es inmutable, pero los elementos (Nino, PIA, ...) siguen siendo los objetos del servicio.
+ */
+public final class ListSnapshot<T> {
+
+    private static final ListSnapshot<?> EMPTY = new ListSnapshot<>(Collections.emptyList(), 0L);
+
+    private final List<T> items;
+    private final long version;
+
+    private ListSnapshot(List<T> items, long version) {
+        this.items = items;
+        this.version = version;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> ListSnapshot<T> empty() {
+        return (ListSnapshot<T>) EMPTY;
+    }
+
+    /** Nueva foto con el contenido indicado y la versión siguiente. */
+    public ListSnapshot<T> next(Collection<? extends T> nuevos) {
+        List<T> copia = (nuevos == null) ? new ArrayList<>() : new ArrayList<>(nuevos);
+        return new ListSnapshot<>(Collections.unmodifiableList(copia), version + 1);
+    }
+
+    /** Lista inmutable (no copiar para leer; copiar solo si se va a ordenar/filtrar en el lugar). */
+    public List<T> getItems() {
+        return items;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /** true si hubo cambios desde la versión indicada (por ejemplo la última que vio una pantalla). */
+    public boolean cambioDesde(long versionAnterior) {
+        return version != versionAnterior;
+    }
+
+    public int size() {
+        return items.size();
+    }
+}
@@ -0,0 +1,88 @@
+package com.jasgames.util;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escritura diferida (write-behind) de los archivos JSON de data/.
+ *
+ * Los servicios, tras modificar su lista en memoria, marcan su archivo como "sucio" con
+ * {@link #markDirty(Path, Runnable)}. Un hilo en segundo plano ejecuta el escritor una sola vez
+ * pasada la ventana ({@value #VENTANA_MS} ms desde la primera marca): una ráfaga de cambios
+ * (p. ej. asignar juegos a todos los niños) cuesta un backup y una reescritura en vez de decenas.
+ *
+ * - El escritor debe tomar el lock del archivo y serializar el estado actual (no una copia vieja).
+ * - {@link #flushNow()} / {@link #flushNow(Path)} escriben ya lo pendiente (restaurar backups, salir, credenciales).
+ * - Al cerrar la JVM un shutdown hook vacía todo lo pendiente.
+ * - No interrumpe el flujo si algo falla (se registra en el log).
+ */
+public final class PersistenceScheduler {
+
+    static final long VENTANA_MS = 200;
+
+    // Un escritor pendiente por archivo (la última marca gana: todos escriben el mismo estado)
+    private static final Map<Path, Runnable> PENDIENTES = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService WORKER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "PersistenceScheduler");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(PersistenceScheduler::flushNow, "PersistenceScheduler-exit"));
+    }
+
+    private PersistenceScheduler() {}
+
+    /** Marca {@code archivo} como pendiente de escribir; {@code writer} se ejecuta en segundo plano. */
+    public static void markDirty(Path archivo, Runnable writer) {
+        if (archivo == null || writer == null) return;
+        Path key = archivo.toAbsolutePath().normalize();
+
+        // Solo la primera marca programa la escritura; las siguientes se suman a la misma ventana
+        if (PENDIENTES.put(key, writer) == null) {
+            try {
+                WORKER.schedule(() -> escribir(key), VENTANA_MS, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                // Executor no disponible (apagando): escribir en el hilo actual
+                escribir(key);
+            }
+        }
+    }
+
+    /** Escribe ya lo pendiente de {@code archivo} (si lo hay), en el hilo actual. */
+    public static void flushNow(Path archivo) {
+        if (archivo == null) return;
+        escribir(archivo.toAbsolutePath().normalize());
+    }
+
+    /** Escribe ya todo lo pendiente, en el hilo actual. */
+    public static void flushNow() {
+        List<Path> keys = new ArrayList<>(PENDIENTES.keySet());
+        for (Path key : keys) {
+            escribir(key);
+        }
+    }
+
+    /** true si hay escrituras pendientes. */
+    public static boolean hasPending() {
+        return !PENDIENTES.isEmpty();
+    }
+
+    private static void escribir(Path key) {
+        Runnable writer = PENDIENTES.remove(key);
+        if (writer == null) return; // ya escrito (flush explícito o ventana anterior)
+        try {
+            writer.run();
+        } catch (Exception e) {
+            AppLog.error("PersistenceScheduler: no se pudo escribir " + key.getFileName(), e);
+        }
+    }
+}